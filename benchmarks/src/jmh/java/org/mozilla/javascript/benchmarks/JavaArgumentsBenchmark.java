@@ -0,0 +1,116 @@
+package org.mozilla.javascript.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.mozilla.javascript.Callable;
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.Context.EvaluationMethod;
+import org.mozilla.javascript.ScriptableObject;
+import org.mozilla.javascript.TopLevel;
+import org.openjdk.jmh.annotations.*;
+
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class JavaArgumentsBenchmark {
+
+    public static class Target {
+        public int addInts(int a, int b) {
+            return a + b;
+        }
+
+        public double scale(double d) {
+            return d * 2;
+        }
+
+        public int length(String s) {
+            return s.length();
+        }
+
+        public int size(List<?> list) {
+            return list.size();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ArgumentsState {
+        Context cx;
+        TopLevel scope;
+        Callable intArgs;
+        Callable doubleArgs;
+        Callable stringArgs;
+        Callable listArgs;
+
+        @Param({"Interpreter", "Compiler"})
+        public EvaluationMethod evalMethod;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            cx = Context.enter();
+            cx.setEvaluationMethod(evalMethod);
+            cx.setLanguageVersion(Context.VERSION_ES6);
+            scope = cx.initStandardObjects();
+
+            List<Integer> list = new ArrayList<>(List.of(1, 2, 3));
+            ScriptableObject.putProperty(scope, "target", Context.javaToJS(new Target(), scope));
+            ScriptableObject.putProperty(scope, "list", Context.javaToJS(list, scope));
+
+            cx.evaluateString(
+                    scope,
+                    "function intArgs() {\n"
+                            + "  var r = 0;\n"
+                            + "  for (var i = 0; i < 100; i++) r += target.addInts(i, 2);\n"
+                            + "  return r;\n"
+                            + "}\n"
+                            + "function doubleArgs() {\n"
+                            + "  var r = 0;\n"
+                            + "  for (var i = 0; i < 100; i++) r += target.scale(i + 0.5);\n"
+                            + "  return r;\n"
+                            + "}\n"
+                            + "function stringArgs() {\n"
+                            + "  var r = 0;\n"
+                            + "  for (var i = 0; i < 100; i++) r += target.length('abc');\n"
+                            + "  return r;\n"
+                            + "}\n"
+                            + "function listArgs() {\n"
+                            + "  var r = 0;\n"
+                            + "  for (var i = 0; i < 100; i++) r += target.size(list);\n"
+                            + "  return r;\n"
+                            + "}",
+                    "setup",
+                    1,
+                    null);
+            intArgs = (Callable) ScriptableObject.getProperty(scope, "intArgs");
+            doubleArgs = (Callable) ScriptableObject.getProperty(scope, "doubleArgs");
+            stringArgs = (Callable) ScriptableObject.getProperty(scope, "stringArgs");
+            listArgs = (Callable) ScriptableObject.getProperty(scope, "listArgs");
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            Context.exit();
+        }
+    }
+
+    @Benchmark
+    public Object intArgs(ArgumentsState state) {
+        return state.intArgs.call(state.cx, state.scope, null, new Object[0]);
+    }
+
+    @Benchmark
+    public Object doubleArgs(ArgumentsState state) {
+        return state.doubleArgs.call(state.cx, state.scope, null, new Object[0]);
+    }
+
+    @Benchmark
+    public Object stringArgs(ArgumentsState state) {
+        return state.stringArgs.call(state.cx, state.scope, null, new Object[0]);
+    }
+
+    @Benchmark
+    public Object listArgs(ArgumentsState state) {
+        return state.listArgs.call(state.cx, state.scope, null, new Object[0]);
+    }
+}
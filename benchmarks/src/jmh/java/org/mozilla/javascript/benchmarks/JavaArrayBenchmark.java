@@ -0,0 +1,108 @@
+package org.mozilla.javascript.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.mozilla.javascript.Callable;
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.Context.EvaluationMethod;
+import org.mozilla.javascript.ScriptableObject;
+import org.mozilla.javascript.TopLevel;
+import org.openjdk.jmh.annotations.*;
+
+/** Runs the methods of Array.prototype on wrapped Java arrays and lists. */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class JavaArrayBenchmark {
+
+    @State(Scope.Thread)
+    public static class ArrayState {
+        Context cx;
+        TopLevel scope;
+        Callable iterate;
+        Callable join;
+        Object[] ints;
+        Object[] doubles;
+        Object[] list;
+
+        @Param({"Interpreter", "Compiler"})
+        public EvaluationMethod evalMethod;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            cx = Context.enter();
+            cx.setEvaluationMethod(evalMethod);
+            cx.setLanguageVersion(Context.VERSION_ES6);
+            scope = cx.initStandardObjects();
+
+            int[] intArray = new int[1000];
+            double[] doubleArray = new double[1000];
+            List<Integer> javaList = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                intArray[i] = i;
+                doubleArray[i] = i / 3.0;
+                javaList.add(i);
+            }
+            ints = new Object[] {Context.javaToJS(intArray, scope)};
+            doubles = new Object[] {Context.javaToJS(doubleArray, scope)};
+            list = new Object[] {Context.javaToJS(javaList, scope)};
+
+            cx.evaluateString(
+                    scope,
+                    "var P = Array.prototype;\n"
+                            + "function add(a, x) { return a + x; }\n"
+                            + "function iterate(o) {\n"
+                            + "  var r = 0;\n"
+                            + "  P.forEach.call(o, function(x) { r += x; });\n"
+                            + "  r += P.map.call(o, function(x) { return x * 2; }).length;\n"
+                            + "  r += P.filter.call(o, function(x) { return x > 10; }).length;\n"
+                            + "  return r + P.reduce.call(o, add, 0);\n"
+                            + "}\n"
+                            + "function join(o) {\n"
+                            + "  return P.join.call(o).length + P.indexOf.call(o, -1);\n"
+                            + "}",
+                    "setup",
+                    1,
+                    null);
+            iterate = (Callable) ScriptableObject.getProperty(scope, "iterate");
+            join = (Callable) ScriptableObject.getProperty(scope, "join");
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            Context.exit();
+        }
+    }
+
+    @Benchmark
+    public Object iterateInts(ArrayState state) {
+        return state.iterate.call(state.cx, state.scope, null, state.ints);
+    }
+
+    @Benchmark
+    public Object iterateDoubles(ArrayState state) {
+        return state.iterate.call(state.cx, state.scope, null, state.doubles);
+    }
+
+    @Benchmark
+    public Object iterateList(ArrayState state) {
+        return state.iterate.call(state.cx, state.scope, null, state.list);
+    }
+
+    @Benchmark
+    public Object joinInts(ArrayState state) {
+        return state.join.call(state.cx, state.scope, null, state.ints);
+    }
+
+    @Benchmark
+    public Object joinDoubles(ArrayState state) {
+        return state.join.call(state.cx, state.scope, null, state.doubles);
+    }
+
+    @Benchmark
+    public Object joinList(ArrayState state) {
+        return state.join.call(state.cx, state.scope, null, state.list);
+    }
+}
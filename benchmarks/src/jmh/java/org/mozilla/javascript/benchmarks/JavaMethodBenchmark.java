@@ -0,0 +1,70 @@
+package org.mozilla.javascript.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.mozilla.javascript.Callable;
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.Context.EvaluationMethod;
+import org.mozilla.javascript.ScriptableObject;
+import org.mozilla.javascript.TopLevel;
+import org.openjdk.jmh.annotations.*;
+
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class JavaMethodBenchmark {
+
+    @State(Scope.Thread)
+    public static class JavaState {
+        Context cx;
+        TopLevel scope;
+        Callable appendOverloads;
+        Callable putInMap;
+
+        @Param({"Interpreter", "Compiler"})
+        public EvaluationMethod evalMethod;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            cx = Context.enter();
+            cx.setEvaluationMethod(evalMethod);
+            cx.setLanguageVersion(Context.VERSION_ES6);
+            scope = cx.initStandardObjects();
+
+            cx.evaluateString(
+                    scope,
+                    "function appendOverloads() {\n"
+                            + "  var sb = new java.lang.StringBuilder();\n"
+                            + "  for (var i = 0; i < 100; i++) {\n"
+                            + "    sb.append(i); sb.append('x'); sb.append(i % 2 == 0);\n"
+                            + "  }\n"
+                            + "  return sb.length();\n"
+                            + "}\n"
+                            + "function putInMap() {\n"
+                            + "  var m = new java.util.HashMap();\n"
+                            + "  for (var i = 0; i < 100; i++) m.put(i & 15, i);\n"
+                            + "  return m.size();\n"
+                            + "}",
+                    "setup",
+                    1,
+                    null);
+            appendOverloads = (Callable) ScriptableObject.getProperty(scope, "appendOverloads");
+            putInMap = (Callable) ScriptableObject.getProperty(scope, "putInMap");
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            Context.exit();
+        }
+    }
+
+    @Benchmark
+    public Object appendOverloads(JavaState state) {
+        return state.appendOverloads.call(state.cx, state.scope, null, new Object[0]);
+    }
+
+    @Benchmark
+    public Object putInMap(JavaState state) {
+        return state.putInMap.call(state.cx, state.scope, null, new Object[0]);
+    }
+}
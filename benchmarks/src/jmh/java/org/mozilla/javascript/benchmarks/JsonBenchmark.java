@@ -0,0 +1,109 @@
+package org.mozilla.javascript.benchmarks;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.NativeJSON;
+import org.mozilla.javascript.TopLevel;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Converts large and deeply nested values to JSON text, either as a string or written to a sink
+ * that throws the text away, which stands in for a network connection.
+ */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonBenchmark {
+
+    /** A writer that only counts what it is given. */
+    private static final class NullWriter extends Writer {
+        long count;
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            count += len;
+        }
+
+        @Override
+        public Writer append(CharSequence csq) {
+            count += csq.length();
+            return this;
+        }
+
+        @Override
+        public void flush() {}
+
+        @Override
+        public void close() {}
+    }
+
+    @State(Scope.Thread)
+    public static class JsonState {
+        Context cx;
+        TopLevel scope;
+
+        Object large;
+        Object deep;
+        NullWriter sink = new NullWriter();
+
+        @Param({"0", "2"})
+        public int space;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            cx = Context.enter();
+            cx.setLanguageVersion(Context.VERSION_ES6);
+            scope = cx.initStandardObjects();
+            large =
+                    cx.evaluateString(
+                            scope,
+                            "var a = [];\n"
+                                    + "for (var i = 0; i < 10000; i++) {\n"
+                                    + "  a.push({ id: i, name: 'item ' + i, price: i / 7,"
+                                    + " tags: ['a', 'b\\n'], active: i % 2 == 0 });\n"
+                                    + "}\n"
+                                    + "a",
+                            "large",
+                            1,
+                            null);
+            deep =
+                    cx.evaluateString(
+                            scope,
+                            "var o = { leaf: true };\n"
+                                    + "for (var i = 0; i < 500; i++) {\n"
+                                    + "  o = { level: i, child: o, siblings: [i, 'x' + i] };\n"
+                                    + "}\n"
+                                    + "o",
+                            "deep",
+                            1,
+                            null);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            cx.close();
+        }
+    }
+
+    @Benchmark
+    public Object stringifyLarge(JsonState state) {
+        return NativeJSON.stringify(state.cx, state.scope, state.large, null, state.space);
+    }
+
+    @Benchmark
+    public Object stringifyDeep(JsonState state) {
+        return NativeJSON.stringify(state.cx, state.scope, state.deep, null, state.space);
+    }
+
+    @Benchmark
+    public long writeLarge(JsonState state) throws IOException {
+        NativeJSON.stringify(state.cx, state.scope, state.large, null, state.space, state.sink);
+        return state.sink.count;
+    }
+
+    @Benchmark
+    public long writeDeep(JsonState state) throws IOException {
+        NativeJSON.stringify(state.cx, state.scope, state.deep, null, state.space, state.sink);
+        return state.sink.count;
+    }
+}
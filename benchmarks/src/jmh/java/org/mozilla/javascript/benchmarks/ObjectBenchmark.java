@@ -6,6 +6,7 @@ import java.util.Random;
 import java.util.concurrent.TimeUnit;
 import org.mozilla.javascript.Context;
 import org.mozilla.javascript.Context.EvaluationMethod;
+import org.mozilla.javascript.ContextFactory;
 import org.mozilla.javascript.Function;
 import org.mozilla.javascript.Scriptable;
 import org.mozilla.javascript.ScriptableObject;
@@ -29,6 +30,23 @@ public class ObjectBenchmark {
         }
     }
 
+    /** Lets the benchmarks compare objects with their own slot maps to shaped objects. */
+    static class ObjectLayoutFactory extends ContextFactory {
+        private final boolean shaped;
+
+        ObjectLayoutFactory(boolean shaped) {
+            this.shaped = shaped;
+        }
+
+        @Override
+        protected boolean hasFeature(Context cx, int featureIndex) {
+            if (featureIndex == Context.FEATURE_SHAPED_OBJECTS) {
+                return shaped;
+            }
+            return super.hasFeature(cx, featureIndex);
+        }
+    }
+
     @State(Scope.Thread)
     public static class FieldTestState {
         Context cx;
@@ -39,10 +57,13 @@ public class ObjectBenchmark {
         @Param({"Interpreter", "Compiler"})
         public EvaluationMethod evalMethod;
 
+        @Param({"false", "true"})
+        public boolean shapedObjects;
+
         @Setup(Level.Trial)
         @SuppressWarnings("unused")
         public void create() throws IOException {
-            cx = Context.enter();
+            cx = new ObjectLayoutFactory(shapedObjects).enterContext();
             cx.setEvaluationMethod(evalMethod);
             cx.setLanguageVersion(Context.VERSION_ES6);
 
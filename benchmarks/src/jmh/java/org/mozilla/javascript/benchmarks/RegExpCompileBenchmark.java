@@ -0,0 +1,75 @@
+package org.mozilla.javascript.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.mozilla.javascript.Callable;
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.ScriptableObject;
+import org.mozilla.javascript.TopLevel;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Builds the same regular expressions again and again inside a loop, as scripts do that call
+ * {@code new RegExp(pattern, flags)} with a pattern they have in a variable.
+ */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class RegExpCompileBenchmark {
+
+    @State(Scope.Thread)
+    public static class RegExpState {
+        Context cx;
+        TopLevel scope;
+        Callable dynamicRegExp;
+        Callable replaceInLoop;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            cx = Context.enter();
+            cx.setLanguageVersion(Context.VERSION_ES6);
+            scope = cx.initStandardObjects();
+
+            cx.evaluateString(
+                    scope,
+                    "function dynamicRegExp() {\n"
+                            + "  var n = 0;\n"
+                            + "  for (var i = 0; i < 100; i++) {\n"
+                            + "    var re = new RegExp(\n"
+                            + "        '^([a-z0-9_.-]+)@([\\\\da-z.-]+)\\\\.([a-z.]{2,6})$', 'i');\n"
+                            + "    if (re.test('user' + i + '@example.com')) n++;\n"
+                            + "  }\n"
+                            + "  return n;\n"
+                            + "}\n"
+                            + "var separators = [',', ';', '\\\\s+', '\\\\|'];\n"
+                            + "function replaceInLoop() {\n"
+                            + "  var s = '';\n"
+                            + "  for (var i = 0; i < 100; i++) {\n"
+                            + "    var re = new RegExp(separators[i % 4], 'g');\n"
+                            + "    s = 'a,b;c d|e'.replace(re, '-');\n"
+                            + "  }\n"
+                            + "  return s;\n"
+                            + "}",
+                    "setup",
+                    1,
+                    null);
+            dynamicRegExp = (Callable) ScriptableObject.getProperty(scope, "dynamicRegExp");
+            replaceInLoop = (Callable) ScriptableObject.getProperty(scope, "replaceInLoop");
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            Context.exit();
+        }
+    }
+
+    @Benchmark
+    public Object dynamicRegExp(RegExpState state) {
+        return state.dynamicRegExp.call(state.cx, state.scope, null, new Object[0]);
+    }
+
+    @Benchmark
+    public Object replaceInLoop(RegExpState state) {
+        return state.replaceInLoop.call(state.cx, state.scope, null, new Object[0]);
+    }
+}
@@ -0,0 +1,79 @@
+package org.mozilla.javascript.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.mozilla.javascript.Callable;
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.ScriptableObject;
+import org.mozilla.javascript.TopLevel;
+import org.openjdk.jmh.annotations.*;
+
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class RegExpSearchBenchmark {
+
+    @State(Scope.Thread)
+    public static class RegExpState {
+        Context cx;
+        TopLevel scope;
+        Callable findAssignment;
+        Callable nestedQuantifiers;
+        Callable replaceUrls;
+        Callable splitOnNumbers;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            cx = Context.enter();
+            cx.setLanguageVersion(Context.VERSION_ES6);
+            scope = cx.initStandardObjects();
+
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < 200; i++) {
+                sb.append("line ").append(i).append(": nothing to see in here, move along\n");
+            }
+            ScriptableObject.putProperty(scope, "text", sb.toString() + "answer = 42;");
+            ScriptableObject.putProperty(scope, "as", "a".repeat(30) + "c");
+
+            cx.evaluateString(
+                    scope,
+                    "function findAssignment() { return /(\\w+)\\s*=\\s*(\\d+);/.exec(text); }\n"
+                            + "function nestedQuantifiers() { return /(a+)+b/.test(as); }\n"
+                            + "function replaceUrls() {"
+                            + " return text.replace(/https?:\\/\\/\\w+/g, 'URL'); }\n"
+                            + "function splitOnNumbers() { return text.split(/\\d+/).length; }",
+                    "setup",
+                    1,
+                    null);
+            findAssignment = (Callable) ScriptableObject.getProperty(scope, "findAssignment");
+            nestedQuantifiers = (Callable) ScriptableObject.getProperty(scope, "nestedQuantifiers");
+            replaceUrls = (Callable) ScriptableObject.getProperty(scope, "replaceUrls");
+            splitOnNumbers = (Callable) ScriptableObject.getProperty(scope, "splitOnNumbers");
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            Context.exit();
+        }
+    }
+
+    @Benchmark
+    public Object findAssignment(RegExpState state) {
+        return state.findAssignment.call(state.cx, state.scope, null, new Object[0]);
+    }
+
+    @Benchmark
+    public Object nestedQuantifiers(RegExpState state) {
+        return state.nestedQuantifiers.call(state.cx, state.scope, null, new Object[0]);
+    }
+
+    @Benchmark
+    public Object replaceUrls(RegExpState state) {
+        return state.replaceUrls.call(state.cx, state.scope, null, new Object[0]);
+    }
+
+    @Benchmark
+    public Object splitOnNumbers(RegExpState state) {
+        return state.splitOnNumbers.call(state.cx, state.scope, null, new Object[0]);
+    }
+}
@@ -6,6 +6,7 @@ import org.mozilla.javascript.EmbeddedSlotMap;
 import org.mozilla.javascript.HashSlotMap;
 import org.mozilla.javascript.PropHolder;
 import org.mozilla.javascript.Scriptable;
+import org.mozilla.javascript.ShapedSlotMap;
 import org.mozilla.javascript.Slot;
 import org.mozilla.javascript.SlotMap;
 import org.openjdk.jmh.annotations.*;
@@ -145,6 +146,111 @@ public class SlotMapBenchmark {
         return slot;
     }
 
+    @State(Scope.Thread)
+    public static class ShapedState {
+        // Shaped maps only hold records, so they are not filled with 100 entries
+        final ShapedSlotMap<Scriptable> size10Map = new ShapedSlotMap<>();
+        final ShapedSlotMap<Scriptable> size50Map = new ShapedSlotMap<>();
+        final String[] randomKeys = new String[10];
+        String size50LastKey;
+        String size10LastKey;
+
+        @Setup(Level.Trial)
+        public void create() {
+            String lastKey = null;
+            for (int i = 0; i < 10; i++) {
+                lastKey = insertRandomEntry(size10Map);
+            }
+            size10LastKey = lastKey;
+            for (int i = 0; i < 50; i++) {
+                lastKey = insertRandomEntry(size50Map);
+            }
+            size50LastKey = lastKey;
+            for (int i = 0; i < 10; i++) {
+                randomKeys[i] = makeRandomString();
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(10)
+    public Object shapedInsert10KeysNewMap(ShapedState state) {
+        ShapedSlotMap<Scriptable> map = new ShapedSlotMap<>();
+        for (int i = 0; i < 10; i++) {
+            map.modify(null, state.randomKeys[i], 0, 0);
+        }
+        return map;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(10)
+    public Object embeddedInsert10KeysNewMap(ShapedState state) {
+        EmbeddedSlotMap<Scriptable> map = new EmbeddedSlotMap<>();
+        for (int i = 0; i < 10; i++) {
+            map.modify(null, state.randomKeys[i], 0, 0);
+        }
+        return map;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(100)
+    public Object shapedQueryKey10Entries(ShapedState state) {
+        Slot<Scriptable> slot = null;
+        for (int i = 0; i < 100; i++) {
+            slot = state.size10Map.query(state.size10LastKey, 0);
+        }
+        if (slot == null) {
+            throw new AssertionError();
+        }
+        return slot;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(100)
+    public Object shapedQueryKey50Entries(ShapedState state) {
+        Slot<Scriptable> slot = null;
+        for (int i = 0; i < 100; i++) {
+            slot = state.size50Map.query(state.size50LastKey, 0);
+        }
+        if (slot == null) {
+            throw new AssertionError();
+        }
+        return slot;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(10)
+    public Object shapedPut10KeysNewMap(ShapedState state) {
+        ShapedSlotMap<Scriptable> map = new ShapedSlotMap<>();
+        for (int i = 0; i < 10; i++) {
+            map.putValue(null, state.randomKeys[i], 0, null, state.randomKeys[i], false);
+        }
+        return map;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(10)
+    public Object embeddedPut10KeysNewMap(ShapedState state) {
+        EmbeddedSlotMap<Scriptable> map = new EmbeddedSlotMap<>();
+        for (int i = 0; i < 10; i++) {
+            map.putValue(null, state.randomKeys[i], 0, null, state.randomKeys[i], false);
+        }
+        return map;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(100)
+    public Object shapedGetValue10Entries(ShapedState state) {
+        Object value = null;
+        for (int i = 0; i < 100; i++) {
+            value = state.size10Map.getValue(state.size10LastKey, 0, null);
+        }
+        if (value == Scriptable.NOT_FOUND) {
+            throw new AssertionError();
+        }
+        return value;
+    }
+
     /** Make a new string between 1 and 50 characters out of random lower-case letters. */
     private static String makeRandomString() {
         int len = rand.nextInt(49) + 1;
@@ -1,7 +1,19 @@
 package org.mozilla.javascript.benchmarks;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 import org.mozilla.javascript.Context;
+import org.mozilla.javascript.ContextFactory;
+import org.mozilla.javascript.Script;
+import org.mozilla.javascript.optimizer.FileScriptClassCache;
 import org.openjdk.jmh.annotations.*;
 
 @OutputTimeUnit(TimeUnit.MICROSECONDS)
@@ -12,4 +24,81 @@ public class StartupBenchmark {
             return cx.initStandardObjects();
         }
     }
+
+    /**
+     * Compares compiling a script from source with loading the classes generated for it from a
+     * {@link FileScriptClassCache}, which is what happens for every script after a JVM restart,
+     * and with handing bytecode generation to a background executor.
+     */
+    @State(Scope.Thread)
+    public static class CompileState {
+        @Param({"3d-cube.js", "crypto-aes.js", "date-format-xparb.js"})
+        public String fileName;
+
+        String source;
+        Path cacheDir;
+        ContextFactory coldFactory;
+        ContextFactory warmFactory;
+        ContextFactory backgroundFactory;
+        ThreadPoolExecutor executor;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            source =
+                    new String(
+                            Files.readAllBytes(
+                                    Paths.get("testsrc/benchmarks/sunspider-1.0", fileName)),
+                            StandardCharsets.UTF_8);
+            coldFactory = new ContextFactory();
+
+            cacheDir = Files.createTempDirectory("rhino-class-cache");
+            warmFactory = new ContextFactory();
+            warmFactory.setScriptClassCache(new FileScriptClassCache(cacheDir));
+            // Populate the cache so that every benchmark iteration is a hit
+            compile(warmFactory);
+
+            // Compilations that do not fit into the queue are dropped, as they would be in a
+            // loaded server, so that the benchmark measures the latency of the calling thread
+            executor =
+                    new ThreadPoolExecutor(
+                            1,
+                            1,
+                            0,
+                            TimeUnit.SECONDS,
+                            new ArrayBlockingQueue<>(16),
+                            new ThreadPoolExecutor.DiscardPolicy());
+            backgroundFactory = new ContextFactory();
+            backgroundFactory.setCompilationExecutor(executor);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            executor.shutdownNow();
+            try (Stream<Path> files = Files.walk(cacheDir)) {
+                files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+            }
+        }
+
+        Script compile(ContextFactory factory) {
+            try (Context cx = factory.enterContext()) {
+                cx.setLanguageVersion(Context.VERSION_ES6);
+                return cx.compileString(source, fileName, 1, null);
+            }
+        }
+    }
+
+    @Benchmark
+    public Object compileColdStart(CompileState state) {
+        return state.compile(state.coldFactory);
+    }
+
+    @Benchmark
+    public Object compileWarmCache(CompileState state) {
+        return state.compile(state.warmFactory);
+    }
+
+    @Benchmark
+    public Object compileBackground(CompileState state) {
+        return state.compile(state.backgroundFactory);
+    }
 }
@@ -0,0 +1,119 @@
+package org.mozilla.javascript.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.Context.EvaluationMethod;
+import org.mozilla.javascript.Function;
+import org.mozilla.javascript.ScriptRuntime;
+import org.mozilla.javascript.ScriptableObject;
+import org.mozilla.javascript.TopLevel;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Runs typical typed array workloads: element by element loops over image data, a CRC32 table
+ * lookup and a sum of doubles, and the bulk operations that copy or fill whole arrays.
+ */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TypedArrayBenchmark {
+    private static final String SOURCE =
+            "var SIZE = 64;\n"
+                    + "var image = new Uint8ClampedArray(SIZE * SIZE);\n"
+                    + "var output = new Uint8ClampedArray(SIZE * SIZE);\n"
+                    + "for (var i = 0; i < image.length; i++) { image[i] = (i * 7) & 255; }\n"
+                    + "function convolve() {\n"
+                    + "  for (var y = 1; y < SIZE - 1; y++) {\n"
+                    + "    for (var x = 1; x < SIZE - 1; x++) {\n"
+                    + "      var p = y * SIZE + x;\n"
+                    + "      output[p] = 5 * image[p] - image[p - 1] - image[p + 1]\n"
+                    + "          - image[p - SIZE] - image[p + SIZE];\n"
+                    + "    }\n"
+                    + "  }\n"
+                    + "  return output[SIZE + 1];\n"
+                    + "}\n"
+                    + "var crcTable = new Int32Array(256);\n"
+                    + "for (var n = 0; n < 256; n++) {\n"
+                    + "  var c = n;\n"
+                    + "  for (var k = 0; k < 8; k++) {\n"
+                    + "    c = c & 1 ? 0xedb88320 ^ (c >>> 1) : c >>> 1;\n"
+                    + "  }\n"
+                    + "  crcTable[n] = c;\n"
+                    + "}\n"
+                    + "var bytes = new Uint8Array(4096);\n"
+                    + "for (var i = 0; i < bytes.length; i++) { bytes[i] = i * 31; }\n"
+                    + "function crc32() {\n"
+                    + "  var crc = -1;\n"
+                    + "  for (var i = 0; i < bytes.length; i++) {\n"
+                    + "    crc = crcTable[(crc ^ bytes[i]) & 255] ^ (crc >>> 8);\n"
+                    + "  }\n"
+                    + "  return (crc ^ -1) >>> 0;\n"
+                    + "}\n"
+                    + "var doubles = new Float64Array(4096);\n"
+                    + "for (var i = 0; i < doubles.length; i++) { doubles[i] = i / 3; }\n"
+                    + "function sum() {\n"
+                    + "  var s = 0;\n"
+                    + "  for (var i = 0; i < doubles.length; i++) { s += doubles[i]; }\n"
+                    + "  return s;\n"
+                    + "}\n"
+                    + "var target = new Float64Array(8192);\n"
+                    + "var ints = new Int16Array(4096);\n"
+                    + "function bulk() {\n"
+                    + "  target.set(doubles);\n"
+                    + "  target.set(ints, 4096);\n"
+                    + "  target.copyWithin(1, 0, 4096);\n"
+                    + "  target.fill(0.5, 4096);\n"
+                    + "  return doubles.slice(1).length;\n"
+                    + "}\n";
+
+    @State(Scope.Thread)
+    public static class TypedArrayState {
+        Context cx;
+        TopLevel scope;
+
+        Function convolve;
+        Function crc32;
+        Function sum;
+        Function bulk;
+
+        @Param({"Interpreter", "Compiler"})
+        public EvaluationMethod evalMethod;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            cx = Context.enter();
+            cx.setEvaluationMethod(evalMethod);
+            cx.setLanguageVersion(Context.VERSION_ES6);
+            scope = cx.initStandardObjects();
+            cx.evaluateString(scope, SOURCE, "typed-arrays.js", 1, null);
+
+            convolve = (Function) ScriptableObject.getProperty(scope, "convolve");
+            crc32 = (Function) ScriptableObject.getProperty(scope, "crc32");
+            sum = (Function) ScriptableObject.getProperty(scope, "sum");
+            bulk = (Function) ScriptableObject.getProperty(scope, "bulk");
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            cx.close();
+        }
+    }
+
+    @Benchmark
+    public Object convolve(TypedArrayState state) {
+        return state.convolve.call(state.cx, state.scope, null, ScriptRuntime.emptyArgs);
+    }
+
+    @Benchmark
+    public Object crc32(TypedArrayState state) {
+        return state.crc32.call(state.cx, state.scope, null, ScriptRuntime.emptyArgs);
+    }
+
+    @Benchmark
+    public Object sum(TypedArrayState state) {
+        return state.sum.call(state.cx, state.scope, null, ScriptRuntime.emptyArgs);
+    }
+
+    @Benchmark
+    public Object bulk(TypedArrayState state) {
+        return state.bulk.call(state.cx, state.scope, null, ScriptRuntime.emptyArgs);
+    }
+}
@@ -115,7 +115,7 @@ public class ArrayLikeAbstractOperations {
                         : +1;
         for (long i = start; i != end; i += increment) {
             Object[] innerArgs = new Object[3];
-            Object elem = getRawElem((Scriptable) o, i);
+            Object elem = getRawElem(cx, (Scriptable) o, i);
             if (elem == NOT_FOUND) {
                 if (operation == IterativeOperation.FIND
                         || operation == IterativeOperation.FIND_INDEX
@@ -243,6 +243,20 @@ public class ArrayLikeAbstractOperations {
         }
     }
 
+    // same as getRawElem, but reads the elements of wrapped Java arrays and lists directly.
+    // Their get(int) never returns NOT_FOUND, so their prototypes need not be searched.
+    static Object getRawElem(Context cx, Scriptable target, long index) {
+        if (index >= 0 && index <= Integer.MAX_VALUE) {
+            // subclasses may override get(int)
+            if (target.getClass() == NativeJavaArray.class) {
+                return ((NativeJavaArray) target).getElement(cx, (int) index);
+            } else if (target.getClass() == NativeJavaList.class) {
+                return ((NativeJavaList) target).getElement(cx, (int) index);
+            }
+        }
+        return getRawElem(target, index);
+    }
+
     // same as NativeArray::getElem, but without converting NOT_FOUND to undefined
     static Object getRawElem(Scriptable target, long index) {
         if (index < 0 || index > Integer.MAX_VALUE) {
@@ -296,7 +310,7 @@ public class ArrayLikeAbstractOperations {
         Object value = args.length > 1 ? args[1] : NOT_FOUND;
         for (long i = 0; i < length; i++) {
             long index = movingLeft ? i : (length - 1 - i);
-            Object elem = getRawElem((Scriptable) o, index);
+            Object elem = getRawElem(cx, o, index);
             if (elem == NOT_FOUND) {
                 continue;
             }
@@ -103,6 +103,11 @@ class CodeGenerator<T extends ScriptOrFn<T>> {
 
         CodeGenUtils.setConstructor(builder, theFunction);
 
+        if (isTierable(theFunction)) {
+            itsData.tierUpThreshold = compilerEnv.getTieredCompilationThreshold();
+            itsData.baseLineno = theFunction.getLineno();
+        }
+
         if (theFunction.isGenerator()) {
             // For generators with default parameters, generate parameter initialization
             // bytecode BEFORE Icode.GENERATOR so defaults are evaluated before generator
@@ -205,6 +210,32 @@ class CodeGenerator<T extends ScriptOrFn<T>> {
         if (Token.printICode) Interpreter.dumpICode(itsData, builder);
     }
 
+    /**
+     * Return true if the function may be recompiled to bytecode from its source once it got hot.
+     * The source must compile on its own to a function that behaves the same when invoked with the
+     * interpreted function object, which rules out functions that depend on how they were
+     * declared.
+     */
+    private boolean isTierable(FunctionNode fn) {
+        if (compilerEnv.getTieredCompilationThreshold() <= 0
+                || !compilerEnv.isGeneratingSource()
+                || compilerEnv.isInEval()
+                || !Context.EvaluationMethod.Compiler.isValid()) {
+            return false;
+        }
+        if (fn.isGenerator()
+                || fn.isES6Generator()
+                || fn.isMethod()
+                || fn.isShorthand()
+                || fn.getFunctionType() == FunctionNode.ARROW_FUNCTION) {
+            return false;
+        }
+        // A named function expression sees its own name, which a declaration compiled from the
+        // same source would not
+        return fn.getFunctionType() == FunctionNode.FUNCTION_STATEMENT
+                || fn.getFunctionName() == null;
+    }
+
     private void generateNestedFunctions() {
         int functionCount = scriptOrFn.getFunctionCount();
         if (functionCount == 0) return;
@@ -44,6 +44,7 @@ public class CompilerEnvirons {
 
         // Observer code generation in compiled code :
         generateObserverCount = cx.isGenerateObserverCount();
+        tieredCompilationThreshold = cx.getFactory().getTieredCompilationThreshold();
         securityController = cx.getSecurityController();
     }
 
@@ -187,6 +188,26 @@ public class CompilerEnvirons {
         this.generateObserverCount = generateObserverCount;
     }
 
+    /**
+     * @return the number of calls and loop iterations after which interpreted functions are
+     *     compiled to JVM byte code, or 0 if they always stay interpreted
+     */
+    public int getTieredCompilationThreshold() {
+        return tieredCompilationThreshold;
+    }
+
+    /**
+     * Set the number of calls and loop iterations after which a function compiled in interpreted
+     * mode is recompiled to JVM byte code. Has no effect on code compiled to JVM byte code to begin
+     * with.
+     *
+     * @param threshold the threshold, or 0 to disable tiered compilation
+     * @see ContextFactory#setTieredCompilationThreshold(int)
+     */
+    public void setTieredCompilationThreshold(int threshold) {
+        this.tieredCompilationThreshold = threshold;
+    }
+
     public boolean isRecordingComments() {
         return recordingComments;
     }
@@ -320,6 +341,7 @@ public class CompilerEnvirons {
     private boolean strictMode;
     private boolean warningAsError;
     private boolean generateObserverCount;
+    private int tieredCompilationThreshold;
     private boolean recordingComments;
     private boolean recordingLocalJsDocComments;
     private boolean recoverFromErrors;
@@ -9,6 +9,8 @@ package org.mozilla.javascript;
 import java.io.Serial;
 import java.io.Serializable;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
 
 /**
  * This class represents a string composed of two components, each of which may be a {@code
@@ -16,8 +18,9 @@ import java.util.ArrayDeque;
  *
  * <p>This string representation is optimized for concatenation using the "+" operator. Instead of
  * immediately copying both components to a new character array, ConsString keeps references to the
- * original components and only converts them to a String if either toString() is called or a
- * certain depth level is reached.
+ * original components and only converts them to a String when toString() is called. Ropes that get
+ * too deep have their spine rebuilt from a few strings, and a few operations that only look at part
+ * of a shallow rope walk its components instead of flattening it.
  *
  * <p>Note that instances of this class are only immutable if both parts are immutable, i.e. either
  * Strings or ConsStrings that are ultimately composed of Strings.
@@ -28,9 +31,25 @@ public class ConsString implements CharSequence, Serializable {
 
     @Serial private static final long serialVersionUID = -8432806714471372570L;
 
-    private CharSequence left, right;
+    // shorter concatenations are copied, because a rope would take more space than the copy
+    private static final int MIN_LENGTH = 13;
+    // the spine of ropes deeper than this is rebuilt when they are concatenated
+    private static final int MAX_DEPTH = 1024;
+    // deeper ropes are flattened rather than walked by charAt, indexOf and startsWith
+    private static final int MAX_WALK_DEPTH = 32;
+
+    /*
+     * Once the string is flattened, flat is set first and the components are cleared after it.
+     * Readers that find a cleared component read flat again, which the volatile writes guarantee
+     * to see, so flattening needs no lock.
+     */
+    private volatile CharSequence left, right;
+    private volatile String flat;
     private final int length;
-    private boolean isFlat;
+    // short, so that the flag below fits in the space an int takes
+    private final short depth;
+    // set once charAtUnflattened walked the rope, so that further calls flatten it
+    private boolean indexed;
 
     public ConsString(CharSequence str1, CharSequence str2) {
         if (!(str1 instanceof String) && !(str1 instanceof ConsString)) {
@@ -39,10 +58,102 @@ public class ConsString implements CharSequence, Serializable {
         if (!(str2 instanceof String) && !(str2 instanceof ConsString)) {
             str2 = str2.toString();
         }
+        length = str1.length() + str2.length();
+        int d = 1 + Math.max(depthOf(str1), depthOf(str2));
+        if (d > MAX_DEPTH) {
+            // Appending or prepending in a loop builds a rope that leans to one side. Only its
+            // spine is rebuilt, so this costs about as much as the appends that made it deep.
+            boolean leansLeft = depthOf(str1) >= depthOf(str2);
+            ArrayList<CharSequence> blocks = compactSpine(str1, str2, leansLeft);
+            int last = blocks.size() - 1;
+            CharSequence rest = blocks.get(0);
+            for (int i = 1; i < last; i++) {
+                CharSequence block = blocks.get(i);
+                rest = leansLeft ? new ConsString(rest, block) : new ConsString(block, rest);
+            }
+            CharSequence newest = last > 0 ? blocks.get(last) : "";
+            str1 = leansLeft ? rest : newest;
+            str2 = leansLeft ? newest : rest;
+            d = 1 + Math.max(depthOf(str1), depthOf(str2));
+        }
         left = str1;
         right = str2;
-        length = left.length() + right.length();
-        isFlat = false;
+        depth = (short) d;
+    }
+
+    /**
+     * Concatenate two strings. The result is a ConsString, unless both are strings and the result
+     * is so short that it is cheaper to copy them. Java stores strings that only contain Latin-1
+     * chars with one byte per char, so copying keeps them compact.
+     */
+    public static CharSequence concat(CharSequence str1, CharSequence str2) {
+        if (str1 instanceof String && str2 instanceof String) {
+            String s1 = (String) str1;
+            String s2 = (String) str2;
+            if (s1.isEmpty() || s2.isEmpty() || s1.length() + s2.length() < MIN_LENGTH) {
+                return s1.concat(s2);
+            }
+        }
+        return new ConsString(str1, str2);
+    }
+
+    private static int depthOf(CharSequence str) {
+        if (str instanceof ConsString) {
+            ConsString cons = (ConsString) str;
+            return cons.flat != null ? 0 : cons.depth;
+        }
+        return 0;
+    }
+
+    /**
+     * Return the pieces along the spine of the rope the two strings make, from the oldest to the
+     * newest, joining pieces into strings so that each is more than twice as long as the next. The
+     * spine of a rope that leans left is its chain of left components, and the pieces are the
+     * right components along it.
+     */
+    private static ArrayList<CharSequence> compactSpine(
+            CharSequence str1, CharSequence str2, boolean leansLeft) {
+        // newest first
+        ArrayList<CharSequence> pieces = new ArrayList<>();
+        pieces.add(leansLeft ? str2 : str1);
+        CharSequence node = leansLeft ? str1 : str2;
+        while (node instanceof ConsString && ((ConsString) node).flat == null) {
+            ConsString cons = (ConsString) node;
+            CharSequence l = cons.left;
+            CharSequence r = cons.right;
+            if (l == null || r == null) {
+                // flattened by another thread
+                break;
+            }
+            pieces.add(leansLeft ? r : l);
+            node = leansLeft ? l : r;
+        }
+        pieces.add(node);
+
+        ArrayList<CharSequence> blocks = new ArrayList<>();
+        int start = 0;
+        while (start < pieces.size()) {
+            // Older pieces that are not much longer than the newer ones joined so far are joined
+            // with them, so that each char is copied a logarithmic number of times.
+            int end = start + 1;
+            int joinedLength = pieces.get(start).length();
+            while (end < pieces.size() && pieces.get(end).length() <= 2 * joinedLength) {
+                joinedLength += pieces.get(end).length();
+                end++;
+            }
+            CharSequence block = pieces.get(start);
+            if (end - start > 1 || depthOf(block) > MAX_DEPTH / 2) {
+                StringBuilder b = new StringBuilder(joinedLength);
+                for (int i = start; i < end; i++) {
+                    b.append(pieces.get(leansLeft ? start + end - 1 - i : i).toString());
+                }
+                block = b.toString();
+            }
+            blocks.add(block);
+            start = end;
+        }
+        Collections.reverse(blocks);
+        return blocks;
     }
 
     // Replace with string representation when serializing
@@ -52,41 +163,43 @@ public class ConsString implements CharSequence, Serializable {
 
     @Override
     public String toString() {
-        return isFlat ? (String) left : flatten();
+        String f = flat;
+        return f != null ? f : flatten();
     }
 
-    private synchronized String flatten() {
-        if (!isFlat) {
-            final char[] chars = new char[length];
-            int charPos = length;
+    private String flatten() {
+        // A builder keeps Latin-1 chars in one byte each, where a char array would take two.
+        StringBuilder b = new StringBuilder(length);
 
-            ArrayDeque<CharSequence> stack = new ArrayDeque<>();
-            stack.addFirst(left);
-
-            CharSequence next = right;
-            do {
-                if (next instanceof ConsString) {
-                    ConsString casted = (ConsString) next;
-                    if (casted.isFlat) {
-                        next = casted.left;
-                    } else {
-                        stack.addFirst(casted.left);
-                        next = casted.right;
+        ArrayDeque<CharSequence> stack = new ArrayDeque<>();
+        CharSequence next = this;
+        do {
+            if (next instanceof ConsString) {
+                ConsString casted = (ConsString) next;
+                String f = casted.flat;
+                if (f == null) {
+                    CharSequence l = casted.left;
+                    CharSequence r = casted.right;
+                    if (l != null && r != null) {
+                        stack.addFirst(r);
+                        next = l;
                         continue;
                     }
+                    f = casted.flat;
                 }
+                next = f;
+            }
 
-                final String str = (String) next;
-                charPos -= str.length();
-                str.getChars(0, str.length(), chars, charPos);
-                next = stack.isEmpty() ? null : stack.removeFirst();
-            } while (next != null);
+            b.append((String) next);
+            next = stack.pollFirst();
+        } while (next != null);
 
-            left = new String(chars);
-            right = "";
-            isFlat = true;
-        }
-        return (String) left;
+        // Other threads may flatten at the same time, which only costs a copy.
+        String result = b.toString();
+        flat = result;
+        left = null;
+        right = null;
+        return result;
     }
 
     @Override
@@ -96,13 +209,198 @@ public class ConsString implements CharSequence, Serializable {
 
     @Override
     public char charAt(int index) {
-        String str = isFlat ? (String) left : flatten();
-        return str.charAt(index);
+        return toString().charAt(index);
     }
 
     @Override
     public CharSequence subSequence(int start, int end) {
-        String str = isFlat ? (String) left : flatten();
-        return str.substring(start, end);
+        return toString().substring(start, end);
+    }
+
+    /**
+     * Return the char at the index like {@link #charAt}, but find it in the components of a
+     * shallow rope the first time instead of flattening it. Callers that look at more chars, such
+     * as loops over the string, get the flat string from the second call on.
+     */
+    char charAtUnflattened(int index) {
+        if (index < 0 || index >= length) {
+            throw new StringIndexOutOfBoundsException(index);
+        }
+        if (flat != null || depth > MAX_WALK_DEPTH || indexed) {
+            return toString().charAt(index);
+        }
+        indexed = true;
+        CharSequence node = this;
+        int nodeStart = 0;
+        while (node instanceof ConsString) {
+            ConsString cons = (ConsString) node;
+            String f = cons.flat;
+            if (f == null) {
+                CharSequence l = cons.left;
+                CharSequence r = cons.right;
+                if (l != null && r != null) {
+                    int split = nodeStart + l.length();
+                    if (index < split) {
+                        node = l;
+                    } else {
+                        node = r;
+                        nodeStart = split;
+                    }
+                    continue;
+                }
+                f = cons.flat;
+            }
+            node = f;
+        }
+        return ((String) node).charAt(index - nodeStart);
+    }
+
+    /**
+     * Return the index of the first occurrence of the string at or after the position like {@link
+     * String#indexOf(String, int)}, searching the components of a shallow rope in order instead
+     * of flattening it.
+     */
+    int indexOf(String str, int fromIndex) {
+        if (fromIndex < 0) {
+            fromIndex = 0;
+        }
+        int strLength = str.length();
+        if (fromIndex >= length || strLength == 0) {
+            return strLength == 0 ? Math.min(fromIndex, length) : -1;
+        }
+        Cursor cursor = cursorAt(fromIndex);
+        if (cursor == null) {
+            return toString().indexOf(str, fromIndex);
+        }
+        // the chars before the current component that a match could start with
+        String carry = "";
+        do {
+            String leaf = cursor.leaf;
+            int leafStart = cursor.leafStart;
+            if (!carry.isEmpty()) {
+                // look for a match that starts before and ends in this component
+                String window =
+                        carry + leaf.substring(0, Math.min(leaf.length(), strLength - 1));
+                int pos = window.indexOf(str);
+                if (pos >= 0 && pos < carry.length()) {
+                    return leafStart - carry.length() + pos;
+                }
+            }
+            int pos = leaf.indexOf(str, Math.max(0, fromIndex - leafStart));
+            if (pos >= 0) {
+                return leafStart + pos;
+            }
+            int keep = strLength - 1;
+            if (leaf.length() >= keep) {
+                carry = leaf.substring(leaf.length() - keep);
+            } else {
+                String joined = carry + leaf;
+                carry = joined.substring(Math.max(0, joined.length() - keep));
+            }
+            if (leafStart < fromIndex) {
+                // chars before the start position cannot be part of a match
+                int skip = carry.length() - (leafStart + leaf.length() - fromIndex);
+                if (skip > 0) {
+                    carry = carry.substring(skip);
+                }
+            }
+        } while (cursor.next());
+        return -1;
+    }
+
+    /**
+     * Return whether the string occurs at the position like {@link String#startsWith(String,
+     * int)}, comparing the components of a shallow rope instead of flattening it.
+     */
+    boolean startsWith(String prefix, int offset) {
+        int prefixLength = prefix.length();
+        if (offset < 0 || offset > length - prefixLength) {
+            return false;
+        }
+        if (prefixLength == 0) {
+            return true;
+        }
+        Cursor cursor = cursorAt(offset);
+        if (cursor == null) {
+            return toString().startsWith(prefix, offset);
+        }
+        int matched = 0;
+        int pos = offset - cursor.leafStart;
+        do {
+            String leaf = cursor.leaf;
+            int count = Math.min(leaf.length() - pos, prefixLength - matched);
+            if (!leaf.regionMatches(pos, prefix, matched, count)) {
+                return false;
+            }
+            matched += count;
+            pos = 0;
+        } while (matched < prefixLength && cursor.next());
+        return matched == prefixLength;
+    }
+
+    /**
+     * Return a cursor on the component that contains the index, or null if the rope is already
+     * flat or too deep to be walked.
+     */
+    private Cursor cursorAt(int index) {
+        if (flat != null || depth > MAX_WALK_DEPTH) {
+            return null;
+        }
+        Cursor cursor = new Cursor();
+        if (!cursor.descend(this, 0, index)) {
+            return null;
+        }
+        return cursor;
+    }
+
+    /** Walks the strings a rope is made of from left to right. */
+    private static final class Cursor {
+        private final ArrayDeque<CharSequence> stack = new ArrayDeque<>(MAX_WALK_DEPTH);
+        String leaf;
+        int leafStart;
+
+        /**
+         * Go down from the node to the string that contains the index, remembering the right
+         * components on the way. Return false if the node has no string that contains the index.
+         */
+        boolean descend(CharSequence node, int nodeStart, int index) {
+            while (node instanceof ConsString) {
+                ConsString cons = (ConsString) node;
+                String f = cons.flat;
+                if (f == null) {
+                    CharSequence l = cons.left;
+                    CharSequence r = cons.right;
+                    if (l != null && r != null) {
+                        int split = nodeStart + l.length();
+                        if (index < split) {
+                            stack.addFirst(r);
+                            node = l;
+                        } else {
+                            node = r;
+                            nodeStart = split;
+                        }
+                        continue;
+                    }
+                    f = cons.flat;
+                }
+                node = f;
+            }
+            leaf = (String) node;
+            leafStart = nodeStart;
+            return index < nodeStart + leaf.length();
+        }
+
+        /** Move to the next non-empty string, and return false if there is none. */
+        boolean next() {
+            int start = leafStart + leaf.length();
+            CharSequence node;
+            do {
+                node = stack.pollFirst();
+                if (node == null) {
+                    return false;
+                }
+            } while (node.length() == 0);
+            return descend(node, start, start);
+        }
     }
 }
@@ -350,6 +350,18 @@ public class Context implements Closeable {
      */
     public static final int FEATURE_INTL_402 = 22;
 
+    /**
+     * If set, objects keep the layout of their properties in a shape that is shared with all other
+     * objects that added the same properties in the same order, and only carry an array of the
+     * values of their properties, rather than a hash table of slots each. This saves memory when
+     * there are many objects with the same properties, and speeds up property access in compiled
+     * code, which can cache the position of a property for each shape. Objects that are used as
+     * dictionaries fall back to a hash table. Thread-safe objects, see {@link
+     * #FEATURE_THREAD_SAFE_OBJECTS}, are never shaped. The default is false, unless the
+     * "rhino.useShapedObjectsByDefault" property is set.
+     */
+    public static final int FEATURE_SHAPED_OBJECTS = 23;
+
     public static final String languageVersionProperty = "language version";
     public static final String errorReporterProperty = "error reporter";
 
@@ -2603,19 +2615,159 @@ public class Context implements Closeable {
     }
 
     protected Script compileScriptImpl(ScriptCompileSpec spec) {
+        ScriptCache.Key cacheKey = getScriptCacheKey(spec);
+        ScriptCache scriptCache = cacheKey == null ? null : factory.getScriptCache();
+        if (scriptCache != null) {
+            Script cached = scriptCache.get(cacheKey);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        Script script = compileFromClassCache(spec);
+        if (script == null) {
+            script = compileInBackground(spec);
+        }
+        if (script == null) {
+            Compiled<JSScript> compiled =
+                    compileImpl(
+                            spec.getSource(),
+                            spec.getSourceName(),
+                            spec.getLineno(),
+                            spec.getSecurityDomain(),
+                            spec.getCompiler(),
+                            spec.getCompilationErrorReporter(),
+                            spec.getCompilerEnvironsProcessor(),
+                            spec.getSourceMapper(),
+                            false,
+                            Evaluator::compileScript);
+            script =
+                    compiled.evaluator.createScriptObject(
+                            compiled.result, spec.getSecurityDomain());
+        }
+
+        if (scriptCache != null) {
+            scriptCache.put(cacheKey, script);
+        }
+        return script;
+    }
+
+    /**
+     * Return the key under which the script is stored in the {@link ScriptCache} of our factory,
+     * or null if there is no cache or the script can not be cached.
+     */
+    private ScriptCache.Key getScriptCacheKey(ScriptCompileSpec spec) {
+        if (factory.getScriptCache() == null
+                || debugger != null
+                || spec.getCompiler() != null
+                || spec.getSourceMapper() != null
+                || spec.getCompilerEnvironsProcessor() != null) {
+            return null;
+        }
+        String sourceName = spec.getSourceName();
+        if (sourceName == null) {
+            sourceName = "unnamed script";
+        }
+        CompilerEnvirons compilerEnv = new CompilerEnvirons();
+        compilerEnv.initFromContext(this);
+        return new ScriptCache.Key(
+                compilerEnv,
+                spec.getSource(),
+                sourceName,
+                spec.getLineno(),
+                spec.getSecurityDomain());
+    }
+
+    /**
+     * Offer the script to the {@link ScriptClassCache} installed on our factory, if any. Returns
+     * null if there is no cache, if the script is not eligible for caching, or if the cache
+     * declined it.
+     */
+    private Script compileFromClassCache(ScriptCompileSpec spec) {
+        ScriptClassCache classCache = factory.getScriptClassCache();
+        if (classCache == null
+                || evaluationMethod != EvaluationMethod.Compiler
+                || !EvaluationMethod.Compiler.isValid()
+                || debugger != null
+                || spec.getCompiler() != null
+                || spec.getSecurityDomain() != null
+                || spec.getSourceMapper() != null) {
+            return null;
+        }
+
+        String sourceName = spec.getSourceName();
+        if (sourceName == null) {
+            sourceName = "unnamed script";
+        }
+
+        CompilerEnvirons compilerEnv = new CompilerEnvirons();
+        compilerEnv.initFromContext(this);
+        if (spec.getCompilationErrorReporter() != null) {
+            compilerEnv.setErrorReporter(spec.getCompilationErrorReporter());
+        }
+        if (spec.getCompilerEnvironsProcessor() != null) {
+            spec.getCompilerEnvironsProcessor().accept(compilerEnv);
+        }
+        if (compilerEnv.isInterpretedMode()) {
+            return null;
+        }
+
+        return classCache.compileScript(
+                this, compilerEnv, spec.getSource(), sourceName, spec.getLineno());
+    }
+
+    /**
+     * If our factory has a compilation executor, compile the script for the interpreter and hand
+     * its compilation to bytecode to the executor. Returns null if the script should be compiled
+     * on this thread.
+     */
+    private Script compileInBackground(ScriptCompileSpec spec) {
+        if (factory.getCompilationExecutor() == null
+                || evaluationMethod != EvaluationMethod.Compiler
+                || !EvaluationMethod.Compiler.isValid()
+                || debugger != null
+                || spec.getCompiler() != null
+                || spec.getSecurityDomain() != null
+                || spec.getSourceMapper() != null) {
+            return null;
+        }
+
+        String sourceName = spec.getSourceName();
+        if (sourceName == null) {
+            sourceName = "unnamed script";
+        }
+
+        Consumer<CompilerEnvirons> processor = spec.getCompilerEnvironsProcessor();
+        CompilerEnvirons compilerEnv = new CompilerEnvirons();
+        compilerEnv.initFromContext(this);
+        if (processor != null) {
+            processor.accept(compilerEnv);
+        }
+        if (compilerEnv.isInterpretedMode()) {
+            return null;
+        }
+
         Compiled<JSScript> compiled =
                 compileImpl(
                         spec.getSource(),
-                        spec.getSourceName(),
+                        sourceName,
                         spec.getLineno(),
-                        spec.getSecurityDomain(),
-                        spec.getCompiler(),
+                        null,
+                        createInterpreter(),
                         spec.getCompilationErrorReporter(),
-                        spec.getCompilerEnvironsProcessor(),
-                        spec.getSourceMapper(),
+                        env -> {
+                            if (processor != null) {
+                                processor.accept(env);
+                            }
+                            env.setInterpretedMode(true);
+                        },
+                        null,
                         false,
                         Evaluator::compileScript);
-        return compiled.evaluator.createScriptObject(compiled.result, spec.getSecurityDomain());
+        JSScript script = (JSScript) compiled.evaluator.createScriptObject(compiled.result, null);
+        TieredCompiler.scheduleScript(
+                this, compilerEnv, script, spec.getSource(), sourceName, spec.getLineno());
+        return script;
     }
 
     protected Function compileFunctionImpl(FunctionCompileSpec spec) {
@@ -2778,6 +2930,48 @@ public class Context implements Closeable {
         return tree;
     }
 
+    /**
+     * Compile the source of a single function to JVM bytecode and return its descriptor, without
+     * creating a function object for it, or null if the compiler cannot create one. A function
+     * expression binds its own name inside its body, so the source is only parsed as one if the
+     * function was declared as an expression.
+     */
+    JSDescriptor<JSFunction> compileFunctionToBytecode(
+            CompilerEnvirons compilerEnv,
+            String source,
+            String sourceName,
+            int lineno,
+            boolean isExpression) {
+        ScriptNode tree =
+                parse(
+                        source,
+                        sourceName,
+                        lineno,
+                        compilerEnv,
+                        compilerEnv.getErrorReporter(),
+                        isExpression);
+        if (tree.getFunctionCount() != 1) {
+            throw new IllegalArgumentException("Not a single function: " + source);
+        }
+        Evaluator compiler = EvaluationMethod.Compiler.createEvaluator();
+        CompilationResult<JSFunction> result = compiler.compileFunction(compilerEnv, tree, source);
+        return compiler.createFunctionDescriptor(result, compilerEnv.securityDomain());
+    }
+
+    /**
+     * Compile a script to JVM bytecode and return its descriptor, without creating a script object
+     * for it.
+     */
+    JSDescriptor<JSScript> compileScriptToBytecode(
+            CompilerEnvirons compilerEnv, String source, String sourceName, int lineno) {
+        ScriptNode tree =
+                parse(source, sourceName, lineno, compilerEnv, compilerEnv.getErrorReporter(), false);
+        Evaluator compiler = EvaluationMethod.Compiler.createEvaluator();
+        CompilationResult<JSScript> result = compiler.compileScript(compilerEnv, tree, source);
+        Script script = compiler.createScriptObject(result, compilerEnv.securityDomain());
+        return ((JSScript) script).getDescriptor();
+    }
+
     private static void notifyDebugger_r(Context cx, DebuggableScript dscript, String debugSource) {
         cx.debugger.handleCompilationDone(cx, dscript, debugSource);
         for (int i = 0; i != dscript.getFunctionCount(); ++i) {
@@ -2821,6 +3015,18 @@ public class Context implements Closeable {
         Context cx = getCurrentContext();
         if (cx == null) return null;
         if (cx.lastInterpreterFrame != null) {
+            if (cx.tieredCallDepth > 0) {
+                // Code compiled by tiered compilation runs on top of the interpreter
+                for (StackTraceElement e : new Throwable().getStackTrace()) {
+                    if (RhinoException.isInterpreterMethod(e)) {
+                        break;
+                    }
+                    if (frameMatches(e)) {
+                        linep[0] = e.getLineNumber();
+                        return e.getFileName();
+                    }
+                }
+            }
             Evaluator evaluator = cx.getInterpreterForCurrentMethod();
             if (evaluator != null) return evaluator.getSourcePositionFromStack(cx, linep);
         }
@@ -3034,6 +3240,10 @@ public class Context implements Closeable {
     // etc. Previous frames can all be derived from this.
     public ACallFrame<?, ?> lastInterpreterFrame;
 
+    // The number of calls into code compiled by tiered compilation that are running on top of
+    // the interpreter. Only then can script frames above lastInterpreterFrame be compiled ones.
+    int tieredCallDepth;
+
     // For instruction counting (interpreter only)
     int instructionCount;
     int instructionThreshold;
@@ -10,6 +10,7 @@ package org.mozilla.javascript;
 
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.concurrent.Executor;
 import org.mozilla.javascript.config.RhinoConfig;
 
 /**
@@ -105,6 +106,8 @@ import org.mozilla.javascript.config.RhinoConfig;
 public class ContextFactory {
     private static final boolean useThreadSafeObjectsByDefault =
             RhinoConfig.get("rhino.useThreadSafeObjectsByDefault", false);
+    private static final boolean useShapedObjectsByDefault =
+            RhinoConfig.get("rhino.useShapedObjectsByDefault", false);
 
     private static volatile boolean hasCustomGlobal;
     private static ContextFactory global = new ContextFactory();
@@ -115,6 +118,10 @@ public class ContextFactory {
     private volatile Object listeners;
     private boolean disabledListening;
     private ClassLoader applicationClassLoader;
+    private volatile ScriptCache scriptCache;
+    private volatile ScriptClassCache scriptClassCache;
+    private volatile int tieredCompilationThreshold;
+    private volatile Executor compilationExecutor;
 
     /** Listener of {@link Context} creation and release events. */
     public interface Listener {
@@ -270,6 +277,9 @@ public class ContextFactory {
 
             case Context.FEATURE_INTL_402:
                 return false;
+
+            case Context.FEATURE_SHAPED_OBJECTS:
+                return useShapedObjectsByDefault;
         }
         // It is a bug to call the method with unknown featureIndex
         throw new IllegalArgumentException(String.valueOf(featureIndex));
@@ -317,6 +327,114 @@ public class ContextFactory {
         this.applicationClassLoader = loader;
     }
 
+    /**
+     * Get the cache of compiled scripts shared by the Contexts of this factory, or null if none was
+     * installed.
+     *
+     * @see #setScriptCache(ScriptCache)
+     */
+    public final ScriptCache getScriptCache() {
+        return scriptCache;
+    }
+
+    /**
+     * Install a cache of compiled scripts. Every {@link Context} created by this factory will look
+     * scripts up in it before compiling them, so that a script compiled in one thread can be reused
+     * by all others.
+     *
+     * @param cache the cache to use, for example an {@link LruScriptCache}, or null to compile
+     *     every script from source
+     */
+    public final void setScriptCache(ScriptCache cache) {
+        checkNotSealed();
+        this.scriptCache = cache;
+    }
+
+    /**
+     * Get the cache of generated script classes consulted when scripts are compiled to bytecode,
+     * or null if none was installed.
+     *
+     * @see #setScriptClassCache(ScriptClassCache)
+     */
+    public final ScriptClassCache getScriptClassCache() {
+        return scriptClassCache;
+    }
+
+    /**
+     * Install a cache of generated script classes. Every {@link Context} created by this factory
+     * will consult it when compiling scripts in compiled mode.
+     *
+     * @param cache the cache to use, or null to compile every script from source
+     */
+    public final void setScriptClassCache(ScriptClassCache cache) {
+        checkNotSealed();
+        this.scriptClassCache = cache;
+    }
+
+    /**
+     * Get the number of calls and loop iterations after which an interpreted function is compiled
+     * to JVM bytecode, or 0 if tiered compilation is disabled.
+     *
+     * @see #setTieredCompilationThreshold(int)
+     */
+    public final int getTieredCompilationThreshold() {
+        return tieredCompilationThreshold;
+    }
+
+    /**
+     * Enable tiered compilation for scripts compiled in interpreted mode. Such scripts start
+     * running in the interpreter, which has the lowest startup cost. Every function counts how
+     * often it is called and how many loop iterations it runs, and once that total reaches the
+     * threshold the function is compiled to JVM bytecode in the background. All later calls of the
+     * function then run the compiled code. A call that is already running in the interpreter
+     * completes there.
+     *
+     * <p>Generators, arrow functions, methods, named function expressions and functions created by
+     * eval always stay interpreted, as do functions that belong to a security domain or that are
+     * called while a debugger is attached. Continuations cannot be captured through compiled
+     * functions. Tiered compilation requires the bytecode compiler to be available.
+     *
+     * @param threshold the number of calls plus loop iterations, or 0 to disable tiered compilation
+     */
+    public final void setTieredCompilationThreshold(int threshold) {
+        checkNotSealed();
+        if (threshold < 0) {
+            throw new IllegalArgumentException("Negative threshold: " + threshold);
+        }
+        this.tieredCompilationThreshold = threshold;
+    }
+
+    /**
+     * Get the executor that compiles scripts to JVM bytecode in the background, or null if scripts
+     * are compiled on the thread that requests them.
+     *
+     * @see #setCompilationExecutor(Executor)
+     */
+    public final Executor getCompilationExecutor() {
+        return compilationExecutor;
+    }
+
+    /**
+     * Compile scripts to JVM bytecode in the background. When a {@link Context} of this factory
+     * compiles a script in compiled mode, it only compiles the script for the interpreter, which is
+     * much faster, and hands the generation of bytecode to the executor. The script runs in the
+     * interpreter until its classes are ready, and all executions that start after that run the
+     * compiled code. The executor is also used for {@link #setTieredCompilationThreshold(int)
+     * tiered compilation}.
+     *
+     * <p>The executor should be bounded, for example a {@link
+     * java.util.concurrent.ThreadPoolExecutor} with a bounded queue. Scripts whose compilation it
+     * rejects keep running in the interpreter. Scripts are compiled on the calling thread as usual
+     * if they belong to a security domain, use a custom compiler or source mapper, or if a debugger
+     * is attached.
+     *
+     * @param executor the executor to use, or null to compile scripts on the calling thread
+     */
+    public final void setCompilationExecutor(Executor executor) {
+        checkNotSealed();
+        this.compilationExecutor = executor;
+    }
+
     /**
      * Execute top call to script or function. When the runtime is about to execute a script or
      * function that will create the first stack frame with scriptable code, it calls this method to
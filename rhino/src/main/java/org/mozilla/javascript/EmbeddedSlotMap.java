@@ -28,6 +28,9 @@ public class EmbeddedSlotMap<T extends PropHolder<T>> implements SlotMap<T> {
     private int count;
     private boolean hasIndex = false;
 
+    // created on demand and dropped whenever the set of slots changes
+    private Object shape;
+
     // initial slot array size, must be a power of 2
     private static final int INITIAL_SLOT_SIZE = 4;
 
@@ -78,6 +81,16 @@ public class EmbeddedSlotMap<T extends PropHolder<T>> implements SlotMap<T> {
         return new Iter<T>(firstAdded);
     }
 
+    @Override
+    public Object getShape() {
+        Object s = shape;
+        if (s == null) {
+            s = new Object();
+            shape = s;
+        }
+        return s;
+    }
+
     /** Locate the slot with the given name or index. */
     @Override
     public Slot<T> query(Object key, int index) {
@@ -209,6 +222,7 @@ public class EmbeddedSlotMap<T extends PropHolder<T>> implements SlotMap<T> {
                 // Need to delete this slot actually
                 removeSlot(slot, prev, slotIndex, key);
             } else if (!Objects.equals(slot, newSlot)) {
+                shape = null;
                 // Replace slot in hash table
                 if (prev == slot) {
                     slots[slotIndex] = newSlot;
@@ -251,6 +265,7 @@ public class EmbeddedSlotMap<T extends PropHolder<T>> implements SlotMap<T> {
 
     private void insertNewSlot(Slot<T> newSlot) {
         ++count;
+        shape = null;
         // add new slot to linked list
         if (lastAdded != null) {
             lastAdded.orderedNext = newSlot;
@@ -265,6 +280,7 @@ public class EmbeddedSlotMap<T extends PropHolder<T>> implements SlotMap<T> {
 
     private void removeSlot(Slot<T> slot, Slot<T> prev, int ix, Object key) {
         count--;
+        shape = null;
         // remove slot from hash table
         if (prev == slot) {
             slots[ix] = slot.next;
@@ -58,6 +58,20 @@ public interface Evaluator {
      */
     Script createScriptObject(CompilationResult<JSScript> compiled, Object staticSecurityDomain);
 
+    /**
+     * Create the descriptor of a compiled function without creating a function object for it. An
+     * evaluator that cannot do this returns null, and its functions are then never replaced by
+     * compiled code.
+     *
+     * @param compiled the result returned by {@link #compileFunction}
+     * @param staticSecurityDomain security domain
+     * @return the descriptor holding the executable code of the function, or null
+     */
+    default JSDescriptor<JSFunction> createFunctionDescriptor(
+            CompilationResult<JSFunction> compiled, Object staticSecurityDomain) {
+        return null;
+    }
+
     /**
      * Capture stack information from the given exception.
      *
@@ -19,6 +19,9 @@ public class HashSlotMap<T extends PropHolder<T>> implements SlotMap<T> {
 
     private final LinkedHashMap<Object, Slot<T>> map;
 
+    // created on demand and dropped whenever the set of slots may have changed
+    private Object shape;
+
     public HashSlotMap() {
         map = new LinkedHashMap<>();
     }
@@ -52,6 +55,16 @@ public class HashSlotMap<T extends PropHolder<T>> implements SlotMap<T> {
         return map.isEmpty();
     }
 
+    @Override
+    public Object getShape() {
+        Object s = shape;
+        if (s == null) {
+            s = new Object();
+            shape = s;
+        }
+        return s;
+    }
+
     @Override
     public Slot<T> query(Object key, int index) {
         Object name = makeKey(key, index);
@@ -61,7 +74,12 @@ public class HashSlotMap<T extends PropHolder<T>> implements SlotMap<T> {
     @Override
     public Slot<T> modify(SlotMapOwner<T> owner, Object key, int index, int attributes) {
         Object name = makeKey(key, index);
-        return map.computeIfAbsent(name, n -> new Slot<T>(key, index, attributes));
+        return map.computeIfAbsent(
+                name,
+                n -> {
+                    shape = null;
+                    return new Slot<T>(key, index, attributes);
+                });
     }
 
     @SuppressWarnings("unchecked")
@@ -73,6 +91,7 @@ public class HashSlotMap<T extends PropHolder<T>> implements SlotMap<T> {
             int index,
             SlotComputer<S, T> c) {
         Object name = makeKey(key, index);
+        shape = null;
         Slot<T> ret =
                 map.compute(
                         name, (n, existing) -> c.compute(key, index, existing, compoundOp, owner));
@@ -82,6 +101,7 @@ public class HashSlotMap<T extends PropHolder<T>> implements SlotMap<T> {
     @Override
     public void add(SlotMapOwner<T> owner, Slot<T> newSlot) {
         Object name = makeKey(newSlot);
+        shape = null;
         map.put(name, newSlot);
     }
 
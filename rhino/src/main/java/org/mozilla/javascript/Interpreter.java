@@ -109,6 +109,12 @@ public final class Interpreter extends AInterpreter<CallFrame, InterpreterData<?
                 cx, scope, result.descriptor, result.homeObject, staticSecurityDomain);
     }
 
+    @Override
+    public JSDescriptor<JSFunction> createFunctionDescriptor(
+            CompilationResult<JSFunction> compiled, Object staticSecurityDomain) {
+        return ((InterpreterCompilationResult<JSFunction>) compiled).descriptor;
+    }
+
     private static int getShort(byte[] iCode, int pc) {
         return (iCode[pc] << 8) | (iCode[pc + 1] & 0xFF);
     }
@@ -1093,6 +1099,7 @@ public final class Interpreter extends AInterpreter<CallFrame, InterpreterData<?
                     if (instructionCounting) {
                         addInstructionCount(cx, frame, 2);
                     }
+                    int jumpPc = frame.pc;
                     int offset = getShort(iCode, frame.pc);
                     if (offset != 0) {
                         // -1 accounts for pc pointing to jump opcode + 1
@@ -1100,6 +1107,10 @@ public final class Interpreter extends AInterpreter<CallFrame, InterpreterData<?
                     } else {
                         frame.pc = frame.compilerData.longJumps.get(frame.pc);
                     }
+                    if (frame.pc < jumpPc) {
+                        // Loop back-edge
+                        frame.compilerData.countTierUp(cx, frame.fnOrScript);
+                    }
                     if (instructionCounting) {
                         frame.pcPrevBranch = frame.pc;
                     }
@@ -1369,15 +1380,17 @@ public final class Interpreter extends AInterpreter<CallFrame, InterpreterData<?
         NewState execute(Context cx, CallFrame frame, InterpreterState state, int op) {
             Object[] stack = frame.stack;
             double[] sDbl = frame.doubleStack;
-            Object rhs = stack[frame.stackTop];
-            Object lhs = stack[--frame.stackTop];
             boolean valBln;
-            if (lhs == DOUBLE_MARK && rhs == DOUBLE_MARK) {
+            if (stack_unboxNumber(frame, frame.stackTop - 1)
+                    && stack_unboxNumber(frame, frame.stackTop)) {
+                --frame.stackTop;
                 valBln =
                         ScriptRuntime.compareTo(sDbl[frame.stackTop], sDbl[frame.stackTop + 1], op);
                 stack[frame.stackTop] = valBln;
                 return null;
             }
+            Object rhs = stack[frame.stackTop];
+            Object lhs = stack[--frame.stackTop];
             object_compare:
             {
                 number_compare:
@@ -1764,6 +1777,10 @@ public final class Interpreter extends AInterpreter<CallFrame, InterpreterData<?
         NewState execute(Context cx, CallFrame frame, InterpreterState state, int op) {
             Object[] stack = frame.stack;
             double[] sDbl = frame.doubleStack;
+            if (stack_unboxNumber(frame, frame.stackTop)) {
+                sDbl[frame.stackTop] = ~ScriptRuntime.toInt32(sDbl[frame.stackTop]);
+                return null;
+            }
             Number value = stack_numeric(frame, frame.stackTop);
             Number result = ScriptRuntime.bitwiseNOT(value);
             if (result instanceof BigInteger) {
@@ -1781,7 +1798,8 @@ public final class Interpreter extends AInterpreter<CallFrame, InterpreterData<?
         NewState execute(Context cx, CallFrame frame, InterpreterState state, int op) {
             Object[] stack = frame.stack;
             double[] sDbl = frame.doubleStack;
-            if (stack[frame.stackTop] == DOUBLE_MARK && stack[frame.stackTop - 1] == DOUBLE_MARK) {
+            if (stack_unboxNumber(frame, frame.stackTop - 1)
+                    && stack_unboxNumber(frame, frame.stackTop)) {
                 doFastBitOp(cx, frame, state, op);
                 return null;
             }
@@ -1880,6 +1898,10 @@ public final class Interpreter extends AInterpreter<CallFrame, InterpreterData<?
         NewState execute(Context cx, CallFrame frame, InterpreterState state, int op) {
             final Object[] stack = frame.stack;
             final double[] sDbl = frame.doubleStack;
+            if (stack_unboxNumber(frame, frame.stackTop)) {
+                sDbl[frame.stackTop] = -sDbl[frame.stackTop];
+                return null;
+            }
             Number rNum = stack_numeric(frame, frame.stackTop);
             Number rNegNum = ScriptRuntime.negate(rNum);
             if (rNegNum instanceof BigInteger) {
@@ -1921,15 +1943,16 @@ public final class Interpreter extends AInterpreter<CallFrame, InterpreterData<?
                 } else if (lhs instanceof CharSequence) {
                     if (rhs instanceof CharSequence) {
                         frame.stack[frame.stackTop] =
-                                new ConsString((CharSequence) lhs, (CharSequence) rhs);
+                                ConsString.concat((CharSequence) lhs, (CharSequence) rhs);
                     } else {
                         frame.stack[frame.stackTop] =
-                                new ConsString(
+                                ConsString.concat(
                                         (CharSequence) lhs, ScriptRuntime.toCharSequence(rhs));
                     }
                 } else if (rhs instanceof CharSequence) {
                     frame.stack[frame.stackTop] =
-                            new ConsString(ScriptRuntime.toCharSequence(lhs), (CharSequence) rhs);
+                            ConsString.concat(
+                                    ScriptRuntime.toCharSequence(lhs), (CharSequence) rhs);
 
                 } else {
                     Number lNum =
@@ -1961,9 +1984,9 @@ public final class Interpreter extends AInterpreter<CallFrame, InterpreterData<?
             } else if (lhs instanceof CharSequence) {
                 CharSequence rstr = ScriptRuntime.numberToString(d, 10);
                 if (leftRightOrder) {
-                    frame.stack[frame.stackTop] = new ConsString((CharSequence) lhs, rstr);
+                    frame.stack[frame.stackTop] = ConsString.concat((CharSequence) lhs, rstr);
                 } else {
-                    frame.stack[frame.stackTop] = new ConsString(rstr, (CharSequence) lhs);
+                    frame.stack[frame.stackTop] = ConsString.concat(rstr, (CharSequence) lhs);
                 }
             } else {
                 Number lNum = (lhs instanceof Number) ? (Number) lhs : ScriptRuntime.toNumeric(lhs);
@@ -1983,7 +2006,8 @@ public final class Interpreter extends AInterpreter<CallFrame, InterpreterData<?
         NewState execute(Context cx, CallFrame frame, InterpreterState state, int op) {
             Object[] stack = frame.stack;
             double[] sDbl = frame.doubleStack;
-            if (stack[frame.stackTop] == DOUBLE_MARK && stack[frame.stackTop - 1] == DOUBLE_MARK) {
+            if (stack_unboxNumber(frame, frame.stackTop - 1)
+                    && stack_unboxNumber(frame, frame.stackTop)) {
                 doFastArithemtic(cx, frame, state, op);
                 return null;
             }
@@ -2772,8 +2796,9 @@ public final class Interpreter extends AInterpreter<CallFrame, InterpreterData<?
 
                 JSDescriptor<JSFunction> desc = ifun.getDescriptor();
                 var compilerData = (InterpreterData<JSFunction>) desc.getCode();
-                if (frame.fnOrScript.getDescriptor().getSecurityDomain()
-                        == desc.getSecurityDomain()) {
+                if (frame.fnOrScript.getDescriptor().getSecurityDomain() == desc.getSecurityDomain()
+                        && !compilerData.isTieredUp()) {
+                    compilerData.countTierUp(cx, ifun);
                     CallFrame callParentFrame = frame;
                     if (op == Icode.TAIL_CALL) {
                         // In principle tail call can re-use the current
@@ -2888,8 +2913,9 @@ public final class Interpreter extends AInterpreter<CallFrame, InterpreterData<?
 
                 JSDescriptor<JSFunction> desc = f.getDescriptor();
                 var compilerData = (InterpreterData<JSFunction>) desc.getConstructor();
-                if (frame.fnOrScript.getDescriptor().getSecurityDomain()
-                        == desc.getSecurityDomain()) {
+                if (frame.fnOrScript.getDescriptor().getSecurityDomain() == desc.getSecurityDomain()
+                        && !compilerData.isTieredUp()) {
+                    compilerData.countTierUp(cx, f);
                     if (cx.getLanguageVersion() >= Context.VERSION_ES6
                             && f.getHomeObject() != null) {
                         // Only methods have home objects associated with
@@ -4394,6 +4420,24 @@ public final class Interpreter extends AInterpreter<CallFrame, InterpreterData<?
         return frame.doubleStack[i];
     }
 
+    /**
+     * Replace an Integer or Double at the given stack position with the same number held in the
+     * double stack, so that arithmetic on it neither boxes its operands nor its result. Return
+     * true if the stack position holds an unboxed number.
+     */
+    private static boolean stack_unboxNumber(CallFrame frame, int i) {
+        Object x = frame.stack[i];
+        if (x == UniqueTag.DOUBLE_MARK) {
+            return true;
+        }
+        if (x instanceof Integer || x instanceof Double) {
+            frame.doubleStack[i] = ((Number) x).doubleValue();
+            frame.stack[i] = UniqueTag.DOUBLE_MARK;
+            return true;
+        }
+        return false;
+    }
+
     private static boolean stack_boolean(CallFrame frame, int i) {
         Object x = frame.stack[i];
         if (Boolean.TRUE.equals(x)) {
@@ -36,7 +36,9 @@ final class InterpreterData<T extends ScriptOrFn<T>> extends ACompilerData<T, In
             int maxCalleeArgs,
             Object[] literalIds,
             Map<Integer, Integer> longJumps,
-            int firstLinePC) {
+            int firstLinePC,
+            int tierUpThreshold,
+            int baseLineno) {
         super(maxVars, maxLocals, maxStack, maxFrameArray, exceptionTable);
         this.itsStringTable = itsStringTable;
         this.itsDoubleTable = itsDoubleTable;
@@ -48,6 +50,8 @@ final class InterpreterData<T extends ScriptOrFn<T>> extends ACompilerData<T, In
         this.literalIds = literalIds;
         this.longJumps = longJumps;
         this.firstLinePC = firstLinePC;
+        this.tierUpCountdown = tierUpThreshold;
+        this.baseLineno = baseLineno;
     }
 
     final String[] itsStringTable;
@@ -66,6 +70,19 @@ final class InterpreterData<T extends ScriptOrFn<T>> extends ACompilerData<T, In
 
     final int firstLinePC;
 
+    /** Line the function source starts at, used when it is recompiled to bytecode. */
+    final int baseLineno;
+
+    /**
+     * Calls and loop iterations left before the function is handed to the {@link TieredCompiler}.
+     * Zero for code that is never compiled. See {@link #countTierUp} for why updates are not
+     * atomic.
+     */
+    private int tierUpCountdown;
+
+    /** Bytecode compiled for this function once it got hot, which then replaces this code. */
+    private transient volatile JSCode<T> tieredCode;
+
     private int icodeHashCode = 0;
 
     @Override
@@ -99,9 +116,44 @@ final class InterpreterData<T extends ScriptOrFn<T>> extends ACompilerData<T, In
             VarScope scope,
             Object thisObj,
             Object[] args) {
+        JSCode<T> compiled = tieredCode;
+        if (compiled != null) {
+            cx.tieredCallDepth++;
+            try {
+                return compiled.execute(cx, executableObject, newTarget, scope, thisObj, args);
+            } finally {
+                cx.tieredCallDepth--;
+            }
+        }
+        countTierUp(cx, executableObject);
         return Interpreter.interpret(executableObject, this, cx, scope, (Scriptable) thisObj, args);
     }
 
+    /**
+     * Count a call of the function or an iteration of one of its loops, and schedule the function
+     * for compilation when it reaches the threshold.
+     */
+    void countTierUp(Context cx, ScriptOrFn<?> executableObject) {
+        // The countdown is shared by all threads running the function, and is deliberately not
+        // updated atomically, since this runs on every call and loop iteration. A lost update
+        // only delays compilation by a call. Two threads may both see it reach zero, which
+        // compiles the function twice; both results are equivalent, and the last one installed
+        // is used.
+        if (tierUpCountdown > 0 && --tierUpCountdown == 0) {
+            TieredCompiler.schedule(cx, (JSFunction) executableObject, this);
+        }
+    }
+
+    /** Return true if calls should run the compiled version of this code instead. */
+    boolean isTieredUp() {
+        return tieredCode != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    void setTieredCode(JSCode<?> code) {
+        tieredCode = (JSCode<T>) code;
+    }
+
     @Override
     public Object resume(
             Context cx,
@@ -139,6 +191,9 @@ final class InterpreterData<T extends ScriptOrFn<T>> extends ACompilerData<T, In
 
         int firstLinePC = -1; // PC for the first LINE icode
 
+        int tierUpThreshold;
+        int baseLineno;
+
         public Builder() {
             itsICode = new byte[INITIAL_MAX_ICODE_LENGTH];
             itsStringTable = new String[INITIAL_STRINGTABLE_SIZE];
@@ -165,7 +220,9 @@ final class InterpreterData<T extends ScriptOrFn<T>> extends ACompilerData<T, In
                                 maxCalleeArgs,
                                 literalIds,
                                 jumpMap,
-                                firstLinePC);
+                                firstLinePC,
+                                tierUpThreshold,
+                                baseLineno);
             }
             return built;
         }
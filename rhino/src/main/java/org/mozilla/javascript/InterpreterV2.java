@@ -572,6 +572,12 @@ public class InterpreterV2 extends AInterpreter<CallFrameV2, CompilerData<?>> {
                 cx, scope, result.data, result.homeObject, staticSecurityDomain);
     }
 
+    @Override
+    public JSDescriptor<JSFunction> createFunctionDescriptor(
+            CompilationResult<JSFunction> compiled, Object staticSecurityDomain) {
+        return ((V2CompilationResult<JSFunction>) compiled).data;
+    }
+
     public static void addInstructionCount(Context cx, CallFrameV2 frame, int extra) {
         cx.instructionCount += frame.pc - frame.pcPrevBranch + extra;
         if (cx.instructionCount > cx.instructionThreshold) {
@@ -26,6 +26,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import org.mozilla.javascript.lc.ReflectUtils;
 import org.mozilla.javascript.lc.member.ExecutableBox;
@@ -51,6 +52,10 @@ class JavaMembers {
     }
 
     JavaMembers(VarScope scope, Class<?> cl, boolean includeProtected) {
+        this(TypeInfoFactory.get(scope), cl, includeProtected);
+    }
+
+    JavaMembers(TypeInfoFactory typeFactory, Class<?> cl, boolean includeProtected) {
         try (Context cx = ContextFactory.getGlobal().enterContext()) {
             ClassShutter shutter = cx.getClassShutter();
             if (shutter != null && !shutter.visibleToScripts(cl.getName())) {
@@ -62,7 +67,7 @@ class JavaMembers {
             this.staticFieldAndMethods = new HashMap<>();
             this.cl = cl;
             boolean includePrivate = cx.hasFeature(Context.FEATURE_ENHANCED_JAVA_ACCESS);
-            reflect(cx, scope, includeProtected, includePrivate);
+            reflect(cx, typeFactory, includeProtected, includePrivate);
         }
     }
 
@@ -88,6 +93,24 @@ class JavaMembers {
         return findExplicitFunction(name, isStatic) != null;
     }
 
+    /**
+     * Return a function for the overloads of the named instance or static method, or null if there
+     * is no method of that name or a field has the same name.
+     */
+    NativeJavaMethod getMethod(VarScope scope, String name) {
+        Object member = members.get(name);
+        if (member == null) {
+            member = staticMembers.get(name);
+        }
+        if (!(member instanceof ExecutableOverload)
+                || member instanceof ExecutableOverload.WithField) {
+            return null;
+        }
+        var built = new NativeJavaMethod((ExecutableOverload) member);
+        ScriptRuntime.setFunctionProtoAndParent(built, Context.getCurrentContext(), scope, false);
+        return built;
+    }
+
     Object get(Scriptable obj, VarScope scope, String name, Object javaObject, boolean isStatic) {
         Map<String, Object> ht = isStatic ? staticMembers : members;
         Object member = ht.get(name);
@@ -109,8 +132,7 @@ class JavaMembers {
                 var withField = (ExecutableOverload.WithField) member;
                 return new FieldAndMethods(scope, withField);
             } else {
-                var method = (ExecutableOverload) member;
-                var built = new NativeJavaMethod(method.methods, method.name);
+                var built = new NativeJavaMethod((ExecutableOverload) member);
                 ScriptRuntime.setFunctionProtoAndParent(
                         built, Context.getCurrentContext(), scope, false);
                 return built;
@@ -283,33 +305,35 @@ class JavaMembers {
 
     private Object getExplicitFunction(
             VarScope scope, String name, Object javaObject, boolean isStatic) {
-        Map<String, Object> ht = isStatic ? staticMembers : members;
-        Object member = null;
-        var methodOrCtor = findExplicitFunction(name, isStatic);
-
-        if (methodOrCtor != null) {
-            Scriptable prototype = ScriptableObject.getFunctionPrototype(scope);
-
-            if (methodOrCtor.isConstructor()) {
-                NativeJavaConstructor fun = new NativeJavaConstructor(methodOrCtor);
-                fun.setPrototype(prototype);
-                member = fun;
-                ht.put(name, fun);
-            } else {
-                String trueName = methodOrCtor.getName();
-                member = ht.get(trueName);
-
-                if (member instanceof ExecutableOverload
-                        && ((ExecutableOverload) member).methods.length > 1) {
-                    NativeJavaMethod fun = new NativeJavaMethod(methodOrCtor, name);
-                    fun.setPrototype(prototype);
-                    ht.put(name, fun);
-                    member = fun;
+        Map<String, ExecutableBox> explicit =
+                isStatic ? staticExplicitFunctions : explicitFunctions;
+        var methodOrCtor = explicit.get(name);
+
+        if (methodOrCtor == null) {
+            methodOrCtor = findExplicitFunction(name, isStatic);
+            if (methodOrCtor == null) {
+                return null;
+            }
+            if (!methodOrCtor.isConstructor()) {
+                Map<String, Object> ht = isStatic ? staticMembers : members;
+                Object member = ht.get(methodOrCtor.getName());
+                if (!(member instanceof ExecutableOverload)
+                        || ((ExecutableOverload) member).methods.length == 1) {
+                    return member;
                 }
             }
+            explicit.put(name, methodOrCtor);
         }
 
-        return member;
+        // The members may be shared by scopes, so the function is built for the scope each time.
+        BaseFunction fun;
+        if (methodOrCtor.isConstructor()) {
+            fun = new NativeJavaConstructor(methodOrCtor);
+        } else {
+            fun = new NativeJavaMethod(methodOrCtor, name);
+        }
+        ScriptRuntime.setFunctionProtoAndParent(fun, Context.getCurrentContext(), scope, false);
+        return fun;
     }
 
     /**
@@ -442,9 +466,10 @@ class JavaMembers {
     }
 
     private void reflect(
-            Context cx, VarScope scope, boolean includeProtected, boolean includePrivate) {
-        var typeFactory = TypeInfoFactory.get(scope);
-
+            Context cx,
+            TypeInfoFactory typeFactory,
+            boolean includeProtected,
+            boolean includePrivate) {
         var accessibleMethods = discoverAccessibleMethods(cl, includeProtected, includePrivate);
         var accessibleFields = getAccessibleFields(includeProtected, includePrivate);
 
@@ -813,7 +838,15 @@ class JavaMembers {
                 return members;
             }
             try {
-                members = createJavaMembers(cache.getAssociatedScope(), cl, includeProtected);
+                if (cache.isCachingEnabled() && SharedClassCache.isEnabled()) {
+                    members = SharedClassCache.get(cl, secCtx, includeProtected);
+                } else {
+                    members =
+                            createJavaMembers(
+                                    TypeInfoFactory.get(cache.getAssociatedScope()),
+                                    cl,
+                                    includeProtected);
+                }
                 break;
             } catch (SecurityException e) {
                 // Reflection may fail for objects that are in a restricted
@@ -849,12 +882,12 @@ class JavaMembers {
         return members;
     }
 
-    private static JavaMembers createJavaMembers(
-            VarScope associatedScope, Class<?> cl, boolean includeProtected) {
+    static JavaMembers createJavaMembers(
+            TypeInfoFactory typeFactory, Class<?> cl, boolean includeProtected) {
         if (STRICT_REFLECTIVE_ACCESS) {
-            return new JavaMembers_jdk11(associatedScope, cl, includeProtected);
+            return new JavaMembers_jdk11(typeFactory, cl, includeProtected);
         } else {
-            return new JavaMembers(associatedScope, cl, includeProtected);
+            return new JavaMembers(typeFactory, cl, includeProtected);
         }
     }
 
@@ -895,6 +928,11 @@ class JavaMembers {
     private final Map<String, Object> staticMembers;
 
     private final Map<String, ExecutableOverload.WithField> staticFieldAndMethods;
+
+    /** Overloads that were asked for by their signature, such as {@code "valueOf(int)"} */
+    private final Map<String, ExecutableBox> explicitFunctions = new ConcurrentHashMap<>();
+
+    private final Map<String, ExecutableBox> staticExplicitFunctions = new ConcurrentHashMap<>();
     NativeJavaMethod ctors; // we use NativeJavaMethod for ctor overload resolution
 }
 
@@ -912,7 +950,7 @@ class FieldAndMethods extends NativeJavaMethod {
     @Serial private static final long serialVersionUID = -9222428244284796755L;
 
     FieldAndMethods(VarScope scope, ExecutableOverload.WithField withField) {
-        super(withField.methods, withField.name);
+        super(withField);
         this.field = withField.field;
         setParentScope(scope);
         setPrototype(ScriptableObject.getFunctionPrototype(scope));
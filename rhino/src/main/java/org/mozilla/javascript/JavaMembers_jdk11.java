@@ -10,12 +10,13 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.Map;
+import org.mozilla.javascript.lc.type.TypeInfoFactory;
 
 /** Version of {@link JavaMembers} for modular JDKs. */
 class JavaMembers_jdk11 extends JavaMembers {
 
-    JavaMembers_jdk11(VarScope scope, Class<?> cl, boolean includeProtected) {
-        super(scope, cl, includeProtected);
+    JavaMembers_jdk11(TypeInfoFactory typeFactory, Class<?> cl, boolean includeProtected) {
+        super(typeFactory, cl, includeProtected);
     }
 
     @Override
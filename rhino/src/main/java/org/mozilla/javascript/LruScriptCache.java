@@ -0,0 +1,122 @@
+/* -*- Mode: java; tab-width: 8; indent-tabs-mode: nil; c-basic-offset: 4 -*-
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/. */
+
+// API class
+
+package org.mozilla.javascript;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded {@link ScriptCache} that evicts the least recently used scripts. The cache is limited
+ * both in the number of scripts and in their total weight, where the weight of a script is the
+ * length of its source, which is a reasonable estimate of the memory its compiled form uses.
+ *
+ * <p>All operations are synchronized on the cache.
+ */
+public class LruScriptCache implements ScriptCache {
+    private final int maxEntries;
+    private final long maxWeight;
+    private final LinkedHashMap<Key, Script> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Create a cache holding at most the given number of scripts.
+     *
+     * @param maxEntries the maximum number of scripts to keep
+     */
+    public LruScriptCache(int maxEntries) {
+        this(maxEntries, Long.MAX_VALUE);
+    }
+
+    /**
+     * Create a cache holding at most the given number of scripts, whose sources add up to at most
+     * the given number of characters.
+     *
+     * @param maxEntries the maximum number of scripts to keep
+     * @param maxWeight the maximum total length of the sources of all cached scripts
+     */
+    public LruScriptCache(int maxEntries, long maxWeight) {
+        if (maxEntries < 1 || maxWeight < 1) {
+            throw new IllegalArgumentException("Cache limits must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+    }
+
+    @Override
+    public synchronized Script get(Key key) {
+        Script script = entries.get(key);
+        if (script == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return script;
+    }
+
+    @Override
+    public synchronized void put(Key key, Script script) {
+        long w = weigh(key);
+        if (w > maxWeight) {
+            // Would evict everything else and still not fit
+            return;
+        }
+        Script old = entries.put(key, script);
+        if (old == null) {
+            weight += w;
+        }
+
+        Iterator<Map.Entry<Key, Script>> it = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || weight > maxWeight) && it.hasNext()) {
+            Key eldest = it.next().getKey();
+            it.remove();
+            weight -= weigh(eldest);
+            evictions++;
+        }
+    }
+
+    private static long weigh(Key key) {
+        return Math.max(1, key.getSource().length());
+    }
+
+    /** Remove all scripts from the cache. The statistics are not reset. */
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    /** Return the number of cached scripts. */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /** Return the total weight of the cached scripts. */
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    /** Return the number of lookups that found a script. */
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    /** Return the number of lookups that did not find a script. */
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    /** Return the number of scripts removed to stay within the limits. */
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+}
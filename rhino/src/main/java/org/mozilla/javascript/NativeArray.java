@@ -894,7 +894,7 @@ public class NativeArray extends ScriptableObject implements List {
     }
 
     static Object getElem(Context cx, Scriptable target, long index) {
-        Object elem = getRawElem(target, index);
+        Object elem = getRawElem(cx, target, index);
         return (elem != Scriptable.NOT_FOUND ? elem : Undefined.instance);
     }
 
@@ -1069,6 +1069,12 @@ public class NativeArray extends ScriptableObject implements List {
                 return sb.toString();
             }
         }
+        if (o.getClass() == NativeJavaArray.class) {
+            String joined = ((NativeJavaArray) o).joinPrimitives(cx, separator);
+            if (joined != null) {
+                return joined;
+            }
+        }
         if (length == 0) {
             return "";
         }
@@ -9,14 +9,19 @@ package org.mozilla.javascript;
 import static org.mozilla.javascript.ClassDescriptor.Builder.value;
 import static org.mozilla.javascript.ClassDescriptor.Destination.CTOR;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
 import java.io.Serial;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.lang.reflect.Array;
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayDeque;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import org.mozilla.javascript.json.JsonParser;
@@ -34,6 +39,11 @@ public final class NativeJSON extends ScriptableObject {
 
     private static final int MAX_STRINGIFY_GAP_LENGTH = 10;
 
+    // how much text stringify collects before it writes it to a sink
+    private static final int FLUSH_SIZE = 8192;
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
     private static final ClassDescriptor DESCRIPTION;
 
     static {
@@ -102,6 +112,27 @@ public final class NativeJSON extends ScriptableObject {
         return walk(cx, scope, reviver, root, "");
     }
 
+    /**
+     * Parse the JSON text read from the reader like JSON.parse does, without reading all of it into
+     * a string first. The reviver may be null.
+     */
+    public static Object parse(Context cx, VarScope scope, Reader json, Callable reviver) {
+        Object unfiltered;
+        try {
+            unfiltered = new JsonParser(cx, scope).parse(json);
+        } catch (JsonParser.ParseException ex) {
+            throw ScriptRuntime.constructError("SyntaxError", ex.getMessage());
+        } catch (IOException ex) {
+            throw Context.throwAsScriptRuntimeEx(ex);
+        }
+        if (reviver == null) {
+            return unfiltered;
+        }
+        Scriptable root = cx.newObject(scope);
+        root.put("", root, unfiltered);
+        return walk(cx, scope, reviver, root, "");
+    }
+
     private static Object walk(
             Context cx, VarScope scope, Callable reviver, Scriptable holder, Object name) {
         final Object property;
@@ -166,7 +197,8 @@ public final class NativeJSON extends ScriptableObject {
                 String indent,
                 String gap,
                 Callable replacer,
-                Object[] propertyList) {
+                Object[] propertyList,
+                Appendable sink) {
             this.cx = cx;
             this.scope = scope;
 
@@ -174,6 +206,7 @@ public final class NativeJSON extends ScriptableObject {
             this.gap = gap;
             this.replacer = replacer;
             this.propertyList = propertyList;
+            this.sink = sink;
         }
 
         ArrayDeque<Object> stack = new ArrayDeque<>();
@@ -182,12 +215,82 @@ public final class NativeJSON extends ScriptableObject {
         Callable replacer;
         Object[] propertyList;
 
+        // The text is built here, and moved to the sink whenever it gets long if there is one
+        final StringBuilder out = new StringBuilder();
+        final Appendable sink;
+
         Context cx;
         VarScope scope;
+
+        void flushIfFull() {
+            if (sink != null && out.length() >= FLUSH_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() {
+            try {
+                sink.append(out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            out.setLength(0);
+        }
     }
 
     public static Object stringify(
             Context cx, VarScope scope, Object value, Object replacer, Object space) {
+        StringifyState state = createState(cx, scope, replacer, space, null);
+        if (!stringify(value, state)) {
+            return Undefined.instance;
+        }
+        return state.out.toString();
+    }
+
+    /**
+     * Write the JSON text of the value to the sink like JSON.stringify does, without building the
+     * whole text in memory first. If an error is thrown, part of the text might have been written
+     * already.
+     *
+     * @return false if the value has no JSON text, in which case nothing is written
+     */
+    public static boolean stringify(
+            Context cx,
+            VarScope scope,
+            Object value,
+            Object replacer,
+            Object space,
+            Appendable sink)
+            throws IOException {
+        StringifyState state = createState(cx, scope, replacer, space, sink);
+        try {
+            if (!stringify(value, state)) {
+                return false;
+            }
+            state.flush();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return true;
+    }
+
+    /** Write the JSON text of the value to the stream, encoded as UTF-8. */
+    public static boolean stringify(
+            Context cx,
+            VarScope scope,
+            Object value,
+            Object replacer,
+            Object space,
+            OutputStream sink)
+            throws IOException {
+        Writer writer = new OutputStreamWriter(sink, StandardCharsets.UTF_8);
+        boolean written = stringify(cx, scope, value, replacer, space, writer);
+        writer.flush();
+        return written;
+    }
+
+    private static StringifyState createState(
+            Context cx, VarScope scope, Object replacer, Object space, Appendable sink) {
         String indent = "";
         String gap = "";
 
@@ -240,17 +343,27 @@ public final class NativeJSON extends ScriptableObject {
             }
         }
 
-        StringifyState state =
-                new StringifyState(cx, scope, indent, gap, replacerFunction, propertyList);
+        return new StringifyState(cx, scope, indent, gap, replacerFunction, propertyList, sink);
+    }
 
+    private static boolean stringify(Object value, StringifyState state) {
         ScriptableObject wrapper = new NativeObject();
-        wrapper.setParentScope(scope);
-        wrapper.setPrototype(ScriptableObject.getObjectPrototype(scope));
+        wrapper.setParentScope(state.scope);
+        wrapper.setPrototype(ScriptableObject.getObjectPrototype(state.scope));
         wrapper.defineProperty("", value, 0);
-        return str("", wrapper, state);
+        Object resolved = resolve("", wrapper, state);
+        if (resolved == Undefined.instance) {
+            return false;
+        }
+        write(resolved, state);
+        return true;
     }
 
-    private static Object str(Object key, Scriptable holder, StringifyState state) {
+    /**
+     * Return the value that is serialized for the property of the holder, after calling its toJSON
+     * method and the replacer and unwrapping it, or Undefined if the property is left out.
+     */
+    private static Object resolve(Object key, Scriptable holder, StringifyState state) {
         Object value = null;
         Object unwrappedJavaValue = null;
 
@@ -322,25 +435,11 @@ public final class NativeJSON extends ScriptableObject {
             value = value.toString();
         }
 
-        if (value == null) return "null";
-        if (value.equals(Boolean.TRUE)) return "true";
-        if (value.equals(Boolean.FALSE)) return "false";
-
-        if (value instanceof CharSequence) {
-            return quote(value.toString());
-        }
-
-        if (value instanceof Number) {
-            if (value instanceof BigInteger) {
-                throw ScriptRuntime.typeErrorById("msg.json.cant.serialize", "BigInt");
-            }
-            double d = ((Number) value).doubleValue();
-            if (!Double.isNaN(d)
-                    && d != Double.POSITIVE_INFINITY
-                    && d != Double.NEGATIVE_INFINITY) {
-                return ScriptRuntime.toString(value);
-            }
-            return "null";
+        if (value == null
+                || value instanceof Boolean
+                || value instanceof CharSequence
+                || value instanceof Number) {
+            return value;
         }
 
         if (unwrappedJavaValue != null) {
@@ -348,28 +447,40 @@ public final class NativeJSON extends ScriptableObject {
         }
 
         if ((value instanceof Scriptable) && !(value instanceof Callable)) {
-            if (isObjectArrayLike(value)) {
-                return ja((Scriptable) value, state);
-            }
-            return jo((Scriptable) value, state);
+            return value;
         }
         return Undefined.instance;
     }
 
-    private static String join(Collection<Object> objs, String delimiter) {
-        if (objs == null || objs.isEmpty()) {
-            return "";
-        }
-        Iterator<Object> iter = objs.iterator();
-        if (!iter.hasNext()) return "";
-        StringBuilder builder = new StringBuilder(iter.next().toString());
-        while (iter.hasNext()) {
-            builder.append(delimiter).append(iter.next());
+    /** Append the JSON text of a value that was returned by resolve(). */
+    private static void write(Object value, StringifyState state) {
+        StringBuilder out = state.out;
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof Boolean) {
+            out.append(((Boolean) value).booleanValue() ? "true" : "false");
+        } else if (value instanceof CharSequence) {
+            quote(value.toString(), out);
+        } else if (value instanceof Number) {
+            if (value instanceof BigInteger) {
+                throw ScriptRuntime.typeErrorById("msg.json.cant.serialize", "BigInt");
+            }
+            double d = ((Number) value).doubleValue();
+            if (!Double.isNaN(d)
+                    && d != Double.POSITIVE_INFINITY
+                    && d != Double.NEGATIVE_INFINITY) {
+                out.append(ScriptRuntime.toString(value));
+            } else {
+                out.append("null");
+            }
+        } else if (isObjectArrayLike(value)) {
+            ja((Scriptable) value, state);
+        } else {
+            jo((Scriptable) value, state);
         }
-        return builder.toString();
     }
 
-    private static String jo(Scriptable value, StringifyState state) {
+    private static void jo(Scriptable value, StringifyState state) {
         Object trackValue = value, unwrapped = null;
         if (value instanceof Wrapper) {
             trackValue = unwrapped = ((Wrapper) value).unwrap();
@@ -418,40 +529,38 @@ public final class NativeJSON extends ScriptableObject {
             k = value.getIds();
         }
 
-        ArrayList<Object> partial = new ArrayList<>();
-
+        StringBuilder out = state.out;
+        boolean empty = true;
+        out.append('{');
         for (Object p : k) {
-            Object strP = str(p, value, state);
+            Object strP = resolve(p, value, state);
             if (strP != Undefined.instance) {
-                String member = quote(p.toString()) + ":";
+                if (!empty) {
+                    out.append(',');
+                }
+                if (state.gap.length() > 0) {
+                    out.append('\n').append(state.indent);
+                }
+                quote(p.toString(), out);
+                out.append(':');
                 if (state.gap.length() > 0) {
-                    member = member + " ";
+                    out.append(' ');
                 }
-                member = member + strP;
-                partial.add(member);
+                write(strP, state);
+                empty = false;
+                state.flushIfFull();
             }
         }
-
-        final String finalValue;
-
-        if (partial.isEmpty()) {
-            finalValue = "{}";
-        } else {
-            if (state.gap.length() == 0) {
-                finalValue = '{' + join(partial, ",") + '}';
-            } else {
-                String separator = ",\n" + state.indent;
-                String properties = join(partial, separator);
-                finalValue = "{\n" + state.indent + properties + '\n' + stepback + '}';
-            }
+        if (!empty && state.gap.length() > 0) {
+            out.append('\n').append(stepback);
         }
+        out.append('}');
 
         state.stack.pop();
         state.indent = stepback;
-        return finalValue;
     }
 
-    private static String ja(Scriptable value, StringifyState state) {
+    private static void ja(Scriptable value, StringifyState state) {
         Object trackValue = value, unwrapped = null;
         if (value instanceof Wrapper) {
             trackValue = unwrapped = ((Wrapper) value).unwrap();
@@ -463,7 +572,6 @@ public final class NativeJSON extends ScriptableObject {
 
         String stepback = state.indent;
         state.indent = state.indent + state.gap;
-        ArrayList<Object> partial = new ArrayList<>();
 
         if (unwrapped != null) {
             Object[] elements = null;
@@ -488,42 +596,38 @@ public final class NativeJSON extends ScriptableObject {
 
         long len = ((NativeArray) value).getLength();
 
+        StringBuilder out = state.out;
+        out.append('[');
         for (long index = 0; index < len; index++) {
             Object strP;
             if (index > Integer.MAX_VALUE) {
-                strP = str(Long.toString(index), value, state);
+                strP = resolve(Long.toString(index), value, state);
             } else {
-                strP = str(Integer.valueOf((int) index), value, state);
+                strP = resolve(Integer.valueOf((int) index), value, state);
+            }
+            if (index > 0) {
+                out.append(',');
+            }
+            if (state.gap.length() > 0) {
+                out.append('\n').append(state.indent);
             }
             if (strP == Undefined.instance) {
-                partial.add("null");
+                out.append("null");
             } else {
-                partial.add(strP);
+                write(strP, state);
             }
+            state.flushIfFull();
         }
-
-        final String finalValue;
-
-        if (partial.isEmpty()) {
-            finalValue = "[]";
-        } else {
-            if (state.gap.length() == 0) {
-                finalValue = '[' + join(partial, ",") + ']';
-            } else {
-                String separator = ",\n" + state.indent;
-                String properties = join(partial, separator);
-                finalValue = "[\n" + state.indent + properties + '\n' + stepback + ']';
-            }
+        if (len > 0 && state.gap.length() > 0) {
+            out.append('\n').append(stepback);
         }
+        out.append(']');
 
         state.stack.pop();
         state.indent = stepback;
-        return finalValue;
     }
 
-    private static String quote(String string) {
-        StringBuilder product =
-                new StringBuilder(string.length() + 2); // two extra chars for " on either side
+    private static void quote(String string, StringBuilder product) {
         product.append('"');
         int length = string.length();
         char prev = 0;
@@ -561,8 +665,9 @@ public final class NativeJSON extends ScriptableObject {
                         product.append(prev).append(c);
                     } else if (c < ' ' || isLeadingSurrogate(c) || isTrailingSurrogate(c)) {
                         product.append("\\u");
-                        String hex = String.format("%04x", Integer.valueOf(c));
-                        product.append(hex);
+                        for (int shift = 12; shift >= 0; shift -= 4) {
+                            product.append(HEX_DIGITS[(c >> shift) & 0xf]);
+                        }
                     } else {
                         product.append(c);
                     }
@@ -571,7 +676,6 @@ public final class NativeJSON extends ScriptableObject {
             prev = c;
         }
         product.append('"');
-        return product.toString();
     }
 
     static boolean isLeadingSurrogate(char c) {
@@ -590,7 +694,7 @@ public final class NativeJSON extends ScriptableObject {
         wrapper.setParentScope(state.scope);
         wrapper.setPrototype(ScriptableObject.getObjectPrototype(state.scope));
         wrapper.defineProperty("", value, 0);
-        return str("", wrapper, state);
+        return resolve("", wrapper, state);
     }
 
     private static boolean isObjectArrayLike(Object o) {
@@ -80,14 +80,73 @@ public class NativeJavaArray extends NativeJavaObject implements SymbolScriptabl
 
     @Override
     public Object get(int index, Scriptable start) {
+        return getElement(Context.getContext(), index);
+    }
+
+    /**
+     * Return the wrapped element at the index, or undefined if the index is not within the array.
+     * Elements of {@code int[]}, {@code double[]} and {@code byte[]} arrays are read without
+     * reflection, and are not passed to the default wrap factory, which would return them as they
+     * are.
+     */
+    Object getElement(Context cx, int index) {
         if (0 <= index && index < length) {
-            Context cx = Context.getContext();
+            WrapFactory wrapFactory = cx.getWrapFactory();
+            if (wrapFactory.getClass() == WrapFactory.class && componentType.isPrimitive()) {
+                if (array instanceof int[]) {
+                    return Integer.valueOf(((int[]) array)[index]);
+                } else if (array instanceof double[]) {
+                    return Double.valueOf(((double[]) array)[index]);
+                } else if (array instanceof byte[]) {
+                    return Byte.valueOf(((byte[]) array)[index]);
+                }
+            }
             Object obj = Array.get(array, index);
-            return cx.getWrapFactory().wrap(cx, parent, obj, componentType);
+            return wrapFactory.wrap(cx, parent, obj, componentType);
         }
         return Undefined.instance;
     }
 
+    /**
+     * Join the elements of an {@code int[]}, {@code double[]} or {@code byte[]} array the way
+     * Array.prototype.join would, without boxing them. Return null for other arrays, or if the
+     * context has its own wrap factory.
+     */
+    String joinPrimitives(Context cx, String separator) {
+        if (cx.getWrapFactory().getClass() != WrapFactory.class || !componentType.isPrimitive()) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder();
+        if (array instanceof int[]) {
+            int[] a = (int[]) array;
+            for (int i = 0; i < a.length; i++) {
+                if (i != 0) {
+                    sb.append(separator);
+                }
+                sb.append(a[i]);
+            }
+        } else if (array instanceof double[]) {
+            double[] a = (double[]) array;
+            for (int i = 0; i < a.length; i++) {
+                if (i != 0) {
+                    sb.append(separator);
+                }
+                sb.append(ScriptRuntime.numberToString(a[i], 10));
+            }
+        } else if (array instanceof byte[]) {
+            byte[] a = (byte[]) array;
+            for (int i = 0; i < a.length; i++) {
+                if (i != 0) {
+                    sb.append(separator);
+                }
+                sb.append(a[i]);
+            }
+        } else {
+            return null;
+        }
+        return sb.toString();
+    }
+
     @Override
     public Object get(Symbol key, Scriptable start) {
         if (SymbolKey.IS_CONCAT_SPREADABLE.equals(key)) {
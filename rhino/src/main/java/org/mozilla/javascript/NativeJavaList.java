@@ -105,8 +105,15 @@ public class NativeJavaList extends NativeJavaObject {
 
     @Override
     public Object get(int index, Scriptable start) {
+        return getElement(Context.getCurrentContext(), index);
+    }
+
+    /**
+     * Return the element at the index, wrapped with the wrap factory of the context if there is
+     * one, or undefined if the index is not within the list.
+     */
+    Object getElement(Context cx, int index) {
         if (isWithValidIndex(index)) {
-            Context cx = Context.getCurrentContext();
             Object obj = list.get(index);
             if (cx != null) {
                 return cx.getWrapFactory().wrap(cx, parent, obj, elementType);
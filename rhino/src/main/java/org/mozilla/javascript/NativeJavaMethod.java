@@ -8,12 +8,12 @@ package org.mozilla.javascript;
 
 import java.io.Serial;
 import java.lang.reflect.Method;
-import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.Map;
-import java.util.concurrent.CopyOnWriteArrayList;
 import org.mozilla.javascript.lc.ReflectUtils;
 import org.mozilla.javascript.lc.member.ExecutableBox;
+import org.mozilla.javascript.lc.member.ExecutableOverload;
+import org.mozilla.javascript.lc.member.OverloadCache;
 import org.mozilla.javascript.lc.type.ParameterizedTypeInfo;
 import org.mozilla.javascript.lc.type.TypeInfo;
 import org.mozilla.javascript.lc.type.TypeInfoFactory;
@@ -35,17 +35,23 @@ public class NativeJavaMethod extends BaseFunction {
     // TODO: serialization support by read/write class and method name
     final ExecutableBox[] methods;
     private final String functionName;
-    private final transient CopyOnWriteArrayList<ResolvedOverload> overloadCache =
-            new CopyOnWriteArrayList<>();
+    private final transient OverloadCache overloadCache;
 
     NativeJavaMethod(ExecutableBox[] methods, String name) {
         this.functionName = name;
         this.methods = methods;
+        this.overloadCache = new OverloadCache(methods.length);
     }
 
     NativeJavaMethod(ExecutableBox method, String name) {
-        this.functionName = name;
-        this.methods = new ExecutableBox[] {method};
+        this(new ExecutableBox[] {method}, name);
+    }
+
+    /** Create a function for the overloads that shares their cache of resolved overloads. */
+    NativeJavaMethod(ExecutableOverload overload) {
+        this.functionName = overload.name;
+        this.methods = overload.methods;
+        this.overloadCache = overload.overloadCache;
     }
 
     @Deprecated
@@ -170,11 +176,16 @@ public class NativeJavaMethod extends BaseFunction {
                             ScriptRuntime.toString(thisObj),
                             c.getName());
                 }
-                if (o instanceof Wrapper) {
+                // testing for the class first is cheaper than testing for the interface
+                if (o instanceof NativeJavaObject) {
+                    javaObject = ((NativeJavaObject) o).unwrap();
+                } else if (o instanceof Wrapper) {
                     javaObject = ((Wrapper) o).unwrap();
-                    if (c.isInstance(javaObject)) {
-                        break;
-                    }
+                } else {
+                    javaObject = null;
+                }
+                if (c.isInstance(javaObject)) {
+                    break;
                 }
                 o = o.getPrototype();
             }
@@ -216,22 +227,12 @@ public class NativeJavaMethod extends BaseFunction {
     }
 
     int findCachedFunction(Context cx, Object[] args) {
-        if (methods.length > 1) {
-            for (ResolvedOverload ovl : overloadCache) {
-                if (ovl.matches(args)) {
-                    return ovl.index;
-                }
-            }
-            int index = findFunction(cx, methods, args);
-            // As a sanity measure, don't let the lookup cache grow longer
-            // than twice the number of overloaded methods
-            if (overloadCache.size() < methods.length * 2) {
-                ResolvedOverload ovl = new ResolvedOverload(args, index);
-                overloadCache.addIfAbsent(ovl);
-            }
-            return index;
+        int index = overloadCache.get(args);
+        if (index == OverloadCache.NOT_CACHED) {
+            index = findFunction(cx, methods, args);
+            overloadCache.put(args, index);
         }
-        return findFunction(cx, methods, args);
+        return index;
     }
 
     /**
@@ -526,48 +527,3 @@ public class NativeJavaMethod extends BaseFunction {
         }
     }
 }
-
-class ResolvedOverload {
-    final Class<?>[] types;
-    final int index;
-
-    ResolvedOverload(Object[] args, int index) {
-        this.index = index;
-        types = new Class<?>[args.length];
-        for (int i = 0, l = args.length; i < l; i++) {
-            Object arg = args[i];
-            if (arg instanceof Wrapper) arg = ((Wrapper) arg).unwrap();
-            types[i] = arg == null ? null : arg.getClass();
-        }
-    }
-
-    boolean matches(Object[] args) {
-        if (args.length != types.length) {
-            return false;
-        }
-        for (int i = 0, l = args.length; i < l; i++) {
-            Object arg = args[i];
-            if (arg instanceof Wrapper) arg = ((Wrapper) arg).unwrap();
-            if (arg == null) {
-                if (types[i] != null) return false;
-            } else if (arg.getClass() != types[i]) {
-                return false;
-            }
-        }
-        return true;
-    }
-
-    @Override
-    public boolean equals(Object other) {
-        if (!(other instanceof ResolvedOverload)) {
-            return false;
-        }
-        ResolvedOverload ovl = (ResolvedOverload) other;
-        return Arrays.equals(types, ovl.types) && index == ovl.index;
-    }
-
-    @Override
-    public int hashCode() {
-        return Arrays.hashCode(types);
-    }
-}
@@ -93,6 +93,27 @@ public class NativeJavaObject implements Scriptable, SymbolScriptable, Wrapper,
         return members.get(this, parent, name, javaObject, false);
     }
 
+    /**
+     * Return an object that is the same for all Java objects whose properties are found in the same
+     * way, which is the table of members of their class. This is used by the optimizer to cache
+     * method lookups.
+     */
+    public Object getShape() {
+        return members;
+    }
+
+    /**
+     * Return the function that a call of the named property of this object calls, or null if the
+     * property is not a method, or is also a field. The function is the same for all objects of the
+     * same {@link #getShape() shape}, so it may be cached.
+     */
+    public Callable getMethod(String name) {
+        if (fieldAndMethods.containsKey(name)) {
+            return null;
+        }
+        return members.getMethod(parent, name);
+    }
+
     @Override
     public Object get(Symbol key, Scriptable start) {
         if (SymbolKey.ITERATOR.equals(key) && javaObject instanceof Iterable) {
@@ -272,6 +293,20 @@ public class NativeJavaObject implements Scriptable, SymbolScriptable, Wrapper,
     private static final int JSTYPE_JAVA_ARRAY = 7; // JavaArray
     private static final int JSTYPE_OBJECT = 8; // Scriptable
     private static final int JSTYPE_BIGINT = 9; // BigInt
+    private static final int JSTYPE_COUNT = 10;
+
+    // What coerceTypeImpl does with each kind of value for a type, when that does not depend on
+    // the value itself. The table kept in the TypeInfo has one of these for each JSTYPE, followed
+    // by the conversion weight for each JSTYPE, or WEIGHT_DYNAMIC.
+    private static final byte COERCE_DYNAMIC = 0;
+    private static final byte COERCE_VALUE = 1;
+    private static final byte COERCE_ERROR = 2;
+    private static final byte COERCE_UNDEFINED = 3;
+    private static final byte COERCE_TO_STRING = 4;
+    private static final byte COERCE_JS_TO_STRING = 5;
+    private static final byte COERCE_TO_NUMBER = 6;
+    private static final byte COERCE_UNWRAP = 7;
+    private static final byte WEIGHT_DYNAMIC = -1;
 
     static final byte CONVERSION_TRIVIAL = 1;
     static final byte CONVERSION_NONTRIVIAL = 0;
@@ -286,7 +321,14 @@ public class NativeJavaObject implements Scriptable, SymbolScriptable, Wrapper,
      */
     static int getConversionWeight(Object fromObj, TypeInfo to) {
         int fromCode = getJSTypeCode(fromObj);
+        int weight = getConversions(to)[JSTYPE_COUNT + fromCode];
+        if (weight != WEIGHT_DYNAMIC) {
+            return weight;
+        }
+        return getConversionWeight(fromObj, fromCode, to);
+    }
 
+    private static int getConversionWeight(Object fromObj, int fromCode, TypeInfo to) {
         switch (fromCode) {
             case JSTYPE_UNDEFINED:
                 if (to == TypeInfo.STRING || to.isObjectExact()) {
@@ -448,6 +490,18 @@ public class NativeJavaObject implements Scriptable, SymbolScriptable, Wrapper,
     private static int getJSTypeCode(Object value) {
         if (value == null) {
             return JSTYPE_NULL;
+        }
+        // the common classes first, since testing for an exact class is much cheaper than
+        // testing for an interface
+        Class<?> valueClass = value.getClass();
+        if (valueClass == Double.class || valueClass == Integer.class) {
+            return JSTYPE_NUMBER;
+        } else if (valueClass == String.class) {
+            return JSTYPE_STRING;
+        } else if (valueClass == Boolean.class) {
+            return JSTYPE_BOOLEAN;
+        } else if (valueClass == NativeJavaObject.class) {
+            return JSTYPE_JAVA_OBJECT;
         } else if (value == Undefined.instance) {
             return JSTYPE_UNDEFINED;
         } else if (value instanceof CharSequence) {
@@ -470,15 +524,114 @@ public class NativeJavaObject implements Scriptable, SymbolScriptable, Wrapper,
             }
         } else if (value instanceof Class) {
             return JSTYPE_JAVA_CLASS;
+        } else if (valueClass.isArray()) {
+            return JSTYPE_JAVA_ARRAY;
         } else {
-            Class<?> valueClass = value.getClass();
-            if (valueClass.isArray()) {
-                return JSTYPE_JAVA_ARRAY;
-            }
             return JSTYPE_JAVA_OBJECT;
         }
     }
 
+    /**
+     * Return the table of how each kind of value is converted to the type, working it out if the
+     * type does not have it yet.
+     */
+    private static byte[] getConversions(TypeInfo type) {
+        byte[] conversions = type.getConversions();
+        if (conversions == null) {
+            conversions = new byte[JSTYPE_COUNT * 2];
+            for (int code = 0; code < JSTYPE_COUNT; code++) {
+                conversions[code] = getCoercion(code, type);
+                conversions[JSTYPE_COUNT + code] = getStaticWeight(code, type);
+            }
+            // racing threads compute the same table
+            type.setConversions(conversions);
+        }
+        return conversions;
+    }
+
+    /** The part of coerceTypeImpl that only depends on the kind of value. */
+    private static byte getCoercion(int jsTypeCode, TypeInfo type) {
+        switch (jsTypeCode) {
+            case JSTYPE_NULL:
+                return type.isPrimitive() ? COERCE_ERROR : COERCE_VALUE;
+
+            case JSTYPE_UNDEFINED:
+                if (type == TypeInfo.STRING || type.isObjectExact()) {
+                    return COERCE_UNDEFINED;
+                }
+                return COERCE_ERROR;
+
+            case JSTYPE_BOOLEAN:
+                if (type.isBoolean() || type.isObjectExact()) {
+                    return COERCE_VALUE;
+                } else if (type == TypeInfo.STRING) {
+                    return COERCE_TO_STRING;
+                }
+                return COERCE_ERROR;
+
+            case JSTYPE_NUMBER:
+            case JSTYPE_BIGINT:
+                if (type == TypeInfo.STRING) {
+                    return COERCE_JS_TO_STRING;
+                } else if (type.isObjectExact()) {
+                    // depends on the features of the current context
+                    return COERCE_DYNAMIC;
+                } else if ((type.isPrimitive() && !type.isBoolean())
+                        || type.isNumber()
+                        || type.isCharacter()) {
+                    return COERCE_TO_NUMBER;
+                }
+                return COERCE_ERROR;
+
+            case JSTYPE_STRING:
+                // other types may be instances of the class of the value, and single characters
+                // convert to char
+                if (type == TypeInfo.STRING) {
+                    return COERCE_TO_STRING;
+                } else if (type.isPrimitive() && !type.isCharacter()) {
+                    return type.isBoolean() ? COERCE_ERROR : COERCE_TO_NUMBER;
+                }
+                return COERCE_DYNAMIC;
+
+            case JSTYPE_JAVA_OBJECT:
+            case JSTYPE_JAVA_ARRAY:
+                if (type.isPrimitive() || type == TypeInfo.STRING) {
+                    return COERCE_DYNAMIC;
+                }
+                return COERCE_UNWRAP;
+
+            case JSTYPE_OBJECT:
+                return type == TypeInfo.STRING ? COERCE_JS_TO_STRING : COERCE_DYNAMIC;
+
+            default:
+                return COERCE_DYNAMIC;
+        }
+    }
+
+    /** The conversion weight for the kind of value, or WEIGHT_DYNAMIC if the value decides. */
+    private static byte getStaticWeight(int fromCode, TypeInfo to) {
+        switch (fromCode) {
+            case JSTYPE_UNDEFINED:
+            case JSTYPE_NULL:
+            case JSTYPE_BOOLEAN:
+            case JSTYPE_NUMBER:
+            case JSTYPE_BIGINT:
+            case JSTYPE_JAVA_CLASS:
+                // the weight does not look at the value, so any value of the kind will do
+                return (byte) getConversionWeight(null, fromCode, to);
+
+            case JSTYPE_STRING:
+                if (to == TypeInfo.STRING || to.isPrimitive()) {
+                    // primitive types have no instances
+                    return (byte) getConversionWeight("", fromCode, to);
+                }
+                return WEIGHT_DYNAMIC;
+
+            default:
+                return WEIGHT_DYNAMIC;
+        }
+    }
+
     /**
      * Not intended for public use. Callers should use the public API Context.toType.
      *
@@ -498,6 +651,33 @@ public class NativeJavaObject implements Scriptable, SymbolScriptable, Wrapper,
 
         int jsTypeCode = getJSTypeCode(value);
         assert (jsTypeCode == JSTYPE_NULL) == (value == null);
+        switch (getConversions(type)[jsTypeCode]) {
+            case COERCE_VALUE:
+                return value;
+            case COERCE_ERROR:
+                reportConversionError(jsTypeCode == JSTYPE_UNDEFINED ? "undefined" : value, type);
+                break;
+            case COERCE_UNDEFINED:
+                return "undefined";
+            case COERCE_TO_STRING:
+                return value.toString();
+            case COERCE_JS_TO_STRING:
+                return ScriptRuntime.toString(value);
+            case COERCE_TO_NUMBER:
+                return coerceToNumber(type, value);
+            case COERCE_UNWRAP:
+                if (value instanceof Wrapper) {
+                    value = ((Wrapper) value).unwrap();
+                }
+                if (type.isInstance(value)) {
+                    return value;
+                }
+                reportConversionError(value, type);
+                break;
+            default:
+                break;
+        }
+
         switch (jsTypeCode) {
             case JSTYPE_NULL:
                 // raise error if type.isPrimitive()
@@ -95,6 +95,16 @@ public class NativeObject extends ScriptableObject implements Map {
                         .build();
     }
 
+    public NativeObject() {}
+
+    /**
+     * Create an object with room for the given number of properties, for callers that know how
+     * many properties the object is going to get.
+     */
+    public NativeObject(int capacity) {
+        super(capacity);
+    }
+
     static JSFunction init(Context cx, VarScope s, boolean sealed) {
         var desc = cx.version >= Context.VERSION_ES6 ? ES6_DESCRIPTOR : LEGACY_DESCRIPTOR;
         return desc.buildConstructor(cx, s, new NativeObject(), sealed);
@@ -265,15 +265,19 @@ final class NativeString extends ScriptableObject {
             if (!getCode) return "";
             return ScriptRuntime.NaNobj;
         }
-        char c = target.charAt((int) pos);
+        char c =
+                target instanceof ConsString
+                        ? ((ConsString) target).charAtUnflattened((int) pos)
+                        : target.charAt((int) pos);
         if (!getCode) return String.valueOf(c);
         return ScriptRuntime.wrapInt(c);
     }
 
     private static Object js_indexOf(
             Context cx, JSFunction f, Object nt, VarScope s, Object thisObj, Object[] args) {
-        String target =
-                ScriptRuntime.toString(requireObjectCoercible(cx, thisObj, CLASS_NAME, "indexOf"));
+        CharSequence target =
+                ScriptRuntime.toCharSequence(
+                        requireObjectCoercible(cx, thisObj, CLASS_NAME, "indexOf"));
         String searchStr = ScriptRuntime.toString(args, 0);
         double position = ScriptRuntime.toInteger(args, 1);
 
@@ -284,20 +288,26 @@ final class NativeString extends ScriptableObject {
             return -1;
         }
         if (position < 0) position = 0;
-        return target.indexOf(searchStr, (int) position);
+        if (target instanceof ConsString) {
+            return ((ConsString) target).indexOf(searchStr, (int) position);
+        }
+        return target.toString().indexOf(searchStr, (int) position);
     }
 
     private static Object js_startsWith(
             Context cx, JSFunction f, Object nt, VarScope s, Object thisObj, Object[] args) {
-        String target =
-                ScriptRuntime.toString(
+        CharSequence target =
+                ScriptRuntime.toCharSequence(
                         requireObjectCoercible(cx, thisObj, CLASS_NAME, "startsWith"));
         checkValidRegex(cx, args, 0, "startsWith");
         String searchStr = ScriptRuntime.toString(args, 0);
         double position = ScriptRuntime.toInteger(args, 1);
         if (position < 0) position = 0;
         else if (position > target.length()) position = target.length();
-        return target.startsWith(searchStr, (int) position);
+        if (target instanceof ConsString) {
+            return ((ConsString) target).startsWith(searchStr, (int) position);
+        }
+        return target.toString().startsWith(searchStr, (int) position);
     }
 
     private static Object js_endsWith(
@@ -490,7 +500,11 @@ final class NativeString extends ScriptableObject {
     @Override
     public Object get(int index, Scriptable start) {
         if (0 <= index && index < string.length()) {
-            return String.valueOf(string.charAt(index));
+            char c =
+                    string instanceof ConsString
+                            ? ((ConsString) string).charAtUnflattened(index)
+                            : string.charAt(index);
+            return String.valueOf(c);
         }
         return super.get(index, start);
     }
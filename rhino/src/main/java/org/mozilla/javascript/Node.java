@@ -41,6 +41,8 @@ public class Node implements Iterable<Node> {
             //  DIRECTCALL_PROP - this call node should emit code to test the function
             //                    object against the known class and call direct if it
             //                    matches.
+            //  ISINT32_PROP - this Number node always delivers a 32 bit integer, so
+            //                 it can generate an int where one is needed
 
             TARGETBLOCK_PROP = 6,
             VARIABLE_PROP = 7,
@@ -70,7 +72,8 @@ public class Node implements Iterable<Node> {
             SUPER_PROPERTY_ACCESS = 31,
             NUMBER_OF_SPREAD = 32,
             OBJECT_REST_PROP = 33, // marks a CALL node as object rest operation
-            LAST_PROP = OBJECT_REST_PROP,
+            ISINT32_PROP = 34,
+            LAST_PROP = ISINT32_PROP,
             FIRST_PROP = FUNCTION_PROP;
 
     // values of ISNUMBER_PROP to specify
@@ -459,6 +462,8 @@ public class Node implements Iterable<Node> {
                 return "number_of_spread";
             case OBJECT_REST_PROP:
                 return "object_rest_prop";
+            case ISINT32_PROP:
+                return "isint32";
 
             default:
                 Kit.codeBug();
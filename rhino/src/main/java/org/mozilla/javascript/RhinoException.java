@@ -327,7 +327,7 @@ public abstract class RhinoException extends RuntimeException {
         interpreters.add(new InterpreterMethod(clazz.getName(), methodName));
     }
 
-    private boolean isInterpreterMethod(StackTraceElement e) {
+    static boolean isInterpreterMethod(StackTraceElement e) {
         for (var i : interpreters) {
             if (i.className.equals(e.getClassName()) && i.methodName.equals(e.getMethodName()))
                 return true;
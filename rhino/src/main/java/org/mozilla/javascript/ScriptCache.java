@@ -0,0 +1,170 @@
+/* -*- Mode: java; tab-width: 8; indent-tabs-mode: nil; c-basic-offset: 4 -*-
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/. */
+
+// API class
+
+package org.mozilla.javascript;
+
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A cache of compiled {@link Script} objects shared by all the {@link Context}s of a {@link
+ * ContextFactory}. When one is installed with {@link
+ * ContextFactory#setScriptCache(ScriptCache)}, {@link Context#compileScript(ScriptCompileSpec)}
+ * looks the script up before parsing it, and stores the result after a successful compilation.
+ *
+ * <p>Objects that a compiled script creates, such as the strings objects of tagged templates, are
+ * kept with the top-level scope it runs in rather than with the script. So a cached script may be
+ * executed by several threads at the same time, each in its own Context and top-level scope.
+ * Implementations must be thread-safe.
+ *
+ * <p>Scripts compiled with a custom {@link Evaluator}, a source mapper, or a {@link
+ * ScriptCompileSpec#getCompilerEnvironsProcessor() compiler environment processor}, as well as any
+ * scripts compiled while a debugger is attached, are never cached. Warnings reported while
+ * compiling a script are not reported again when it is found in the cache.
+ *
+ * @see LruScriptCache
+ */
+public interface ScriptCache {
+
+    /**
+     * Look up a script.
+     *
+     * @param key the key describing the source and compilation settings
+     * @return the cached script, or null
+     */
+    Script get(Key key);
+
+    /**
+     * Store a script after it has been compiled. An implementation is free to drop it.
+     *
+     * @param key the key describing the source and compilation settings
+     * @param script the compiled script
+     */
+    void put(Key key, Script script);
+
+    /**
+     * Identifies a compiled script: its source, name and starting line, security domain, and the
+     * compiler settings that change the compiled result. Keys are immutable and implement {@link
+     * #equals} and {@link #hashCode}.
+     */
+    final class Key {
+        private static final int STRICT_FLAG = 1;
+        private static final int DEBUG_INFO_FLAG = 1 << 1;
+        private static final int GENERATING_SOURCE_FLAG = 1 << 2;
+        private static final int OBSERVER_COUNT_FLAG = 1 << 3;
+        private static final int RESERVED_KEYWORD_FLAG = 1 << 4;
+        private static final int MEMBER_EXPR_FUNCTION_NAME_FLAG = 1 << 5;
+        private static final int XML_FLAG = 1 << 6;
+        private static final int SHARP_COMMENTS_FLAG = 1 << 7;
+        private static final int WARNING_AS_ERROR_FLAG = 1 << 8;
+        private static final int ALLOW_SUPER_FLAG = 1 << 9;
+        private static final int IN_EVAL_FLAG = 1 << 10;
+
+        private final String source;
+        private final String sourceName;
+        private final int lineno;
+        private final Object securityDomain;
+        private final Context.EvaluationMethod evaluationMethod;
+        private final int languageVersion;
+        private final int tieredCompilationThreshold;
+        private final int flags;
+        private final Set<String> activationNames;
+        private final int hashCode;
+
+        Key(
+                CompilerEnvirons compilerEnv,
+                String source,
+                String sourceName,
+                int lineno,
+                Object securityDomain) {
+            this.source = source;
+            this.sourceName = sourceName;
+            this.lineno = lineno;
+            this.securityDomain = securityDomain;
+            this.evaluationMethod =
+                    compilerEnv.isInterpretedMode()
+                            ? Context.EvaluationMethod.Interpreter
+                            : Context.EvaluationMethod.Compiler;
+            this.languageVersion = compilerEnv.getLanguageVersion();
+            this.tieredCompilationThreshold = compilerEnv.getTieredCompilationThreshold();
+
+            int flags = 0;
+            flags |= compilerEnv.isStrictMode() ? STRICT_FLAG : 0;
+            flags |= compilerEnv.isGenerateDebugInfo() ? DEBUG_INFO_FLAG : 0;
+            flags |= compilerEnv.isGeneratingSource() ? GENERATING_SOURCE_FLAG : 0;
+            flags |= compilerEnv.isGenerateObserverCount() ? OBSERVER_COUNT_FLAG : 0;
+            flags |= compilerEnv.isReservedKeywordAsIdentifier() ? RESERVED_KEYWORD_FLAG : 0;
+            flags |=
+                    compilerEnv.isAllowMemberExprAsFunctionName()
+                            ? MEMBER_EXPR_FUNCTION_NAME_FLAG
+                            : 0;
+            flags |= compilerEnv.isXmlAvailable() ? XML_FLAG : 0;
+            flags |= compilerEnv.getAllowSharpComments() ? SHARP_COMMENTS_FLAG : 0;
+            flags |= compilerEnv.reportWarningAsError() ? WARNING_AS_ERROR_FLAG : 0;
+            flags |= compilerEnv.isAllowSuper() ? ALLOW_SUPER_FLAG : 0;
+            flags |= compilerEnv.isInEval() ? IN_EVAL_FLAG : 0;
+            this.flags = flags;
+
+            Set<String> names = compilerEnv.getActivationNames();
+            this.activationNames = (names == null || names.isEmpty()) ? null : Set.copyOf(names);
+
+            this.hashCode =
+                    Objects.hash(
+                            source,
+                            sourceName,
+                            lineno,
+                            securityDomain,
+                            evaluationMethod,
+                            languageVersion,
+                            tieredCompilationThreshold,
+                            flags,
+                            activationNames);
+        }
+
+        /** Return the script source. */
+        public String getSource() {
+            return source;
+        }
+
+        /** Return the name of the script source. */
+        public String getSourceName() {
+            return sourceName;
+        }
+
+        /** Return the line number the script starts at. */
+        public int getLineno() {
+            return lineno;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return hashCode == other.hashCode
+                    && lineno == other.lineno
+                    && languageVersion == other.languageVersion
+                    && tieredCompilationThreshold == other.tieredCompilationThreshold
+                    && flags == other.flags
+                    && evaluationMethod == other.evaluationMethod
+                    && Objects.equals(securityDomain, other.securityDomain)
+                    && Objects.equals(sourceName, other.sourceName)
+                    && Objects.equals(activationNames, other.activationNames)
+                    && source.equals(other.source);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/* -*- Mode: java; tab-width: 8; indent-tabs-mode: nil; c-basic-offset: 4 -*-
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/. */
+
+// API class
+
+package org.mozilla.javascript;
+
+/**
+ * A cache of the JVM classes generated for scripts in compiled mode. When one is installed with
+ * {@link ContextFactory#setScriptClassCache(ScriptClassCache)}, {@link
+ * Context#compileScript(ScriptCompileSpec)} offers it every script that is compiled to bytecode, so
+ * an implementation may load classes generated earlier (for instance by a previous JVM) instead of
+ * parsing the source and running the code generator again.
+ *
+ * <p>The cache is only consulted for scripts without a security domain, source mapper, or custom
+ * {@link Evaluator}, and only while no debugger is attached.
+ *
+ * @see org.mozilla.javascript.optimizer.FileScriptClassCache
+ */
+public interface ScriptClassCache {
+
+    /**
+     * Compile a script, or load the classes previously generated for it.
+     *
+     * @param cx the current Context
+     * @param compilerEnv the fully initialized compiler environment for this compilation
+     * @param source the script source
+     * @param sourceName a string describing the source, such as a filename
+     * @param lineno the starting line number
+     * @return the compiled script, or null if the cache can not handle this script, in which case
+     *     it is compiled as usual
+     */
+    Script compileScript(
+            Context cx,
+            CompilerEnvirons compilerEnv,
+            String source,
+            String sourceName,
+            int lineno);
+}
@@ -20,12 +20,15 @@ import java.math.BigInteger;
 import java.math.MathContext;
 import java.text.MessageFormat;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.ResourceBundle;
 import java.util.ServiceLoader;
+import java.util.WeakHashMap;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import org.mozilla.javascript.ast.FunctionNode;
@@ -130,7 +133,7 @@ public class ScriptRuntime {
         String rhsString = ScriptRuntime.toString(rhs);
         String lhsString = ScriptRuntime.toString(lhs);
 
-        return new ConsString(lhsString, rhsString);
+        return ConsString.concat(lhsString, rhsString);
     }
 
     static class NoSuchMethodShim implements Callable {
@@ -194,6 +197,8 @@ public class ScriptRuntime {
 
     private static final Object LIBRARY_SCOPE_KEY = "LIBRARY_SCOPE";
 
+    private static final Object TEMPLATE_CALL_SITES_KEY = "TEMPLATE_CALL_SITES";
+
     public static boolean isRhinoRuntimeType(Class<?> cl) {
         if (cl.isPrimitive()) {
             return (cl != Character.TYPE);
@@ -3769,7 +3774,7 @@ public class ScriptRuntime {
                     (lprim instanceof CharSequence) ? (CharSequence) lprim : toString(lprim);
             final CharSequence rstr =
                     (rprim instanceof CharSequence) ? (CharSequence) rprim : toString(rprim);
-            return new ConsString(lstr, rstr);
+            return ConsString.concat(lstr, rstr);
         }
 
         // Skipping (lval = lprim, rval = rprim) and using xprim values directly.
@@ -3795,7 +3800,7 @@ public class ScriptRuntime {
      */
     @Deprecated
     public static CharSequence add(CharSequence val1, Object val2) {
-        return new ConsString(val1, toCharSequence(val2));
+        return ConsString.concat(val1, toCharSequence(val2));
     }
 
     /**
@@ -3809,7 +3814,7 @@ public class ScriptRuntime {
      */
     @Deprecated
     public static CharSequence add(Object val1, CharSequence val2) {
-        return new ConsString(toCharSequence(val1), val2);
+        return ConsString.concat(toCharSequence(val1), val2);
     }
 
     public static Number subtract(Number val1, Number val2) {
@@ -5978,12 +5983,35 @@ public class ScriptRuntime {
 
     public static Scriptable getTemplateLiteralCallSite(
             Context cx, VarScope scope, Object[] strings, int index) {
-        Object callsite = strings[index];
+        // Compiled scripts may run in several top-level scopes, and each of them needs call site
+        // objects of its own, so they are kept with the top-level scope rather than the script.
+        TopLevel topScope = ScriptableObject.getTopLevelScope(scope);
+        @SuppressWarnings("unchecked")
+        Map<Object, Scriptable> sites =
+                (Map<Object, Scriptable>) topScope.getAssociatedValue(TEMPLATE_CALL_SITES_KEY);
+        if (sites == null) {
+            @SuppressWarnings("unchecked")
+            Map<Object, Scriptable> created =
+                    (Map<Object, Scriptable>)
+                            topScope.associateValue(
+                                    TEMPLATE_CALL_SITES_KEY,
+                                    Collections.synchronizedMap(new WeakHashMap<>()));
+            sites = created;
+        }
 
-        if (callsite instanceof Scriptable) return (Scriptable) callsite;
+        Object callsite = strings[index];
+        synchronized (sites) {
+            Scriptable site = sites.get(callsite);
+            if (site == null) {
+                site = createTemplateLiteralCallSite(cx, scope, (String[]) callsite);
+                sites.put(callsite, site);
+            }
+            return site;
+        }
+    }
 
-        assert callsite instanceof String[];
-        String[] vals = (String[]) callsite;
+    private static Scriptable createTemplateLiteralCallSite(
+            Context cx, VarScope scope, String[] vals) {
         assert (vals.length & 1) == 0;
 
         ScriptableObject siteObj = (ScriptableObject) cx.newArray(scope, vals.length >>> 1);
@@ -6004,8 +6032,6 @@ public class ScriptRuntime {
         AbstractEcmaObjectOperations.setIntegrityLevel(
                 cx, siteObj, AbstractEcmaObjectOperations.INTEGRITY_LEVEL.FROZEN);
 
-        strings[index] = siteObj;
-
         return siteObj;
     }
 
@@ -6246,7 +6272,7 @@ public class ScriptRuntime {
         private final Scriptable thisObj;
         private final Object name;
 
-        LookupResult(Object result, Scriptable thisObj, Object name) {
+        public LookupResult(Object result, Scriptable thisObj, Object name) {
             this.result = result;
             this.thisObj = thisObj;
             this.name = name;
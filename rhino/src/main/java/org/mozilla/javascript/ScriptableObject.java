@@ -149,6 +149,11 @@ public abstract class ScriptableObject extends SlotMapOwner<Scriptable>
         super(0);
     }
 
+    /** Create an object whose slot map is sized for the given number of properties. */
+    protected ScriptableObject(int capacity) {
+        super(capacity);
+    }
+
     public ScriptableObject(VarScope scope, Scriptable prototype) {
         super(0);
         if (scope == null) throw new IllegalArgumentException();
@@ -2852,7 +2857,7 @@ public abstract class ScriptableObject extends SlotMapOwner<Scriptable>
             if (isSealed) {
                 checkNotSealed(key, index);
             }
-            slot = getMap().modify(this, key, index, 0);
+            return getMap().putValue(this, key, index, this, value, isThrow);
         }
         return slot.setValue(value, this, start, isThrow);
     }
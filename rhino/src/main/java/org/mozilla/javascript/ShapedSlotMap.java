@@ -0,0 +1,304 @@
+/* -*- Mode: java; tab-width: 8; indent-tabs-mode: nil; c-basic-offset: 4 -*-
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/. */
+
+package org.mozilla.javascript;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * This class implements the SlotMap interface by sharing the layout of the map between objects. The
+ * keys of the properties and their positions are held by a {@link SlotShape}, which is shared by
+ * all objects that added the same properties in the same order, so each object only carries an
+ * array of the values of its properties instead of a hash table of slots. The shape also lets
+ * property accesses remember where they found a property, for every object with that shape.
+ *
+ * <p>A property that is only read and written through {@link #getValue} and {@link #putValue} is
+ * an ordinary property without attributes, so all that describes it is its key in the shape. A
+ * property that anything else asks a slot for, or that is added as a slot, is held by a slot from
+ * then on, which is kept next to the values. Slots returned by the iterator for properties that
+ * are not held by one are copies, and changing them does not change the map.
+ *
+ * <p>Objects that do not look like records, because they gain integer-keyed properties or many
+ * properties, or because they lose a property other than the last one added, are moved to an
+ * {@link EmbeddedSlotMap}.
+ *
+ * @see Context#FEATURE_SHAPED_OBJECTS
+ */
+public class ShapedSlotMap<T extends PropHolder<T>> implements SlotMap<T> {
+
+    private static final Object[] NO_VALUES = new Object[0];
+
+    // initial size of the value array of an object that gets its first property
+    private static final int INITIAL_SIZE = 4;
+
+    private SlotShape shape = SlotShape.ROOT;
+    private Object[] values = NO_VALUES;
+    // The slots of the properties that are held by one, or null if there are none
+    private Slot<T>[] slots;
+
+    private static final class Iter<T extends PropHolder<T>> implements Iterator<Slot<T>> {
+        private final ShapedSlotMap<T> map;
+        private final SlotShape shape;
+        private int next;
+
+        Iter(ShapedSlotMap<T> map) {
+            this.map = map;
+            this.shape = map.shape;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < shape.size();
+        }
+
+        @Override
+        public Slot<T> next() {
+            if (next >= shape.size()) {
+                throw new NoSuchElementException();
+            }
+            int pos = next++;
+            Slot<T> slot = map.heldSlot(pos);
+            return slot == null ? map.copySlot(shape, pos) : slot;
+        }
+    }
+
+    @Override
+    public int size() {
+        return shape.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return shape.size() == 0;
+    }
+
+    @Override
+    public Iterator<Slot<T>> iterator() {
+        return new Iter<T>(this);
+    }
+
+    @Override
+    public Object getShape() {
+        return shape;
+    }
+
+    @Override
+    public int getPosition(Object key) {
+        return key == null ? -1 : shape.find(key);
+    }
+
+    @Override
+    public Slot<T> getSlotAt(int position) {
+        return slotAt(position);
+    }
+
+    @Override
+    public Object getValueAt(int position, T start) {
+        Slot<T> slot = heldSlot(position);
+        return slot == null ? values[position] : slot.getValue(start);
+    }
+
+    @Override
+    public boolean putValueAt(int position, T start, Object value, boolean isThrow) {
+        Slot<T> slot = heldSlot(position);
+        if (slot == null) {
+            values[position] = value;
+            return true;
+        }
+        return slot.setValue(value, start, start, isThrow);
+    }
+
+    @Override
+    public boolean has(Object key, int index) {
+        // Integer keys are never shaped
+        return key != null && shape.find(key) >= 0;
+    }
+
+    @Override
+    public Object getValue(Object key, int index, T start) {
+        int pos = key == null ? -1 : shape.find(key);
+        return pos < 0 ? Scriptable.NOT_FOUND : getValueAt(pos, start);
+    }
+
+    @Override
+    public boolean putValue(
+            SlotMapOwner<T> owner, Object key, int index, T start, Object value, boolean isThrow) {
+        if (key != null) {
+            int pos = shape.find(key);
+            if (pos >= 0) {
+                return putValueAt(pos, start, value, isThrow);
+            }
+            if (append(key, value, null)) {
+                return true;
+            }
+        }
+        return promoteMap(owner, -1).putValue(owner, key, index, start, value, isThrow);
+    }
+
+    @Override
+    public Slot<T> query(Object key, int index) {
+        if (key == null) {
+            return null;
+        }
+        int pos = shape.find(key);
+        return pos < 0 ? null : slotAt(pos);
+    }
+
+    @Override
+    public Slot<T> modify(SlotMapOwner<T> owner, Object key, int index, int attributes) {
+        if (key != null) {
+            int pos = shape.find(key);
+            if (pos >= 0) {
+                return slotAt(pos);
+            }
+        }
+        Slot<T> newSlot = new Slot<T>(key, index, attributes);
+        add(owner, newSlot);
+        return newSlot;
+    }
+
+    @Override
+    public <S extends Slot<T>> S compute(
+            SlotMapOwner<T> owner,
+            CompoundOperationMap<T> compoundOp,
+            Object key,
+            int index,
+            SlotComputer<S, T> c) {
+        int pos = key == null ? -1 : shape.find(key);
+        Slot<T> existing = pos < 0 ? null : slotAt(pos);
+        S newSlot = c.compute(key, index, existing, compoundOp, owner);
+        if (compoundOp.touched) {
+            // The map was changed while computing, and might not be this map any more
+            if (existing != null) {
+                return compoundOp.compute(
+                        owner, compoundOp, key, index, (k, i, s, m, o) -> newSlot);
+            }
+            if (newSlot != null) {
+                owner.getMap().add(owner, newSlot);
+            }
+        } else if (existing == null) {
+            if (newSlot != null) {
+                add(owner, newSlot);
+            }
+        } else if (newSlot == null) {
+            removeSlot(owner, pos);
+        } else {
+            slots[pos] = newSlot;
+        }
+        return newSlot;
+    }
+
+    @Override
+    public void add(SlotMapOwner<T> owner, Slot<T> newSlot) {
+        Object key = newSlot.name;
+        if (key != null) {
+            int pos = shape.find(key);
+            if (pos >= 0) {
+                holdSlots()[pos] = newSlot;
+                values[pos] = null;
+                return;
+            }
+            if (append(key, null, newSlot)) {
+                return;
+            }
+        }
+        promoteMap(owner, -1).add(owner, newSlot);
+    }
+
+    /**
+     * Add a property with the given key after the last one, held by "slot" if it is not null or
+     * else with the given value, or return false if the object should not be shaped any more.
+     */
+    private boolean append(Object key, Object value, Slot<T> slot) {
+        SlotShape next = shape.size() < SlotShape.MAX_SIZE ? shape.addKey(key) : null;
+        if (next == null) {
+            return false;
+        }
+        int size = shape.size();
+        if (size == values.length) {
+            // Objects with the same shape are usually built the same way, so make room
+            // for the properties that they got, or grow as usual if this one is new.
+            int expected = next.expectedSize();
+            int newLength = expected > size + 1 ? expected : Math.max(INITIAL_SIZE, size * 2);
+            values = Arrays.copyOf(values, newLength);
+            if (slots != null) {
+                slots = Arrays.copyOf(slots, newLength);
+            }
+        }
+        if (slot == null) {
+            values[size] = value;
+        } else {
+            holdSlots()[size] = slot;
+        }
+        shape = next;
+        return true;
+    }
+
+    private Slot<T> heldSlot(int pos) {
+        return slots == null ? null : slots[pos];
+    }
+
+    @SuppressWarnings("unchecked")
+    private Slot<T>[] holdSlots() {
+        if (slots == null) {
+            slots = new Slot[values.length];
+        }
+        return slots;
+    }
+
+    /** Return the slot of the property at a position, moving its value to a new one if needed. */
+    private Slot<T> slotAt(int pos) {
+        Slot<T> slot = heldSlot(pos);
+        if (slot == null) {
+            slot = copySlot(shape, pos);
+            holdSlots()[pos] = slot;
+            values[pos] = null;
+        }
+        return slot;
+    }
+
+    private Slot<T> copySlot(SlotShape s, int pos) {
+        Slot<T> slot = new Slot<T>(s.keyAt(pos), 0, 0);
+        slot.value = values[pos];
+        return slot;
+    }
+
+    private void removeSlot(SlotMapOwner<T> owner, int pos) {
+        int last = shape.size() - 1;
+        if (pos == last) {
+            values[pos] = null;
+            slots[pos] = null;
+            shape = shape.parent;
+        } else {
+            // Shapes only describe objects whose properties were added in order
+            promoteMap(owner, pos);
+        }
+    }
+
+    /** Move all the properties except for the one at position "skip" to an unshared map. */
+    private SlotMap<T> promoteMap(SlotMapOwner<T> owner, int skip) {
+        if (owner == null) {
+            throw new IllegalStateException();
+        }
+        var newMap = new EmbeddedSlotMap<T>();
+        owner.setMap(newMap);
+        for (int i = 0; i < shape.size(); i++) {
+            if (i != skip) {
+                Slot<T> slot = heldSlot(i);
+                if (slot == null) {
+                    slot = copySlot(shape, i);
+                } else {
+                    slot.next = null;
+                    slot.orderedNext = null;
+                }
+                newMap.add(owner, slot);
+            }
+        }
+        return newMap;
+    }
+}
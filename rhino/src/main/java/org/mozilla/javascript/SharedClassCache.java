@@ -0,0 +1,133 @@
+/* -*- Mode: java; tab-width: 8; indent-tabs-mode: nil; c-basic-offset: 4 -*-
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/. */
+
+// API class
+
+package org.mozilla.javascript;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.mozilla.javascript.config.RhinoConfig;
+import org.mozilla.javascript.lc.type.TypeInfoFactory;
+
+/**
+ * Reflection information about Java classes shared by all scopes in the JVM. Each top-level scope
+ * has a {@link ClassCache} of its own, so without this cache every new scope reflects again each
+ * Java class that its scripts use. With it, a class is reflected once for each security context it
+ * is used from, and later scopes reuse the result.
+ *
+ * <p>The cache is off by default, and is turned on by the {@code rhino.sharedClassCache} property
+ * or by {@link #setEnabled(boolean)}. It is not used by scopes whose {@link ClassCache} has caching
+ * turned off. Shared information is built with {@link TypeInfoFactory#GLOBAL} rather than the type
+ * factory of the scope.
+ *
+ * <p>The information is kept with each class through a {@link ClassValue}, so classes from other
+ * class loaders can still be unloaded. The information refers to classes of Rhino, though, so it
+ * keeps the class loader of Rhino alive for as long as any class it was kept with, which for
+ * classes such as {@code java.lang.String} is as long as the JVM runs. Applications that load
+ * Rhino in a class loader of its own and expect to unload it should leave the cache off.
+ */
+public final class SharedClassCache {
+    private static volatile boolean enabled = RhinoConfig.get("rhino.sharedClassCache", false);
+
+    private static volatile ClassValue<Map<Key, JavaMembers>> classes = newClassValue();
+
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+
+    private SharedClassCache() {}
+
+    /** Return true if the reflection information of Java classes is shared between scopes. */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Set whether the reflection information of Java classes is shared between scopes. Scopes keep
+     * the information they already have.
+     */
+    public static void setEnabled(boolean enabled) {
+        SharedClassCache.enabled = enabled;
+    }
+
+    /** Forget the reflection information of all classes. The statistics are not reset. */
+    public static void clear() {
+        classes = newClassValue();
+    }
+
+    /** Return the number of lookups that found the members of a class. */
+    public static long getHitCount() {
+        return hits.sum();
+    }
+
+    /** Return the number of lookups that had to reflect the members of a class. */
+    public static long getMissCount() {
+        return misses.sum();
+    }
+
+    static JavaMembers get(Class<?> cl, Object securityContext, boolean includeProtected) {
+        Context cx = Context.getCurrentContext();
+        boolean includePrivate = cx != null && cx.hasFeature(Context.FEATURE_ENHANCED_JAVA_ACCESS);
+        Key key = new Key(securityContext, includeProtected, includePrivate);
+        Map<Key, JavaMembers> forClass = classes.get(cl);
+        JavaMembers members = forClass.get(key);
+        if (members != null) {
+            // the members may have been reflected for a context without a class shutter
+            ClassShutter shutter = cx == null ? null : cx.getClassShutter();
+            if (shutter != null && !shutter.visibleToScripts(cl.getName())) {
+                throw Context.reportRuntimeErrorById("msg.access.prohibited", cl.getName());
+            }
+            hits.increment();
+            return members;
+        }
+        misses.increment();
+        members = JavaMembers.createJavaMembers(TypeInfoFactory.GLOBAL, cl, includeProtected);
+        JavaMembers raced = forClass.putIfAbsent(key, members);
+        return raced == null ? members : raced;
+    }
+
+    private static ClassValue<Map<Key, JavaMembers>> newClassValue() {
+        return new ClassValue<>() {
+            @Override
+            protected Map<Key, JavaMembers> computeValue(Class<?> type) {
+                return new ConcurrentHashMap<>(4);
+            }
+        };
+    }
+
+    /** The things besides the class that the members of a class are reflected differently for. */
+    private static final class Key {
+        private final Object securityContext;
+        private final boolean includeProtected;
+        private final boolean includePrivate;
+
+        Key(Object securityContext, boolean includeProtected, boolean includePrivate) {
+            this.securityContext = securityContext;
+            this.includeProtected = includeProtected;
+            this.includePrivate = includePrivate;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return includeProtected == other.includeProtected
+                    && includePrivate == other.includePrivate
+                    && Objects.equals(securityContext, other.securityContext);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(securityContext) * 4
+                    + (includeProtected ? 2 : 0)
+                    + (includePrivate ? 1 : 0);
+        }
+    }
+}
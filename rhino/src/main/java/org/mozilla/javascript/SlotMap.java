@@ -84,6 +84,84 @@ public interface SlotMap<T extends PropHolder<T>> extends Iterable<Slot<T>> {
      */
     void add(SlotMapOwner<T> owner, Slot<T> newSlot);
 
+    /**
+     * Return an object that identifies the current set of slots in this map, or null if the map
+     * cannot provide one. The same object is returned until a slot is added or removed, so a caller
+     * that finds the same shape may reuse a slot, or a position, that it looked up before. Maps
+     * that do not support {@link #getPosition} also return a new shape when a slot is replaced by
+     * another slot. Values and attributes of the slots may change without changing the shape.
+     *
+     * <p>Maps that support {@link #getPosition} may share a shape with other maps that have the
+     * same keys.
+     */
+    default Object getShape() {
+        return null;
+    }
+
+    /**
+     * Return the position of the slot with the given key in every map with the current shape, or
+     * -1 if there is no such slot, or if this map does not keep its slots at fixed positions.
+     */
+    default int getPosition(Object key) {
+        return -1;
+    }
+
+    /**
+     * Return the slot at a position that was returned by {@link #getPosition}, or null if there is
+     * no slot at that position. The default walks the slots in iteration order, so maps that keep
+     * their slots at fixed positions should override it.
+     */
+    default Slot<T> getSlotAt(int position) {
+        int i = 0;
+        for (Slot<T> slot : this) {
+            if (i++ == position) {
+                return slot;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Return whether there is a slot for EITHER "key" or "index". Maps that do not keep every
+     * property in a slot of its own override this, and the methods below, so that the most common
+     * operations on properties do not need to create one.
+     */
+    default boolean has(Object key, int index) {
+        return query(key, index) != null;
+    }
+
+    /**
+     * Return the value of the property at EITHER "key" or "index", as returned by {@link
+     * Slot#getValue}, or {@link Scriptable#NOT_FOUND} if there is no such property.
+     */
+    default Object getValue(Object key, int index, T start) {
+        Slot<T> slot = query(key, index);
+        return slot == null ? Scriptable.NOT_FOUND : slot.getValue(start);
+    }
+
+    /**
+     * Set the value of the property at EITHER "key" or "index" of "start", which must be the owner
+     * of this map, creating an ordinary property if there is none, and return the result of {@link
+     * Slot#setValue}.
+     */
+    default boolean putValue(
+            SlotMapOwner<T> owner, Object key, int index, T start, Object value, boolean isThrow) {
+        return modify(owner, key, index, 0).setValue(value, start, start, isThrow);
+    }
+
+    /** Return the value of the property at a position that was returned by {@link #getPosition}. */
+    default Object getValueAt(int position, T start) {
+        return getSlotAt(position).getValue(start);
+    }
+
+    /**
+     * Set the value of the property at a position that was returned by {@link #getPosition}, in
+     * the same way as {@link #putValue}.
+     */
+    default boolean putValueAt(int position, T start, Object value, boolean isThrow) {
+        return getSlotAt(position).setValue(value, start, start, isThrow);
+    }
+
     default int dirtySize() {
         return size();
     }
@@ -222,6 +222,12 @@ public abstract class SlotMapOwner<T extends PropHolder<T>> implements PropHolde
             return newSlot;
         }
 
+        @Override
+        public Object getShape() {
+            // Adding or removing the slot always replaces this map
+            return this;
+        }
+
         @Override
         public Slot<T> query(Object key, int index) {
             final int indexOrHash = (key != null ? key.hashCode() : index);
@@ -265,6 +271,11 @@ public abstract class SlotMapOwner<T extends PropHolder<T>> implements PropHolde
             super(slot);
         }
 
+        @Override
+        public Object getShape() {
+            return null;
+        }
+
         @Override
         public void add(SlotMapOwner<T> owner, Slot<T> newSlot) {
             if (owner == null) {
@@ -333,8 +344,12 @@ public abstract class SlotMapOwner<T extends PropHolder<T>> implements PropHolde
             } else if (initialSize > LARGE_HASH_SIZE) {
                 return new ThreadSafeHashSlotMap<>(initialSize);
             } else {
-                return new ThreadSafeEmbeddedSlotMap<>();
+                return new ThreadSafeEmbeddedSlotMap<>(embeddedCapacity(initialSize));
             }
+        } else if ((cx != null)
+                && cx.hasFeature(Context.FEATURE_SHAPED_OBJECTS)
+                && initialSize <= SlotShape.MAX_SIZE) {
+            return new ShapedSlotMap<>();
         } else if (initialSize == 0) {
             @SuppressWarnings("unchecked")
             var res = (SlotMap<T>) EMPTY_SLOT_MAP;
@@ -342,10 +357,16 @@ public abstract class SlotMapOwner<T extends PropHolder<T>> implements PropHolde
         } else if (initialSize > LARGE_HASH_SIZE) {
             return new HashSlotMap<>();
         } else {
-            return new EmbeddedSlotMap<>();
+            return new EmbeddedSlotMap<>(embeddedCapacity(initialSize));
         }
     }
 
+    /** Return the capacity an embedded slot map needs to hold this many slots without growing. */
+    private static int embeddedCapacity(int size) {
+        // embedded slot maps grow when they are 3/4 full
+        return (size * 4 + 2) / 3;
+    }
+
     SlotMap<T> getMap() {
         return slotMap;
     }
@@ -354,6 +375,66 @@ public abstract class SlotMapOwner<T extends PropHolder<T>> implements PropHolde
         slotMap = newMap;
     }
 
+    /**
+     * Return an object that identifies the current set of own properties of this object, or null
+     * if it cannot be identified, for example because the object is shared between threads. As
+     * long as the same object is returned, a property found by {@link #getSlotPosition} is still at
+     * the same position, and otherwise every property found by {@link #getDataSlot} is still held
+     * by the same slot, so callers such as the invokedynamic linkers may cache either. Objects
+     * that use a {@link ShapedSlotMap} share their shape with other objects with the same
+     * properties.
+     */
+    public final Object getShape() {
+        return slotMap.getShape();
+    }
+
+    /**
+     * Return the position of the own property with the given name, which is the same in every
+     * object with the same {@link #getShape shape}, or -1 if there is no such property or the
+     * properties of this object have no fixed positions.
+     */
+    public final int getSlotPosition(String name) {
+        return slotMap.getPosition(name);
+    }
+
+    /**
+     * Return the slot at a position returned by {@link #getSlotPosition}. Maps that keep only the
+     * value of an ordinary property create a slot for it, so {@link #getValueAt} is cheaper when
+     * the value is all that is needed.
+     */
+    public final Slot<T> getSlotAt(int position) {
+        return slotMap.getSlotAt(position);
+    }
+
+    /**
+     * Return the value of the property at a position returned by {@link #getSlotPosition}, without
+     * creating a slot for it if the map does not have one.
+     */
+    public final Object getValueAt(int position) {
+        return slotMap.getValueAt(position, getThis());
+    }
+
+    /**
+     * Set the value of the property at a position returned by {@link #getSlotPosition}, as an
+     * assignment to the property of this object does.
+     */
+    public final void putValueAt(int position, Object value, boolean isThrow) {
+        slotMap.putValueAt(position, getThis(), value, isThrow);
+    }
+
+    /**
+     * Return the slot of the own data property with the given name, or null if there is no such
+     * property, or if it is an accessor or lazily loaded property whose value must not be read
+     * directly.
+     */
+    public final Slot<T> getDataSlot(String name) {
+        Slot<T> slot = slotMap.query(name, 0);
+        if (slot == null || slot.getClass() != Slot.class) {
+            return null;
+        }
+        return slot;
+    }
+
     /**
      * Returns an {@link AutoCloseable} map which can be used for compound operations. If the
      * underlying map is thread safe then this will perform any locking required to ensure that no
@@ -396,7 +477,7 @@ public abstract class SlotMapOwner<T extends PropHolder<T>> implements PropHolde
      */
     @Override
     public boolean has(String name, T start) {
-        return null != getMap().query(name, 0);
+        return getMap().has(name, 0);
     }
 
     /**
@@ -408,13 +489,13 @@ public abstract class SlotMapOwner<T extends PropHolder<T>> implements PropHolde
      */
     @Override
     public boolean has(int index, T start) {
-        return null != getMap().query(null, index);
+        return getMap().has(null, index);
     }
 
     /** A version of "has" that supports symbols. */
     @Override
     public boolean has(Symbol key, T start) {
-        return null != getMap().query(key, 0);
+        return getMap().has(key, 0);
     }
 
     /**
@@ -428,11 +509,7 @@ public abstract class SlotMapOwner<T extends PropHolder<T>> implements PropHolde
      */
     @Override
     public Object get(String name, T start) {
-        var slot = getMap().query(name, 0);
-        if (slot == null) {
-            return Scriptable.NOT_FOUND;
-        }
-        return slot.getValue(start);
+        return getMap().getValue(name, 0, start);
     }
 
     /**
@@ -444,64 +521,49 @@ public abstract class SlotMapOwner<T extends PropHolder<T>> implements PropHolde
      */
     @Override
     public Object get(int index, T start) {
-        var slot = getMap().query(null, index);
-        if (slot == null) {
-            return Scriptable.NOT_FOUND;
-        }
-        return slot.getValue(start);
+        return getMap().getValue(null, index, start);
     }
 
     /** Another version of Get that supports Symbol keyed properties. */
     @Override
     public Object get(Symbol key, T start) {
-        var slot = getMap().query(key, 0);
-        if (slot == null) {
-            return Scriptable.NOT_FOUND;
-        }
-        return slot.getValue(start);
+        return getMap().getValue(key, 0, start);
     }
 
     @Override
     public void put(String name, T start, Object value) {
-        Slot<T> slot;
         if (this != start) {
-            slot = getMap().query(name, 0);
-            if (slot == null) {
-                return;
+            var slot = getMap().query(name, 0);
+            if (slot != null) {
+                slot.setValue(value, getThis(), start, false);
             }
         } else {
-
-            slot = getMap().modify(this, name, 0, 0);
+            getMap().putValue(this, name, 0, start, value, false);
         }
-        slot.setValue(value, getThis(), start, false);
     }
 
     @Override
     public void put(int index, T start, Object value) {
-        Slot<T> slot;
         if (this != start) {
-            slot = getMap().query(null, index);
-            if (slot == null) {
-                return;
+            var slot = getMap().query(null, index);
+            if (slot != null) {
+                slot.setValue(value, getThis(), start, false);
             }
         } else {
-            slot = getMap().modify(this, null, index, 0);
+            getMap().putValue(this, null, index, start, value, false);
         }
-        slot.setValue(value, getThis(), start, false);
     }
 
     @Override
     public void put(Symbol name, T start, Object value) {
-        Slot<T> slot;
         if (this != start) {
-            slot = getMap().query(name, 0);
-            if (slot == null) {
-                return;
+            var slot = getMap().query(name, 0);
+            if (slot != null) {
+                slot.setValue(value, getThis(), start, false);
             }
         } else {
-            slot = getMap().modify(this, name, 0, 0);
+            getMap().putValue(this, name, 0, start, value, false);
         }
-        slot.setValue(value, getThis(), start, false);
     }
 
     @Override
@@ -0,0 +1,127 @@
+/* -*- Mode: java; tab-width: 8; indent-tabs-mode: nil; c-basic-offset: 4 -*-
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/. */
+
+package org.mozilla.javascript;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * A SlotShape is the layout of the properties of the objects that use a {@link ShapedSlotMap}: the
+ * keys of their properties, in the order in which they were added. Objects that added the same keys
+ * in the same order share the same shape, so that the shapes form a tree whose root is the shape of
+ * an object without properties. Adding a property moves an object from a shape to one of its
+ * children, which is called a transition.
+ *
+ * <p>Shapes are shared between threads, so they are immutable except for their transitions, which
+ * are only modified while holding the lock of the shape. Transitions are weakly referenced, so that
+ * shapes that are no longer used by any object can be collected.
+ */
+final class SlotShape {
+    /** Objects with more properties than this are likely dictionaries, and are not shaped. */
+    static final int MAX_SIZE = 64;
+
+    /**
+     * A shape with this many transitions is likely the shape of an object that is used as a
+     * dictionary, so no more are added to it.
+     */
+    private static final int MAX_TRANSITIONS = 32;
+
+    /** Shapes up to this size are searched linearly rather than with a hash table. */
+    private static final int LINEAR_SEARCH_SIZE = 8;
+
+    static final SlotShape ROOT = new SlotShape(null, new Object[0]);
+
+    final SlotShape parent;
+    private final Object[] keys;
+    private volatile HashMap<Object, Integer> positions;
+
+    private HashMap<Object, WeakReference<SlotShape>> transitions;
+    // The last transition taken, which is the next one in most cases
+    private volatile SlotShape lastTransition;
+
+    private SlotShape(SlotShape parent, Object[] keys) {
+        this.parent = parent;
+        this.keys = keys;
+    }
+
+    int size() {
+        return keys.length;
+    }
+
+    /** Return the key of the property at the given position. */
+    Object keyAt(int position) {
+        return keys[position];
+    }
+
+    /** Return the position of the property with the given key, or -1 if there is none. */
+    int find(Object key) {
+        Object[] k = keys;
+        if (k.length <= LINEAR_SEARCH_SIZE) {
+            for (int i = 0; i < k.length; i++) {
+                if (key.equals(k[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        HashMap<Object, Integer> p = positions;
+        if (p == null) {
+            p = new HashMap<>(k.length * 2);
+            for (int i = 0; i < k.length; i++) {
+                p.put(k[i], i);
+            }
+            positions = p;
+        }
+        Integer pos = p.get(key);
+        return pos == null ? -1 : pos;
+    }
+
+    /**
+     * Return the number of properties that objects with this shape are likely to end up with,
+     * judging by the properties that were added last to objects with this shape.
+     */
+    int expectedSize() {
+        SlotShape s = this;
+        for (SlotShape next = s.lastTransition; next != null; next = next.lastTransition) {
+            s = next;
+        }
+        return s.size();
+    }
+
+    /**
+     * Return the shape of an object with this shape once it adds a property with the given key, or
+     * null if this shape has too many transitions already.
+     */
+    SlotShape addKey(Object key) {
+        SlotShape last = lastTransition;
+        if (last != null && key.equals(last.keys[keys.length])) {
+            return last;
+        }
+        synchronized (this) {
+            if (transitions == null) {
+                transitions = new HashMap<>();
+            }
+            WeakReference<SlotShape> ref = transitions.get(key);
+            SlotShape next = ref == null ? null : ref.get();
+            if (next == null) {
+                if (transitions.size() >= MAX_TRANSITIONS) {
+                    transitions.values().removeIf(r -> r.get() == null);
+                    if (transitions.size() >= MAX_TRANSITIONS) {
+                        return null;
+                    }
+                }
+                Object[] newKeys = Arrays.copyOf(keys, keys.length + 1);
+                newKeys[keys.length] = key;
+                next = new SlotShape(this, newKeys);
+                transitions.put(key, new WeakReference<>(next));
+            }
+            lastTransition = next;
+            return next;
+        }
+    }
+}
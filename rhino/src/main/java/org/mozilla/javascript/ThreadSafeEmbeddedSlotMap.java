@@ -33,6 +33,12 @@ class ThreadSafeEmbeddedSlotMap<T extends PropHolder<T>> extends EmbeddedSlotMap
         }
     }
 
+    @Override
+    public Object getShape() {
+        // Slots may be replaced by other threads at any time
+        return null;
+    }
+
     @Override
     public int dirtySize() {
         assert lock.isReadLocked() || lock.isWriteLocked();
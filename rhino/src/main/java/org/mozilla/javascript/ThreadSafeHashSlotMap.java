@@ -37,6 +37,12 @@ class ThreadSafeHashSlotMap<T extends PropHolder<T>> extends HashSlotMap<T>
         addWithLock(null, newSlot);
     }
 
+    @Override
+    public Object getShape() {
+        // Slots may be replaced by other threads at any time
+        return null;
+    }
+
     @Override
     public int size() {
         long stamp = lock.tryOptimisticRead();
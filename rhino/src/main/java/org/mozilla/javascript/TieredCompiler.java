@@ -0,0 +1,152 @@
+/* -*- Mode: java; tab-width: 8; indent-tabs-mode: nil; c-basic-offset: 4 -*-
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/. */
+
+package org.mozilla.javascript;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import org.mozilla.javascript.ast.FunctionNode;
+
+/**
+ * Recompiles interpreted code to JVM bytecode in the background: hot functions, and scripts whose
+ * compilation was deferred. The source is compiled on its own, and the resulting code is installed
+ * in the {@link InterpreterData}, which hands all later executions to it.
+ *
+ * <p>The compiled code runs with the interpreted function or script object, so it uses the
+ * activation and scope chain that the interpreted descriptor describes. The compiled code is only
+ * installed if its descriptor agrees on everything the two have to share.
+ *
+ * @see ContextFactory#setTieredCompilationThreshold(int)
+ * @see ContextFactory#setCompilationExecutor(Executor)
+ */
+final class TieredCompiler {
+
+    private TieredCompiler() {}
+
+    /**
+     * Compiles code one at a time on a daemon thread, so that callers never wait, if the factory
+     * has no executor of its own.
+     */
+    private static final class DefaultExecutor {
+        static final ExecutorService INSTANCE =
+                Executors.newSingleThreadExecutor(
+                        r -> {
+                            Thread t = new Thread(r, "Rhino tiered compiler");
+                            t.setDaemon(true);
+                            return t;
+                        });
+    }
+
+    /** Schedule the compilation of a function that reached the tiered compilation threshold. */
+    static void schedule(Context cx, JSFunction f, InterpreterData<?> data) {
+        JSDescriptor<JSFunction> desc = f.getDescriptor();
+        if (cx.debugger != null || desc.getSecurityDomain() != null) {
+            return;
+        }
+
+        // Settings are taken from the calling context, as it may differ from a fresh one
+        CompilerEnvirons compilerEnv = new CompilerEnvirons();
+        compilerEnv.initFromContext(cx);
+        compilerEnv.setErrorReporter(DefaultErrorReporter.instance);
+        compilerEnv.setInterpretedMode(false);
+        compilerEnv.setTieredCompilationThreshold(0);
+        compilerEnv.setLanguageVersion(desc.getLanguageVersion());
+        compilerEnv.setStrictMode(desc.isStrict());
+        compilerEnv.setActivationNames(null);
+
+        submit(
+                cx.getFactory(),
+                desc,
+                data,
+                c ->
+                        c.compileFunctionToBytecode(
+                                compilerEnv,
+                                desc.getRawSource(),
+                                desc.getSourceName(),
+                                data.baseLineno,
+                                desc.getFunctionType() == FunctionNode.FUNCTION_EXPRESSION));
+    }
+
+    /**
+     * Schedule the compilation of a script that was compiled for the interpreter while its
+     * bytecode is generated in the background.
+     *
+     * @see ContextFactory#setCompilationExecutor(Executor)
+     */
+    static void scheduleScript(
+            Context cx,
+            CompilerEnvirons compilerEnv,
+            JSScript script,
+            String source,
+            String sourceName,
+            int lineno) {
+        // Warnings were reported when the script was compiled for the interpreter
+        compilerEnv.setErrorReporter(DefaultErrorReporter.instance);
+        JSDescriptor<JSScript> desc = script.getDescriptor();
+        submit(
+                cx.getFactory(),
+                desc,
+                (InterpreterData<?>) desc.getCode(),
+                c -> c.compileScriptToBytecode(compilerEnv, source, sourceName, lineno));
+    }
+
+    private static <T extends ScriptOrFn<T>> void submit(
+            ContextFactory factory,
+            JSDescriptor<T> desc,
+            InterpreterData<?> data,
+            ContextAction<JSDescriptor<T>> compiler) {
+        Executor executor = factory.getCompilationExecutor();
+        if (executor == null) {
+            executor = DefaultExecutor.INSTANCE;
+        }
+        try {
+            executor.execute(() -> install(factory, desc, data, compiler));
+        } catch (RejectedExecutionException e) {
+            // The code stays interpreted
+        }
+    }
+
+    private static <T extends ScriptOrFn<T>> void install(
+            ContextFactory factory,
+            JSDescriptor<T> desc,
+            InterpreterData<?> data,
+            ContextAction<JSDescriptor<T>> compiler) {
+        JSDescriptor<T> compiled;
+        try {
+            compiled = factory.call(compiler);
+        } catch (RuntimeException e) {
+            // For example, the code does not fit into a class file. It stays interpreted.
+            return;
+        }
+        if (compiled != null && isCompatible(desc, compiled)) {
+            data.setTieredCode(compiled.getCode());
+        }
+    }
+
+    private static <T extends ScriptOrFn<T>> boolean isCompatible(
+            JSDescriptor<T> interpreted, JSDescriptor<T> compiled) {
+        if (interpreted.getParamCount() != compiled.getParamCount()
+                || interpreted.getParamAndVarCount() != compiled.getParamAndVarCount()
+                || interpreted.isStrict() != compiled.isStrict()
+                || interpreted.hasRestArg() != compiled.hasRestArg()
+                || interpreted.hasDefaultParameters() != compiled.hasDefaultParameters()
+                || interpreted.requiresActivationFrame() != compiled.requiresActivationFrame()
+                || interpreted.requiresArgumentObject() != compiled.requiresArgumentObject()
+                || (interpreted.getConstructor() == interpreted.getCode())
+                        != (compiled.getConstructor() == compiled.getCode())) {
+            return false;
+        }
+        for (int i = 0; i != interpreted.getParamAndVarCount(); i++) {
+            if (!interpreted.getParamOrVarName(i).equals(compiled.getParamOrVarName(i))
+                    || interpreted.getParamOrVarConst(i) != compiled.getParamOrVarConst(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
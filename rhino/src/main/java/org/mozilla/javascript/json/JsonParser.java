@@ -6,17 +6,28 @@
 
 package org.mozilla.javascript.json;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import org.mozilla.javascript.Context;
+import org.mozilla.javascript.NativeObject;
 import org.mozilla.javascript.ScriptRuntime;
 import org.mozilla.javascript.ScriptRuntime.StringIdOrIndex;
-import org.mozilla.javascript.Scriptable;
+import org.mozilla.javascript.TopLevel;
 import org.mozilla.javascript.VarScope;
 
 /**
  * This class converts a stream of JSON tokens into a JSON value.
  *
+ * <p>The text is read in chunks into a buffer that only grows to hold the longest token, so that a
+ * JSON text can be parsed from a {@link Reader} without reading all of it into memory first.
+ *
  * <p>See ECMA 15.12.
  *
  * @author Raphael Speyer
@@ -24,12 +35,44 @@ import org.mozilla.javascript.VarScope;
  */
 public class JsonParser {
 
+    /** Receives the elements of an array that is parsed by {@link #parseElements}. */
+    public interface ElementVisitor {
+        void visit(int index, Object value);
+    }
+
+    private static final int BUFFER_SIZE = 8192;
+
+    // the number of keys that are remembered, which must be a power of two
+    private static final int KEY_CACHE_SIZE = 512;
+    // longer keys are not remembered
+    private static final int MAX_CACHED_KEY_LENGTH = 64;
+
     private Context cx;
     private VarScope scope;
 
+    private char[] buf;
     private int pos;
     private int length;
+    // the position in the JSON text of the first char in the buffer
+    private long offset;
+    // the start of the token that is being read, which must stay in the buffer when it is filled
+    private int mark;
+
     private String src;
+    private int srcPos;
+    private Reader reader;
+
+    /*
+     * The keys that were read last, so that objects with the same keys, such as the records in an
+     * array, share their key strings instead of creating and hashing new ones. The id of a key is
+     * the key itself, or an Integer if it is an index.
+     */
+    private String[] keyCache;
+    private Object[] keyIds;
+
+    // the number of keys of the object that was read last, and of the next one, if known
+    private int lastObjectSize;
+    private int objectSizeHint;
 
     public JsonParser(Context cx, VarScope scope) {
         this.cx = cx;
@@ -40,21 +83,140 @@ public class JsonParser {
         if (json == null) {
             throw new ParseException("Input string may not be null");
         }
-        pos = 0;
-        length = json.length();
+        start(json, null, Math.min(json.length(), BUFFER_SIZE));
+        try {
+            return readTopLevelValue();
+        } finally {
+            end();
+        }
+    }
+
+    /**
+     * Parse the JSON text read from the reader. Only the value that is built and the token that is
+     * being read are held in memory, not the whole text.
+     */
+    public synchronized Object parse(Reader json) throws IOException, ParseException {
+        start(null, json, BUFFER_SIZE);
+        try {
+            return readTopLevelValue();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            end();
+        }
+    }
+
+    /** Parse the UTF-8 encoded JSON text read from the stream. */
+    public Object parse(InputStream json) throws IOException, ParseException {
+        return parse(new InputStreamReader(json, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parse a JSON text that is an array, handing each of its elements to the visitor as soon as it
+     * is read instead of building the array, so that arrays that do not fit into memory can be
+     * worked through one element at a time.
+     */
+    public synchronized void parseElements(Reader json, ElementVisitor visitor)
+            throws IOException, ParseException {
+        start(null, json, BUFFER_SIZE);
+        try {
+            consumeWhitespace();
+            consume('[');
+            readElements(null, visitor);
+            consumeWhitespace();
+            if (pos < length || fill()) {
+                throw new ParseException("Expected end of stream at char " + (offset + pos));
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            end();
+        }
+    }
+
+    private void start(String json, Reader in, int bufferSize) {
         src = json;
+        srcPos = 0;
+        reader = in;
+        buf = new char[Math.max(bufferSize, 16)];
+        pos = 0;
+        length = 0;
+        offset = 0;
+        mark = -1;
+        lastObjectSize = 0;
+        objectSizeHint = 0;
+    }
+
+    private void end() {
+        src = null;
+        reader = null;
+        buf = null;
+        keyCache = null;
+        keyIds = null;
+    }
+
+    /**
+     * Read more of the JSON text into the buffer, moving the chars that are still needed to its
+     * start. Return false if the end of the text was reached.
+     */
+    private boolean fill() {
+        int keep = mark >= 0 ? mark : pos;
+        if (keep > 0) {
+            System.arraycopy(buf, keep, buf, 0, length - keep);
+            offset += keep;
+            length -= keep;
+            pos -= keep;
+            if (mark >= 0) {
+                mark = 0;
+            }
+        }
+        if (length == buf.length) {
+            buf = Arrays.copyOf(buf, buf.length * 2);
+        }
+        int count;
+        if (src != null) {
+            count = Math.min(buf.length - length, src.length() - srcPos);
+            src.getChars(srcPos, srcPos + count, buf, length);
+            srcPos += count;
+        } else {
+            try {
+                do {
+                    count = reader.read(buf, length, buf.length - length);
+                } while (count == 0);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        if (count <= 0) {
+            return false;
+        }
+        length += count;
+        return true;
+    }
+
+    /** Make sure that the buffer holds at least n chars after the current one, if there are. */
+    private boolean ensure(int n) {
+        while (length - pos < n) {
+            if (!fill()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Object readTopLevelValue() throws ParseException {
         Object value = readValue();
         consumeWhitespace();
-        if (pos < length) {
-            throw new ParseException("Expected end of stream at char " + pos);
+        if (pos < length || fill()) {
+            throw new ParseException("Expected end of stream at char " + (offset + pos));
         }
         return value;
     }
 
     private Object readValue() throws ParseException {
         consumeWhitespace();
-        while (pos < length) {
-            char c = src.charAt(pos++);
+        while (pos < length || fill()) {
+            char c = buf[pos++];
             switch (c) {
                 case '{':
                     return readObject();
@@ -89,22 +251,28 @@ public class JsonParser {
 
     private Object readObject() throws ParseException {
         consumeWhitespace();
-        Scriptable object = cx.newObject(scope);
+        // objects in an array usually have as many keys as the one before them
+        NativeObject object = new NativeObject(objectSizeHint);
+        objectSizeHint = 0;
+        ScriptRuntime.setBuiltinProtoAndParent(object, scope, TopLevel.Builtins.Object);
+        lastObjectSize = 0;
         // handle empty object literal case early
-        if (pos < length && src.charAt(pos) == '}') {
+        if ((pos < length || fill()) && buf[pos] == '}') {
             pos += 1;
             return object;
         }
-        String id;
+        Object id;
         Object value;
+        int size = 0;
         boolean needsComma = false;
-        while (pos < length) {
-            char c = src.charAt(pos++);
+        while (pos < length || fill()) {
+            char c = buf[pos++];
             switch (c) {
                 case '}':
                     if (!needsComma) {
                         throw new ParseException("Unexpected comma in object literal");
                     }
+                    lastObjectSize = size;
                     return object;
                 case ',':
                     if (!needsComma) {
@@ -116,16 +284,16 @@ public class JsonParser {
                     if (needsComma) {
                         throw new ParseException("Missing comma in object literal");
                     }
-                    id = readString();
+                    id = readKey();
                     consume(':');
                     value = readValue();
 
-                    StringIdOrIndex indexObj = ScriptRuntime.toStringIdOrIndex(id);
-                    if (indexObj.getStringId() == null) {
-                        object.put(indexObj.getIndex(), object, value);
+                    if (id instanceof String) {
+                        object.put((String) id, object, value);
                     } else {
-                        object.put(indexObj.getStringId(), object, value);
+                        object.put(((Integer) id).intValue(), object, value);
                     }
+                    size += 1;
                     needsComma = true;
                     break;
                 default:
@@ -139,21 +307,33 @@ public class JsonParser {
     private Object readArray() throws ParseException {
         consumeWhitespace();
         // handle empty array literal case early
-        if (pos < length && src.charAt(pos) == ']') {
+        if ((pos < length || fill()) && buf[pos] == ']') {
             pos += 1;
             return cx.newArray(scope, 0);
         }
         List<Object> list = new ArrayList<>();
+        readElements(list, null);
+        return cx.newArray(scope, list.toArray());
+    }
+
+    /**
+     * Read the elements of an array up to its closing bracket, and add them to the list or hand
+     * them to the visitor.
+     */
+    private void readElements(List<Object> list, ElementVisitor visitor) throws ParseException {
+        consumeWhitespace();
+        int index = 0;
+        int objectSize = 0;
         boolean needsComma = false;
-        while (pos < length) {
-            char c = src.charAt(pos);
+        while (pos < length || fill()) {
+            char c = buf[pos];
             switch (c) {
                 case ']':
-                    if (!needsComma) {
+                    if (!needsComma && index > 0) {
                         throw new ParseException("Unexpected comma in array literal");
                     }
                     pos += 1;
-                    return cx.newArray(scope, list.toArray());
+                    return;
                 case ',':
                     if (!needsComma) {
                         throw new ParseException("Unexpected comma in array literal");
@@ -165,7 +345,19 @@ public class JsonParser {
                     if (needsComma) {
                         throw new ParseException("Missing comma in array literal");
                     }
-                    list.add(readValue());
+                    if (c == '{') {
+                        objectSizeHint = objectSize;
+                    }
+                    Object value = readValue();
+                    if (c == '{') {
+                        objectSize = lastObjectSize;
+                    }
+                    if (visitor == null) {
+                        list.add(value);
+                    } else {
+                        visitor.visit(index, value);
+                    }
+                    index += 1;
                     needsComma = true;
             }
             consumeWhitespace();
@@ -178,16 +370,11 @@ public class JsonParser {
          * Optimization: if the source contains no escaped characters, create the
          * string directly from the source text.
          */
-        int stringStart = pos;
-        while (pos < length) {
-            char c = src.charAt(pos++);
-            if (c <= '\u001F') {
-                throw new ParseException("String contains control character");
-            } else if (c == '\\') {
-                break;
-            } else if (c == '"') {
-                return src.substring(stringStart, pos - 1);
-            }
+        mark = pos;
+        if (scanString() == '"') {
+            String s = new String(buf, mark, pos - 1 - mark);
+            mark = -1;
+            return s;
         }
 
         /*
@@ -196,13 +383,14 @@ public class JsonParser {
          * character, and repeat until the entire string is consumed.
          */
         StringBuilder b = new StringBuilder();
-        while (pos < length) {
-            assert src.charAt(pos - 1) == '\\';
-            b.append(src, stringStart, pos - 1);
-            if (pos >= length) {
+        do {
+            assert buf[pos - 1] == '\\';
+            b.append(buf, mark, pos - 1 - mark);
+            mark = -1;
+            if (pos >= length && !fill()) {
                 throw new ParseException("Unterminated string");
             }
-            char c = src.charAt(pos++);
+            char c = buf[pos++];
             switch (c) {
                 case '"':
                     b.append('"');
@@ -229,18 +417,19 @@ public class JsonParser {
                     b.append('\t');
                     break;
                 case 'u':
-                    if (length - pos < 5) {
+                    if (!ensure(5)) {
                         throw new ParseException(
-                                "Invalid character code: \\u" + src.substring(pos));
+                                "Invalid character code: \\u"
+                                        + new String(buf, pos, length - pos));
                     }
                     int code =
-                            fromHex(src.charAt(pos + 0)) << 12
-                                    | fromHex(src.charAt(pos + 1)) << 8
-                                    | fromHex(src.charAt(pos + 2)) << 4
-                                    | fromHex(src.charAt(pos + 3));
+                            fromHex(buf[pos + 0]) << 12
+                                    | fromHex(buf[pos + 1]) << 8
+                                    | fromHex(buf[pos + 2]) << 4
+                                    | fromHex(buf[pos + 3]);
                     if (code < 0) {
                         throw new ParseException(
-                                "Invalid character code: " + src.substring(pos, pos + 4));
+                                "Invalid character code: " + new String(buf, pos, 4));
                     }
                     pos += 4;
                     b.append((char) code);
@@ -248,17 +437,82 @@ public class JsonParser {
                 default:
                     throw new ParseException("Unexpected character in string: '\\" + c + "'");
             }
-            stringStart = pos;
-            while (pos < length) {
-                c = src.charAt(pos++);
-                if (c <= '\u001F') {
-                    throw new ParseException("String contains control character");
-                } else if (c == '\\') {
-                    break;
-                } else if (c == '"') {
-                    b.append(src, stringStart, pos - 1);
-                    return b.toString();
-                }
+            mark = pos;
+        } while (scanString() == '\\');
+        b.append(buf, mark, pos - 1 - mark);
+        mark = -1;
+        return b.toString();
+    }
+
+    /**
+     * Read the key of a property, and return its id, which is the key or an Integer if the key is
+     * an index.
+     */
+    private Object readKey() throws ParseException {
+        mark = pos;
+        int hash = 0;
+        while (pos < length || fill()) {
+            char c = buf[pos++];
+            if (c == '"') {
+                int start = mark;
+                mark = -1;
+                return keyId(start, pos - 1 - start, hash);
+            } else if (c == '\\') {
+                // read keys with escapes as any other string
+                pos = mark;
+                mark = -1;
+                return toId(readString());
+            } else if (c <= '\u001F') {
+                throw new ParseException("String contains control character");
+            }
+            hash = 31 * hash + c;
+        }
+        throw new ParseException("Unterminated string literal");
+    }
+
+    /** Return the id of the key in the buffer, reusing the one that was read last for it. */
+    private Object keyId(int start, int len, int hash) {
+        if (len > MAX_CACHED_KEY_LENGTH) {
+            return toId(new String(buf, start, len));
+        }
+        if (keyCache == null) {
+            keyCache = new String[KEY_CACHE_SIZE];
+            keyIds = new Object[KEY_CACHE_SIZE];
+        }
+        int slot = (hash ^ (hash >>> 16)) & (KEY_CACHE_SIZE - 1);
+        String cached = keyCache[slot];
+        if (cached != null && cached.length() == len) {
+            int i = 0;
+            while (i < len && cached.charAt(i) == buf[start + i]) {
+                i++;
+            }
+            if (i == len) {
+                return keyIds[slot];
+            }
+        }
+        String key = new String(buf, start, len);
+        Object id = toId(key);
+        keyCache[slot] = key;
+        keyIds[slot] = id;
+        return id;
+    }
+
+    private static Object toId(String key) {
+        StringIdOrIndex indexObj = ScriptRuntime.toStringIdOrIndex(key);
+        if (indexObj.getStringId() == null) {
+            return Integer.valueOf(indexObj.getIndex());
+        }
+        return indexObj.getStringId();
+    }
+
+    /** Skip the chars of a string up to the next quote or backslash, and return it. */
+    private char scanString() throws ParseException {
+        while (pos < length || fill()) {
+            char c = buf[pos++];
+            if (c <= '\u001F') {
+                throw new ParseException("String contains control character");
+            } else if (c == '\\' || c == '"') {
+                return c;
             }
         }
         throw new ParseException("Unterminated string literal");
@@ -272,44 +526,45 @@ public class JsonParser {
 
     private Number readNumber(char c) throws ParseException {
         assert c == '-' || (c >= '0' && c <= '9');
-        final int numberStart = pos - 1;
+        mark = pos - 1;
         if (c == '-') {
-            c = nextOrNumberError(numberStart);
+            c = nextOrNumberError();
             if (!(c >= '0' && c <= '9')) {
-                throw numberError(numberStart, pos);
+                throw numberError(pos);
             }
         }
         if (c != '0') {
             readDigits();
         }
         // read optional fraction part
-        if (pos < length) {
-            c = src.charAt(pos);
+        if (pos < length || fill()) {
+            c = buf[pos];
             if (c == '.') {
                 pos += 1;
-                c = nextOrNumberError(numberStart);
+                c = nextOrNumberError();
                 if (!(c >= '0' && c <= '9')) {
-                    throw numberError(numberStart, pos);
+                    throw numberError(pos);
                 }
                 readDigits();
             }
         }
         // read optional exponent part
-        if (pos < length) {
-            c = src.charAt(pos);
+        if (pos < length || fill()) {
+            c = buf[pos];
             if (c == 'e' || c == 'E') {
                 pos += 1;
-                c = nextOrNumberError(numberStart);
+                c = nextOrNumberError();
                 if (c == '-' || c == '+') {
-                    c = nextOrNumberError(numberStart);
+                    c = nextOrNumberError();
                 }
                 if (!(c >= '0' && c <= '9')) {
-                    throw numberError(numberStart, pos);
+                    throw numberError(pos);
                 }
                 readDigits();
             }
         }
-        String num = src.substring(numberStart, pos);
+        String num = new String(buf, mark, pos - mark);
+        mark = -1;
         final double dval = Double.parseDouble(num);
         if (Double.compare(dval, -0.0) == 0) {
             return Double.valueOf(dval);
@@ -321,20 +576,21 @@ public class JsonParser {
         return Double.valueOf(dval);
     }
 
-    private ParseException numberError(int start, int end) {
-        return new ParseException("Unsupported number format: " + src.substring(start, end));
+    private ParseException numberError(int end) {
+        return new ParseException(
+                "Unsupported number format: " + new String(buf, mark, end - mark));
     }
 
-    private char nextOrNumberError(int numberStart) throws ParseException {
-        if (pos >= length) {
-            throw numberError(numberStart, length);
+    private char nextOrNumberError() throws ParseException {
+        if (pos >= length && !fill()) {
+            throw numberError(length);
         }
-        return src.charAt(pos++);
+        return buf[pos++];
     }
 
     private void readDigits() {
-        for (; pos < length; ++pos) {
-            char c = src.charAt(pos);
+        for (; pos < length || fill(); ++pos) {
+            char c = buf[pos];
             if (!(c >= '0' && c <= '9')) {
                 break;
             }
@@ -342,10 +598,7 @@ public class JsonParser {
     }
 
     private Boolean readTrue() throws ParseException {
-        if (length - pos < 3
-                || src.charAt(pos) != 'r'
-                || src.charAt(pos + 1) != 'u'
-                || src.charAt(pos + 2) != 'e') {
+        if (!ensure(3) || buf[pos] != 'r' || buf[pos + 1] != 'u' || buf[pos + 2] != 'e') {
             throw new ParseException("Unexpected token: t");
         }
         pos += 3;
@@ -353,11 +606,11 @@ public class JsonParser {
     }
 
     private Boolean readFalse() throws ParseException {
-        if (length - pos < 4
-                || src.charAt(pos) != 'a'
-                || src.charAt(pos + 1) != 'l'
-                || src.charAt(pos + 2) != 's'
-                || src.charAt(pos + 3) != 'e') {
+        if (!ensure(4)
+                || buf[pos] != 'a'
+                || buf[pos + 1] != 'l'
+                || buf[pos + 2] != 's'
+                || buf[pos + 3] != 'e') {
             throw new ParseException("Unexpected token: f");
         }
         pos += 4;
@@ -365,10 +618,7 @@ public class JsonParser {
     }
 
     private Object readNull() throws ParseException {
-        if (length - pos < 3
-                || src.charAt(pos) != 'u'
-                || src.charAt(pos + 1) != 'l'
-                || src.charAt(pos + 2) != 'l') {
+        if (!ensure(3) || buf[pos] != 'u' || buf[pos + 1] != 'l' || buf[pos + 2] != 'l') {
             throw new ParseException("Unexpected token: n");
         }
         pos += 3;
@@ -376,8 +626,8 @@ public class JsonParser {
     }
 
     private void consumeWhitespace() {
-        while (pos < length) {
-            char c = src.charAt(pos);
+        while (pos < length || fill()) {
+            char c = buf[pos];
             switch (c) {
                 case ' ':
                 case '\t':
@@ -393,10 +643,10 @@ public class JsonParser {
 
     private void consume(char token) throws ParseException {
         consumeWhitespace();
-        if (pos >= length) {
+        if (pos >= length && !fill()) {
             throw new ParseException("Expected " + token + " but reached end of stream");
         }
-        char c = src.charAt(pos++);
+        char c = buf[pos++];
         if (c == token) {
             return;
         }
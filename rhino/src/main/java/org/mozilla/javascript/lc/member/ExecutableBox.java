@@ -1,5 +1,8 @@
 package org.mozilla.javascript.lc.member;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Array;
 import java.lang.reflect.Constructor;
@@ -35,6 +38,16 @@ public final class ExecutableBox {
     private final TypeInfo returnType;
     private final boolean varArgs;
 
+    /**
+     * Calls the member with the target and an array of the arguments, built on the first call. The
+     * target is ignored by static methods and constructors. Handles are immutable, so threads that
+     * race to build one just build the same handle twice.
+     */
+    private MethodHandle invoker;
+
+    /** True when the member could not be unreflected, so it is called through reflection. */
+    private boolean reflectiveOnly;
+
     public ExecutableBox(Method method, TypeInfoFactory factory, Class<?> parent) {
         this.member = method;
         this.varArgs = method.isVarArgs();
@@ -158,6 +171,18 @@ public final class ExecutableBox {
             }
         }
 
+        MethodHandle mh = getInvoker();
+        if (mh != null) {
+            try {
+                return (Object) mh.invokeExact(target, args);
+            } catch (ContinuationPending e) {
+                // Must allow ContinuationPending exceptions to propagate unhindered
+                throw e;
+            } catch (Throwable e) {
+                throw Context.throwAsScriptRuntimeEx(e);
+            }
+        }
+
         try {
             try {
                 return method.invoke(target, args);
@@ -185,6 +210,15 @@ public final class ExecutableBox {
     }
 
     public Object newInstance(Object[] args) {
+        MethodHandle mh = getInvoker();
+        if (mh != null) {
+            try {
+                return (Object) mh.invokeExact((Object) null, args);
+            } catch (Throwable e) {
+                throw Context.throwAsScriptRuntimeEx(e);
+            }
+        }
+
         Constructor<?> ctor = asConstructor();
         try {
             try {
@@ -272,6 +306,55 @@ public final class ExecutableBox {
         return wrappedArgs;
     }
 
+    private MethodHandle getInvoker() {
+        MethodHandle mh = invoker;
+        if (mh == null && !reflectiveOnly) {
+            mh = unreflect();
+            if (mh == null) {
+                reflectiveOnly = true;
+            } else {
+                invoker = mh;
+            }
+        }
+        return mh;
+    }
+
+    /**
+     * Unreflect the member to a handle of type (Object, Object[])Object, or return null if it is
+     * not accessible, in which case calls go through reflection so that they fail, or make the
+     * member accessible, in the same way as before.
+     */
+    @SuppressWarnings("AndroidJdkLibsChecker")
+    private MethodHandle unreflect() {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle mh;
+        int arity;
+        // wrapArgsInternal already collects varargs into an array, so the handles have fixed arity
+        try {
+            if (isMethod()) {
+                Method method = asMethod();
+                arity = method.getParameterCount();
+                mh = lookup.unreflect(method).asFixedArity();
+                if (isStatic()) {
+                    mh = MethodHandles.dropArguments(mh, 0, Object.class);
+                }
+            } else {
+                Constructor<?> ctor = asConstructor();
+                if (Modifier.isAbstract(ctor.getDeclaringClass().getModifiers())) {
+                    // let reflection report the InstantiationException
+                    return null;
+                }
+                arity = ctor.getParameterCount();
+                mh = lookup.unreflectConstructor(ctor).asFixedArity();
+                mh = MethodHandles.dropArguments(mh, 0, Object.class);
+            }
+        } catch (IllegalAccessException | SecurityException e) {
+            return null;
+        }
+        return mh.asType(MethodType.genericMethodType(arity + 1))
+                .asSpreader(Object[].class, arity);
+    }
+
     @SuppressWarnings("deprecation")
     private static boolean tryToMakeAccessible(AccessibleObject accessible) {
         if (!accessible.isAccessible()) {
@@ -6,17 +6,23 @@ package org.mozilla.javascript.lc.member;
 public class ExecutableOverload {
     public final String name;
     public final ExecutableBox[] methods;
+    public final OverloadCache overloadCache;
 
     public ExecutableOverload(String name, ExecutableBox[] methods) {
+        this(name, methods, new OverloadCache(methods.length));
+    }
+
+    private ExecutableOverload(String name, ExecutableBox[] methods, OverloadCache overloadCache) {
         this.name = name;
         this.methods = methods;
+        this.overloadCache = overloadCache;
     }
 
     public static final class WithField extends ExecutableOverload {
         public final NativeJavaField field;
 
         public WithField(ExecutableOverload old, NativeJavaField field) {
-            super(old.name, old.methods);
+            super(old.name, old.methods, old.overloadCache);
             this.field = field;
         }
     }
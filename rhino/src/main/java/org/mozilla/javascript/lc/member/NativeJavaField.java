@@ -1,5 +1,8 @@
 package org.mozilla.javascript.lc.member;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import org.mozilla.javascript.lc.type.TypeInfo;
@@ -9,10 +12,20 @@ import org.mozilla.javascript.lc.type.TypeInfoFactory;
  * @author ZZZank
  */
 public final class NativeJavaField {
+    private static final MethodType GETTER_TYPE = MethodType.genericMethodType(1);
+    private static final MethodType SETTER_TYPE =
+            MethodType.methodType(void.class, Object.class, Object.class);
+
     private final Field field;
     private final boolean isFinal;
     private final TypeInfo type;
 
+    // Built on first access, with the object ignored for static fields. Null when the field
+    // cannot be unreflected, so that reflection reports the same errors as before.
+    private MethodHandle getter;
+    private MethodHandle setter;
+    private boolean reflectiveOnly;
+
     public NativeJavaField(Field field, TypeInfoFactory typeFactory) {
         this.field = field;
         this.isFinal = Modifier.isFinal(field.getModifiers());
@@ -28,7 +41,24 @@ public final class NativeJavaField {
     }
 
     public Object get(Object javaObject) throws IllegalAccessException {
-        return field.get(javaObject);
+        MethodHandle mh = getter;
+        if (mh == null && !reflectiveOnly) {
+            unreflect();
+            mh = getter;
+        }
+        if (mh == null) {
+            return field.get(javaObject);
+        }
+        try {
+            return (Object) mh.invokeExact(javaObject);
+        } catch (ClassCastException e) {
+            // the object is not an instance of the class of the field
+            throw new IllegalArgumentException(e.getMessage(), e);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     /** Note: will do nothing when called on a final field */
@@ -37,6 +67,51 @@ public final class NativeJavaField {
             // treat Java final the same as JavaScript [[READONLY]]
             return;
         }
-        field.set(javaObject, value);
+        MethodHandle mh = setter;
+        if (mh == null && !reflectiveOnly) {
+            unreflect();
+            mh = setter;
+        }
+        if (mh == null) {
+            field.set(javaObject, value);
+            return;
+        }
+        try {
+            mh.invokeExact(javaObject, value);
+        } catch (ClassCastException e) {
+            // Field.set reports values and objects of the wrong class this way
+            throw new IllegalArgumentException(e.getMessage(), e);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @SuppressWarnings("AndroidJdkLibsChecker")
+    private void unreflect() {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle get;
+        MethodHandle set = null;
+        try {
+            get = lookup.unreflectGetter(field);
+            if (!isFinal) {
+                set = lookup.unreflectSetter(field);
+            }
+        } catch (IllegalAccessException | SecurityException e) {
+            reflectiveOnly = true;
+            return;
+        }
+        if (Modifier.isStatic(field.getModifiers())) {
+            get = MethodHandles.dropArguments(get, 0, Object.class);
+            if (set != null) {
+                set = MethodHandles.dropArguments(set, 0, Object.class);
+            }
+        }
+        // handles are immutable, so racing threads at worst unreflect the field twice
+        getter = get.asType(GETTER_TYPE);
+        if (set != null) {
+            setter = set.asType(SETTER_TYPE);
+        }
     }
 }
@@ -0,0 +1,141 @@
+package org.mozilla.javascript.lc.member;
+
+import org.mozilla.javascript.Wrapper;
+
+/**
+ * Remembers which of a set of overloaded methods or constructors was chosen for arguments of some
+ * classes, since the choice only depends on the classes of the arguments and, for wrapped Java
+ * objects, the classes of the objects they wrap. Looking up arguments allocates nothing and takes
+ * no lock, so the cache can be shared by all functions that call the same overloads.
+ *
+ * <p>The number of cached choices is bounded, since a call site may see arguments of many classes.
+ *
+ * @see ExecutableOverload
+ */
+public final class OverloadCache {
+    /** The result of {@link #get} when the arguments have not been seen before. */
+    public static final int NOT_CACHED = -2;
+
+    private static final int MIN_ENTRIES = 16;
+
+    private final int maxEntries;
+    private volatile Entry[] table = new Entry[4];
+    private int count;
+
+    /** Create a cache for choosing between the given number of overloads. */
+    public OverloadCache(int overloads) {
+        maxEntries = Math.max(MIN_ENTRIES, overloads * 2);
+    }
+
+    /** Return the index of the overload chosen for the arguments, or {@link #NOT_CACHED}. */
+    public int get(Object[] args) {
+        int hash = hash(args);
+        Entry[] t = table;
+        int mask = t.length - 1;
+        for (int i = hash & mask; ; i = (i + 1) & mask) {
+            Entry e = t[i];
+            if (e == null) {
+                return NOT_CACHED;
+            }
+            if (e.hash == hash && e.matches(args)) {
+                return e.index;
+            }
+        }
+    }
+
+    /** Remember the index of the overload chosen for the arguments, which may be -1 for none. */
+    public synchronized void put(Object[] args, int index) {
+        if (count >= maxEntries || get(args) != NOT_CACHED) {
+            return;
+        }
+        Entry[] t = table;
+        if ((count + 1) * 2 > t.length) {
+            Entry[] grown = new Entry[t.length * 2];
+            for (Entry e : t) {
+                if (e != null) {
+                    insert(grown, e);
+                }
+            }
+            t = grown;
+        }
+        // Entries are immutable, so readers see either the whole entry or none
+        insert(t, new Entry(args, hash(args), index));
+        count++;
+        table = t;
+    }
+
+    private static void insert(Entry[] t, Entry e) {
+        int mask = t.length - 1;
+        int i = e.hash & mask;
+        while (t[i] != null) {
+            i = (i + 1) & mask;
+        }
+        t[i] = e;
+    }
+
+    private static int hash(Object[] args) {
+        int hash = args.length;
+        for (Object arg : args) {
+            hash = hash * 31 + (arg == null ? 0 : arg.getClass().hashCode());
+            if (arg instanceof Wrapper) {
+                hash = hash * 31 + unwrappedClass((Wrapper) arg).hashCode();
+            }
+        }
+        // spread the bits of the identity hash codes over the low bits used for the index
+        return hash ^ (hash >>> 16);
+    }
+
+    private static Class<?> unwrappedClass(Wrapper arg) {
+        Object unwrapped = arg.unwrap();
+        return unwrapped == null ? Void.class : unwrapped.getClass();
+    }
+
+    private static final class Entry {
+        final int hash;
+        final int index;
+        final Class<?>[] types;
+        // for wrappers, the class of what they wrap, and null for other arguments
+        final Class<?>[] unwrappedTypes;
+
+        Entry(Object[] args, int hash, int index) {
+            this.hash = hash;
+            this.index = index;
+            types = new Class<?>[args.length];
+            Class<?>[] unwrapped = null;
+            for (int i = 0; i < args.length; i++) {
+                Object arg = args[i];
+                if (arg != null) {
+                    types[i] = arg.getClass();
+                    if (arg instanceof Wrapper) {
+                        if (unwrapped == null) {
+                            unwrapped = new Class<?>[args.length];
+                        }
+                        unwrapped[i] = unwrappedClass((Wrapper) arg);
+                    }
+                }
+            }
+            unwrappedTypes = unwrapped;
+        }
+
+        boolean matches(Object[] args) {
+            if (args.length != types.length) {
+                return false;
+            }
+            for (int i = 0; i < args.length; i++) {
+                Object arg = args[i];
+                if (arg == null) {
+                    if (types[i] != null) {
+                        return false;
+                    }
+                } else if (arg.getClass() != types[i]) {
+                    return false;
+                } else if (unwrappedTypes != null
+                        && unwrappedTypes[i] != null
+                        && unwrappedClass((Wrapper) arg) != unwrappedTypes[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
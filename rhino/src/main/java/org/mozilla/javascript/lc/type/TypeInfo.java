@@ -328,4 +328,23 @@ public interface TypeInfo {
     default TypeInfo consolidate(Map<VariableTypeInfo, TypeInfo> mapping) {
         return this;
     }
+
+    /**
+     * How JavaScript values of each kind are converted to this type, worked out on the first
+     * conversion by {@link org.mozilla.javascript.Context#jsToJava(Object, TypeInfo)} so that later
+     * ones only look it up. Not intended for public use.
+     *
+     * @return the table set by {@link #setConversions(byte[])}, or null if there is none yet or
+     *     this TypeInfo does not keep one
+     */
+    default byte[] getConversions() {
+        return null;
+    }
+
+    /**
+     * Keep the table of conversions to this type. Not intended for public use.
+     *
+     * @see #getConversions()
+     */
+    default void setConversions(byte[] conversions) {}
 }
@@ -11,6 +11,8 @@ import org.mozilla.javascript.lc.type.TypeInfo;
 public enum NoTypeInfo implements TypeInfo {
     INSTANCE;
 
+    private volatile byte[] conversions;
+
     @Override
     public Class<?> asClass() {
         return Object.class;
@@ -41,4 +43,14 @@ public enum NoTypeInfo implements TypeInfo {
     public boolean isInstance(Object o) {
         return o != null;
     }
+
+    @Override
+    public byte[] getConversions() {
+        return conversions;
+    }
+
+    @Override
+    public void setConversions(byte[] conversions) {
+        this.conversions = conversions;
+    }
 }
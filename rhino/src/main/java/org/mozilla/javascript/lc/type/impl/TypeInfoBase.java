@@ -6,6 +6,7 @@ import org.mozilla.javascript.lc.type.TypeInfo;
 
 public abstract class TypeInfoBase implements TypeInfo {
     private volatile Object emptyArray;
+    private volatile byte[] conversions;
 
     @Override
     public Object newArray(int length) {
@@ -24,6 +25,16 @@ public abstract class TypeInfoBase implements TypeInfo {
         return Array.newInstance(asClass(), length);
     }
 
+    @Override
+    public byte[] getConversions() {
+        return conversions;
+    }
+
+    @Override
+    public void setConversions(byte[] conversions) {
+        this.conversions = conversions;
+    }
+
     @Override
     public final String toString() {
         return toString(TypeFormatContext.DEFAULT);
@@ -108,6 +108,102 @@ class Block {
                 fn.setIsNumberVar(i);
             }
         }
+
+        boolean[] int32Vars = findInt32Vars(fn, statementNodes);
+        for (int i = paramCount; i != varCount; i++) {
+            if (int32Vars[i]) {
+                fn.setIsInt32Var(i);
+            }
+        }
+    }
+
+    /*
+        A Number variable only ever holds 32 bit integers if every value
+        assigned to it is one. Start by assuming that of all of them and
+        drop the variables that are assigned anything else, including the
+        variables assigned from those, until nothing changes.
+    */
+    private static boolean[] findInt32Vars(OptFunctionNode fn, Node[] statementNodes) {
+        int varCount = fn.getVarCount();
+        boolean[] int32Vars = new boolean[varCount];
+        boolean any = false;
+        for (int i = fn.fnode.getParamCount(); i != varCount; i++) {
+            int32Vars[i] = fn.isNumberVar(i);
+            any |= int32Vars[i];
+        }
+        boolean changed = any;
+        while (changed) {
+            changed = false;
+            for (Node n : statementNodes) {
+                if (n != null) {
+                    changed |= dropNonInt32Vars(fn, n, int32Vars);
+                }
+            }
+        }
+        return int32Vars;
+    }
+
+    private static boolean dropNonInt32Vars(OptFunctionNode fn, Node n, boolean[] int32Vars) {
+        boolean result = false;
+        Node first = n.getFirstChild();
+        for (Node next = first; next != null; next = next.getNext()) {
+            result |= dropNonInt32Vars(fn, next, int32Vars);
+        }
+        int i = -1;
+        switch (n.getType()) {
+            case Token.DEC:
+            case Token.INC:
+                // These can overflow
+                if (first.getType() == Token.GETVAR) {
+                    i = fn.getVarIndex(first);
+                }
+                break;
+            case Token.SETVAR:
+            case Token.SETCONSTVAR:
+                if (!isInt32Expression(fn, first.getNext(), int32Vars)) {
+                    i = fn.getVarIndex(n);
+                }
+                break;
+        }
+        if (i >= 0 && int32Vars[i]) {
+            int32Vars[i] = false;
+            result = true;
+        }
+        return result;
+    }
+
+    private static boolean isInt32Expression(OptFunctionNode fn, Node n, boolean[] int32Vars) {
+        switch (n.getType()) {
+            case Token.NUMBER:
+                {
+                    double d = n.getDouble();
+                    return d == (int) d && (d != 0.0 || 1 / d > 0);
+                }
+
+            case Token.BITOR:
+            case Token.BITXOR:
+            case Token.BITAND:
+            case Token.BITNOT:
+            case Token.LSH:
+            case Token.RSH:
+                return true;
+
+            case Token.GETVAR:
+                return int32Vars[fn.getVarIndex(n)];
+
+            case Token.HOOK:
+                {
+                    Node ifTrue = n.getFirstChild().getNext();
+                    return isInt32Expression(fn, ifTrue, int32Vars)
+                            && isInt32Expression(fn, ifTrue.getNext(), int32Vars);
+                }
+
+            case Token.COMMA:
+            case Token.SETVAR:
+            case Token.SETCONSTVAR:
+                return isInt32Expression(fn, n.getLastChild(), int32Vars);
+        }
+        return false;
     }
 
     private static Block[] buildBlocks(Node[] statementNodes) {
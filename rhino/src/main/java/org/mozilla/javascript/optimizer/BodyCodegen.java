@@ -4108,20 +4108,91 @@ class BodyCodegen {
 
     private void visitBitNot(Node node, Node child) {
         int childNumberFlag = node.getIntProp(Node.ISNUMBER_PROP, -1);
-        generateExpression(child, node);
         if (childNumberFlag == -1) {
+            generateExpression(child, node);
             addObjectToNumeric();
             addScriptRuntimeInvoke("bitwiseNOT", "(Ljava/lang/Number;)Ljava/lang/Number;");
         } else {
-            addScriptRuntimeInvoke("toInt32", "(D)I");
+            generateInt32Expression(child, node);
             cfw.addPush(-1); // implement ~a as (a ^ -1)
             cfw.add(ByteCode.IXOR);
             cfw.add(ByteCode.I2D);
         }
     }
 
+    /**
+     * Generate code for a Number expression that leaves its value converted to a 32 bit integer on
+     * the stack. Expressions that the optimizer found to always deliver such integers, which are
+     * integer literals, signed bitwise operations and variables that are only assigned those, do
+     * so without calling ScriptRuntime.toInt32.
+     */
+    private void generateInt32Expression(Node node, Node parent) {
+        if (node.getIntProp(Node.ISINT32_PROP, 0) == 0) {
+            generateExpression(node, parent);
+            addScriptRuntimeInvoke("toInt32", "(D)I");
+            return;
+        }
+        Node child = node.getFirstChild();
+        int type = node.getType();
+        switch (type) {
+            case Token.NUMBER:
+                cfw.addPush((int) node.getDouble());
+                break;
+            case Token.GETVAR:
+                // The double in the variable is an integer already
+                generateExpression(node, parent);
+                cfw.add(ByteCode.D2I);
+                break;
+            case Token.BITNOT:
+                generateInt32Expression(child, node);
+                cfw.addPush(-1); // implement ~a as (a ^ -1)
+                cfw.add(ByteCode.IXOR);
+                break;
+            case Token.BITOR:
+            case Token.BITXOR:
+            case Token.BITAND:
+            case Token.RSH:
+            case Token.LSH:
+                generateInt32Expression(child, node);
+                generateInt32Expression(child.getNext(), node);
+                addInt32BitOp(type);
+                break;
+            default:
+                throw Kit.codeBug(Token.typeToName(type));
+        }
+    }
+
+    private void addInt32BitOp(int type) {
+        switch (type) {
+            case Token.BITOR:
+                cfw.add(ByteCode.IOR);
+                break;
+            case Token.BITXOR:
+                cfw.add(ByteCode.IXOR);
+                break;
+            case Token.BITAND:
+                cfw.add(ByteCode.IAND);
+                break;
+            case Token.RSH:
+                cfw.add(ByteCode.ISHR);
+                break;
+            case Token.LSH:
+                cfw.add(ByteCode.ISHL);
+                break;
+            default:
+                throw Kit.codeBug(Token.typeToName(type));
+        }
+    }
+
     private void visitBitOp(Node node, int type, Node child) {
         int childNumberFlag = node.getIntProp(Node.ISNUMBER_PROP, -1);
+        if (childNumberFlag != -1 && type != Token.URSH) {
+            generateInt32Expression(child, node);
+            generateInt32Expression(child.getNext(), node);
+            addInt32BitOp(type);
+            cfw.add(ByteCode.I2D);
+            return;
+        }
         generateExpression(child, node);
 
         // special-case URSH; work with the target arg as a long, so
@@ -4179,31 +4250,6 @@ class BodyCodegen {
                 default:
                     throw Kit.codeBug(Token.typeToName(type));
             }
-        } else {
-            addScriptRuntimeInvoke("toInt32", "(D)I");
-            generateExpression(child.getNext(), node);
-            addScriptRuntimeInvoke("toInt32", "(D)I");
-
-            switch (type) {
-                case Token.BITOR:
-                    cfw.add(ByteCode.IOR);
-                    break;
-                case Token.BITXOR:
-                    cfw.add(ByteCode.IXOR);
-                    break;
-                case Token.BITAND:
-                    cfw.add(ByteCode.IAND);
-                    break;
-                case Token.RSH:
-                    cfw.add(ByteCode.ISHR);
-                    break;
-                case Token.LSH:
-                    cfw.add(ByteCode.ISHL);
-                    break;
-                default:
-                    throw Kit.codeBug(Token.typeToName(type));
-            }
-            cfw.add(ByteCode.I2D);
         }
     }
 
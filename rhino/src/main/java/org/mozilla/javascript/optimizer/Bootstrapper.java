@@ -64,7 +64,10 @@ public class Bootstrapper {
                                 new StringLinker(),
                                 new ConsStringLinker(),
                                 new NativeArrayLinker(),
-                                new BaseFunctionLinker()));
+                                new TypedArrayLinker(),
+                                new BaseFunctionLinker(),
+                                new JavaObjectLinker(),
+                                new PropertyCacheLinker()));
         // Add the default linker, which can link anything no matter what.
         factory.setPrioritizedLinkers(typeLinker, new DefaultLinker());
         linker = factory.createLinker();
@@ -80,7 +83,8 @@ public class Bootstrapper {
         // ChainedCallSite lets a call site have a few options for complex situations.
         // It caches up to eight invocations, so that we can quickly select the best
         // implementation in situations where the same call site is invoked in different
-        // contexts.
+        // contexts. This is also what makes the property cache polymorphic: each object
+        // shape seen by a property access gets its own guarded invocation.
         return linker.link(new ChainedCallSite(new CallSiteDescriptor(lookup, op, mType)));
     }
 
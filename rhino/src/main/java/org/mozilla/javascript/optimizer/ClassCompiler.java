@@ -306,14 +306,15 @@ public class ClassCompiler {
         cfw.add(builder.hasLexicalThis ? ByteCode.ICONST_1 : ByteCode.ICONST_0);
         cfw.add(builder.isEvalFunction ? ByteCode.ICONST_1 : ByteCode.ICONST_0);
         cfw.add(builder.hasRestArg ? ByteCode.ICONST_1 : ByteCode.ICONST_0);
-        cfw.addLoadConstant(builder.sourceFile);
-        cfw.addLoadConstant(builder.rawSource);
+        // Sources of large scripts do not fit in a single constant pool entry
+        cfw.addPush(builder.sourceFile);
+        cfw.addPush(builder.rawSource);
         cfw.addLoadConstant(builder.rawSourceStart);
         cfw.addLoadConstant(builder.rawSourceEnd);
         if (builder.name == null) {
             cfw.add(ByteCode.ACONST_NULL);
         } else {
-            cfw.addLoadConstant(builder.name);
+            cfw.addPush(builder.name);
         }
         cfw.addLoadConstant(builder.languageVersion);
         cfw.addLoadConstant(builder.paramAndVarCount);
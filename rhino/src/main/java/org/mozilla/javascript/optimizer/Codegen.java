@@ -160,6 +160,12 @@ public class Codegen implements Evaluator {
         return JSFunction.createFunction(cx, scope, desc, null, staticSecurityDomain);
     }
 
+    @Override
+    public JSDescriptor<JSFunction> createFunctionDescriptor(
+            CompilationResult<JSFunction> compiled, Object staticSecurityDomain) {
+        return defineClass((CodegenCompilationResult<JSFunction>) compiled, staticSecurityDomain);
+    }
+
     private <T extends ScriptOrFn<T>> JSDescriptor<T> defineClass(
             CodegenCompilationResult<T> compiled, Object staticSecurityDomain) {
         // The generated classes in this case refer only to Rhino classes
@@ -0,0 +1,341 @@
+/* -*- Mode: java; tab-width: 8; indent-tabs-mode: nil; c-basic-offset: 4 -*-
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/. */
+
+package org.mozilla.javascript.optimizer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import org.mozilla.classfile.ClassFileWriter.ClassSizeException;
+import org.mozilla.javascript.CompilerEnvirons;
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.ErrorReporter;
+import org.mozilla.javascript.EvaluatorException;
+import org.mozilla.javascript.GeneratedClassLoader;
+import org.mozilla.javascript.ImplementationVersion;
+import org.mozilla.javascript.JSDescriptor;
+import org.mozilla.javascript.JSFunction;
+import org.mozilla.javascript.JSScript;
+import org.mozilla.javascript.Script;
+import org.mozilla.javascript.ScriptClassCache;
+import org.mozilla.javascript.SecurityController;
+
+/**
+ * A {@link ScriptClassCache} that keeps the class files generated for each script in a directory,
+ * so that they survive JVM restarts. Entries are keyed by a SHA-256 digest of the script source,
+ * its name and starting line, the compiler settings that influence code generation, and the Rhino
+ * version, so a change to any of them simply results in a new entry.
+ *
+ * <p>The classes are generated by {@link ClassCompiler}, which makes them self-contained: loading an
+ * entry defines the classes and runs their static initializers, and does not parse the source.
+ *
+ * <p>The directory must only be writable by trusted users, since its contents are loaded into the
+ * JVM as code. Stale entries are never removed by this class.
+ */
+public class FileScriptClassCache implements ScriptClassCache {
+
+    private static final int MAGIC = 0x524a5343; // "RJSC"
+    private static final int FORMAT_VERSION = 1;
+    private static final String FILE_SUFFIX = ".jsc";
+
+    private final Path directory;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Create a cache that stores its entries in the given directory. The directory is created if
+     * it does not exist yet.
+     *
+     * @param directory the directory that holds the cache entries
+     * @throws IOException if the directory can not be created
+     */
+    public FileScriptClassCache(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    /** Return the directory in which entries are stored. */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /** Return the number of scripts that were loaded from an existing entry. */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /** Return the number of scripts that had to be compiled from source. */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    @Override
+    public Script compileScript(
+            Context cx,
+            CompilerEnvirons compilerEnv,
+            String source,
+            String sourceName,
+            int lineno) {
+        String key = computeKey(compilerEnv, source, sourceName, lineno);
+        Path file = directory.resolve(key + FILE_SUFFIX);
+
+        Object[] classes = read(file);
+        if (classes != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            WarningDetector detector = new WarningDetector(compilerEnv.getErrorReporter());
+            compilerEnv.setErrorReporter(detector);
+            ClassCompiler compiler = new ClassCompiler(compilerEnv);
+            try {
+                classes =
+                        compiler.compileToClassFiles(
+                                source, sourceName, lineno, mainClassName(key));
+            } catch (ClassSizeException e) {
+                // Let the regular compilation path decide how to handle this
+                return null;
+            } finally {
+                compilerEnv.setErrorReporter(detector.reporter);
+            }
+            // A hit does not parse the source, so scripts with warnings are compiled every time
+            // to report them again.
+            if (!detector.warned) {
+                write(file, classes);
+            }
+        }
+        return load(cx, classes);
+    }
+
+    /**
+     * Define the classes produced by {@link ClassCompiler#compileToClassFiles} in a fresh class
+     * loader and create the script object from the descriptors they contain.
+     */
+    @SuppressWarnings("unchecked")
+    private Script load(Context cx, Object[] classes) {
+        ClassLoader rhinoLoader = getClass().getClassLoader();
+        GeneratedClassLoader loader = SecurityController.createLoader(rhinoLoader, null);
+        Exception e;
+        try {
+            Class<?> scriptClass = null;
+            Class<?> descriptorClass = null;
+            String descriptorClassName = classes[0] + "Main";
+            for (int i = 0; i < classes.length; i += 2) {
+                String name = (String) classes[i];
+                Class<?> cl = loader.defineClass(name, (byte[]) classes[i + 1]);
+                if (i == 0) {
+                    scriptClass = cl;
+                } else if (name.equals(descriptorClassName)) {
+                    descriptorClass = cl;
+                }
+            }
+            if (scriptClass == null || descriptorClass == null) {
+                throw new IllegalStateException("Incomplete class cache entry");
+            }
+            loader.linkClass(scriptClass);
+            // Running the static initializer of the descriptor class populates the
+            // descriptors of the script class.
+            Class.forName(descriptorClass.getName(), true, (ClassLoader) loader);
+            JSDescriptor<?>[] descs =
+                    (JSDescriptor<?>[])
+                            scriptClass.getField(Codegen.DESCRIPTORS_FIELD_NAME).get(null);
+            try {
+                scriptClass
+                        .getMethod(Codegen.REGEXP_INIT_METHOD_NAME, Context.class)
+                        .invoke(null, cx);
+            } catch (NoSuchMethodException x) {
+                // No regular expression literals
+            }
+            try {
+                scriptClass.getMethod(Codegen.TEMPLATE_LITERAL_INIT_METHOD_NAME).invoke(null);
+            } catch (NoSuchMethodException x) {
+                // No template literals
+            }
+            return JSFunction.createScript((JSDescriptor<JSScript>) descs[0], null, null);
+        } catch (InvocationTargetException x) {
+            var cause = x.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            e = x;
+        } catch (SecurityException
+                | IllegalArgumentException
+                | IllegalAccessException
+                | ClassNotFoundException
+                | NoSuchFieldException x) {
+            e = x;
+        }
+        throw new RuntimeException(e);
+    }
+
+    /** Read an entry, returning null if it is missing or unusable. */
+    private static Object[] read(Path file) {
+        try (InputStream in = Files.newInputStream(file);
+                DataInputStream din = new DataInputStream(new BufferedInputStream(in))) {
+            if (din.readInt() != MAGIC || din.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+            int count = din.readInt();
+            if (count <= 0) {
+                return null;
+            }
+            Object[] classes = new Object[count * 2];
+            for (int i = 0; i < classes.length; i += 2) {
+                classes[i] = din.readUTF();
+                byte[] bytes = new byte[din.readInt()];
+                din.readFully(bytes);
+                classes[i + 1] = bytes;
+            }
+            return classes;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            // A truncated or otherwise broken entry is replaced once the script is compiled again
+            return null;
+        }
+    }
+
+    /**
+     * Write an entry. The data goes to a temporary file first, which is then moved into place, so
+     * concurrent readers never see a partially written entry. Failures are ignored, since the
+     * cache is only an optimization.
+     */
+    private void write(Path file, Object[] classes) {
+        Path tmp = null;
+        try {
+            tmp = Files.createTempFile(directory, "tmp", FILE_SUFFIX);
+            try (OutputStream out = Files.newOutputStream(tmp);
+                    DataOutputStream dout = new DataOutputStream(new BufferedOutputStream(out))) {
+                dout.writeInt(MAGIC);
+                dout.writeInt(FORMAT_VERSION);
+                dout.writeInt(classes.length / 2);
+                for (int i = 0; i < classes.length; i += 2) {
+                    byte[] bytes = (byte[]) classes[i + 1];
+                    dout.writeUTF((String) classes[i]);
+                    dout.writeInt(bytes.length);
+                    dout.write(bytes);
+                }
+            }
+            Files.move(
+                    tmp,
+                    file,
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            tmp = null;
+        } catch (IOException e) {
+            // Nothing we can do, the script will be compiled again next time
+        } finally {
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException e) {
+                    // Ignore
+                }
+            }
+        }
+    }
+
+    private static String mainClassName(String key) {
+        return "org.mozilla.javascript.gen.c_" + key.substring(0, 16);
+    }
+
+    /**
+     * Compute the key for a script. Everything that can change the generated classes or the
+     * diagnostics of the compilation has to be part of it.
+     */
+    static String computeKey(
+            CompilerEnvirons compilerEnv, String source, String sourceName, int lineno) {
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        StringBuilder settings = new StringBuilder();
+        settings.append(FORMAT_VERSION).append('\n');
+        settings.append(ImplementationVersion.get()).append('\n');
+        settings.append(compilerEnv.getLanguageVersion()).append('\n');
+        settings.append(compilerEnv.isStrictMode()).append(',');
+        settings.append(compilerEnv.isGenerateDebugInfo()).append(',');
+        settings.append(compilerEnv.isGeneratingSource()).append(',');
+        settings.append(compilerEnv.isGenerateObserverCount()).append(',');
+        settings.append(compilerEnv.isReservedKeywordAsIdentifier()).append(',');
+        settings.append(compilerEnv.isAllowMemberExprAsFunctionName()).append(',');
+        settings.append(compilerEnv.isXmlAvailable()).append(',');
+        settings.append(compilerEnv.getAllowSharpComments()).append(',');
+        settings.append(compilerEnv.isAllowSuper()).append(',');
+        settings.append(compilerEnv.isInEval()).append(',');
+        settings.append(compilerEnv.reportWarningAsError()).append(',');
+        settings.append(compilerEnv.getWarnTrailingComma()).append(',');
+        settings.append(compilerEnv.recoverFromErrors()).append(',');
+        settings.append(compilerEnv.isIdeMode()).append(',');
+        settings.append(compilerEnv.isRecordingComments()).append(',');
+        settings.append(compilerEnv.isRecordingLocalJsDocComments()).append(',');
+        settings.append(compilerEnv.getOptimizationLevel()).append(',');
+        settings.append(compilerEnv.getTieredCompilationThreshold()).append('\n');
+        Set<String> activationNames = compilerEnv.getActivationNames();
+        if (activationNames != null) {
+            settings.append(new TreeSet<>(activationNames)).append('\n');
+        }
+        // the length keeps names that contain newlines from running into the line number
+        settings.append(sourceName.length()).append(':').append(sourceName).append('\n');
+        settings.append(lineno).append('\n');
+
+        md.update(settings.toString().getBytes(StandardCharsets.UTF_8));
+        md.update(source.getBytes(StandardCharsets.UTF_8));
+
+        byte[] digest = md.digest();
+        StringBuilder hex = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            hex.append(Character.forDigit((b >> 4) & 0xf, 16));
+            hex.append(Character.forDigit(b & 0xf, 16));
+        }
+        return hex.toString();
+    }
+
+    /** Passes diagnostics on to another reporter, noting whether there were warnings. */
+    private static final class WarningDetector implements ErrorReporter {
+        final ErrorReporter reporter;
+        boolean warned;
+
+        WarningDetector(ErrorReporter reporter) {
+            this.reporter = reporter;
+        }
+
+        @Override
+        public void warning(
+                String message, String sourceName, int line, String lineSource, int lineOffset) {
+            warned = true;
+            reporter.warning(message, sourceName, line, lineSource, lineOffset);
+        }
+
+        @Override
+        public void error(
+                String message, String sourceName, int line, String lineSource, int lineOffset) {
+            reporter.error(message, sourceName, line, lineSource, lineOffset);
+        }
+
+        @Override
+        public EvaluatorException runtimeError(
+                String message, String sourceName, int line, String lineSource, int lineOffset) {
+            return reporter.runtimeError(message, sourceName, line, lineSource, lineOffset);
+        }
+    }
+}
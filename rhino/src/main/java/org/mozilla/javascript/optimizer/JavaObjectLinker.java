@@ -0,0 +1,95 @@
+package org.mozilla.javascript.optimizer;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import jdk.dynalink.StandardNamespace;
+import jdk.dynalink.linker.GuardedInvocation;
+import jdk.dynalink.linker.LinkRequest;
+import jdk.dynalink.linker.LinkerServices;
+import jdk.dynalink.linker.TypeBasedGuardingDynamicLinker;
+import jdk.dynalink.linker.support.Guards;
+import org.mozilla.javascript.Callable;
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.NativeJavaObject;
+import org.mozilla.javascript.Scriptable;
+import org.mozilla.javascript.ScriptRuntime;
+import org.mozilla.javascript.VarScope;
+
+/**
+ * This linker binds calls of the methods of Java objects, such as "sb.append(x)", to the function
+ * for the overloads of the method, guarded by a check that the receiver has the members of the
+ * same class. This saves looking up the member and creating a function for it on every call, and
+ * since the function keeps the overloads that were chosen for the classes of the arguments, most
+ * calls go straight to the Java method.
+ *
+ * <p>Only plain Java objects are linked, since the wrappers of lists, maps and arrays have
+ * properties of their own.
+ */
+@SuppressWarnings("AndroidJdkLibsChecker")
+class JavaObjectLinker implements TypeBasedGuardingDynamicLinker {
+    @Override
+    public boolean canLinkType(Class<?> type) {
+        return type == NativeJavaObject.class;
+    }
+
+    @Override
+    public GuardedInvocation getGuardedInvocation(LinkRequest req, LinkerServices svc)
+            throws Exception {
+        if (req.isCallSiteUnstable()) {
+            return null;
+        }
+
+        ParsedOperation op = new ParsedOperation(req.getCallSiteDescriptor().getOperation());
+        if (!op.isNamespace(StandardNamespace.PROPERTY)
+                || !op.isOperation(RhinoOperation.GETWITHTHIS, RhinoOperation.GETWITHTHISOPTIONAL)) {
+            return null;
+        }
+
+        NativeJavaObject target = (NativeJavaObject) req.getReceiver();
+        Callable method = target.getMethod(op.getName());
+        if (method == null) {
+            return null;
+        }
+
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodType mType = req.getCallSiteDescriptor().getMethodType();
+        MethodHandle mh =
+                lookup.findStatic(
+                        JavaObjectLinker.class,
+                        "getMethodAndThis",
+                        MethodType.methodType(
+                                ScriptRuntime.LookupResult.class,
+                                Callable.class,
+                                String.class,
+                                Object.class));
+        mh = MethodHandles.insertArguments(mh, 0, method, op.getName());
+        mh = MethodHandles.dropArguments(mh, 1, Context.class, VarScope.class);
+        mh = mh.asType(mType);
+        MethodHandle guard =
+                lookup.findStatic(
+                        JavaObjectLinker.class,
+                        "testShape",
+                        MethodType.methodType(boolean.class, Object.class, Object.class));
+        guard = MethodHandles.insertArguments(guard, 0, target.getShape());
+        guard = Guards.asType(guard, mType);
+
+        if (DefaultLinker.DEBUG) {
+            System.out.println(op + " Java method");
+        }
+        return new GuardedInvocation(mh, guard);
+    }
+
+    @SuppressWarnings("unused")
+    private static boolean testShape(Object shape, Object receiver) {
+        return receiver != null
+                && receiver.getClass() == NativeJavaObject.class
+                && ((NativeJavaObject) receiver).getShape() == shape;
+    }
+
+    @SuppressWarnings("unused")
+    private static ScriptRuntime.LookupResult getMethodAndThis(
+            Callable method, String name, Object receiver) {
+        return new ScriptRuntime.LookupResult(method, (Scriptable) receiver, name);
+    }
+}
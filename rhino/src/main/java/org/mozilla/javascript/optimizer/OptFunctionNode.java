@@ -74,6 +74,25 @@ public final class OptFunctionNode {
         numberVarFlags[varIndex] = true;
     }
 
+    /** Return true if the variable is a Number variable that only ever holds 32 bit integers. */
+    public boolean isInt32Var(int varIndex) {
+        varIndex -= fnode.getParamCount();
+        if (varIndex >= 0 && int32VarFlags != null) {
+            return int32VarFlags[varIndex];
+        }
+        return false;
+    }
+
+    void setIsInt32Var(int varIndex) {
+        if (!isNumberVar(varIndex)) Kit.codeBug();
+        varIndex -= fnode.getParamCount();
+        if (int32VarFlags == null) {
+            int size = fnode.getParamAndVarCount() - fnode.getParamCount();
+            int32VarFlags = new boolean[size];
+        }
+        int32VarFlags[varIndex] = true;
+    }
+
     public int getVarIndex(Node n) {
         int index = n.getIntProp(Node.VARIABLE_PROP, -1);
         if (index == -1) {
@@ -96,6 +115,7 @@ public final class OptFunctionNode {
     public final FunctionNode fnode;
 
     private boolean[] numberVarFlags;
+    private boolean[] int32VarFlags;
     private int directTargetIndex = -1;
     private boolean itsParameterNumberContext;
     boolean itsContainsCalls0;
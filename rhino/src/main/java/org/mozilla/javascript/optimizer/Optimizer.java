@@ -117,6 +117,9 @@ class Optimizer {
                 }
             case Token.NUMBER:
                 n.putIntProp(Node.ISNUMBER_PROP, Node.BOTH);
+                if (isInt32(n.getDouble())) {
+                    n.putIntProp(Node.ISINT32_PROP, 1);
+                }
                 return NumberType;
 
             case Token.GETVAR:
@@ -129,6 +132,9 @@ class Optimizer {
                         return NumberType;
                     } else if (theFunction.isNumberVar(varIndex)) {
                         n.putIntProp(Node.ISNUMBER_PROP, Node.BOTH);
+                        if (theFunction.isInt32Var(varIndex)) {
+                            n.putIntProp(Node.ISINT32_PROP, 1);
+                        }
                         return NumberType;
                     }
                     return NoType;
@@ -286,12 +292,14 @@ class Optimizer {
                     if (lType == NumberType) {
                         if (rType == NumberType) {
                             n.putIntProp(Node.ISNUMBER_PROP, Node.BOTH);
+                            markInt32Result(n);
                             return NumberType;
                         }
                         if (!convertParameter(rChild)) {
                             n.removeChild(rChild);
                             n.addChildToBack(new Node(Token.TO_DOUBLE, rChild));
                             n.putIntProp(Node.ISNUMBER_PROP, Node.BOTH);
+                            markInt32Result(n);
                         }
                         return NumberType;
                     }
@@ -300,6 +308,7 @@ class Optimizer {
                             n.removeChild(lChild);
                             n.addChildToFront(new Node(Token.TO_DOUBLE, lChild));
                             n.putIntProp(Node.ISNUMBER_PROP, Node.BOTH);
+                            markInt32Result(n);
                         }
                         return NumberType;
                     }
@@ -316,6 +325,7 @@ class Optimizer {
                     if (type == NumberType && !convertParameter(child)) {
                         n.putIntProp(Node.ISNUMBER_PROP, Node.BOTH);
                         markDCPNumberContext(child);
+                        markInt32Result(n);
                         return NumberType;
                     }
                     return NoType;
@@ -407,6 +417,31 @@ class Optimizer {
         }
     }
 
+    private static boolean isInt32(double d) {
+        return d == (int) d && (d != 0.0 || 1 / d > 0);
+    }
+
+    /*
+            The signed bitwise operators always deliver a 32 bit integer
+            when they work on Numbers, so the codegen can keep their result
+            as an int when it is the operand of another one of them. See
+            Block.findInt32Vars for the variables that always hold one.
+    */
+    private static void markInt32Result(Node n) {
+        switch (n.getType()) {
+            case Token.BITXOR:
+            case Token.BITOR:
+            case Token.BITAND:
+            case Token.RSH:
+            case Token.LSH:
+            case Token.BITNOT:
+                n.putIntProp(Node.ISINT32_PROP, 1);
+                break;
+            default:
+                break;
+        }
+    }
+
     private void rewriteAsObjectChildren(Node n, Node child) {
         // Force optimized children to be objects
         while (child != null) {
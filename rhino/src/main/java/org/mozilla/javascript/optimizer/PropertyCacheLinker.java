@@ -0,0 +1,221 @@
+package org.mozilla.javascript.optimizer;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import jdk.dynalink.StandardNamespace;
+import jdk.dynalink.StandardOperation;
+import jdk.dynalink.linker.GuardedInvocation;
+import jdk.dynalink.linker.LinkRequest;
+import jdk.dynalink.linker.LinkerServices;
+import jdk.dynalink.linker.TypeBasedGuardingDynamicLinker;
+import jdk.dynalink.linker.support.Guards;
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.Scriptable;
+import org.mozilla.javascript.ScriptableObject;
+import org.mozilla.javascript.Slot;
+
+/**
+ * This linker implements an inline cache for getting and setting own properties of ordinary
+ * objects. When a property is found on the receiver, the call site is linked to code that reads or
+ * writes the slot that holds it, guarded by a check that the receiver still has the same shape. For
+ * objects that share shapes, the position of the slot is cached, which is valid for every object
+ * with that shape; otherwise the slot of a data property itself is cached. A receiver with another
+ * shape fails the guard, and the call site is linked again, so that each shape seen by the call
+ * site gets its own guarded entry in the {@link jdk.dynalink.support.ChainedCallSite}, up to the
+ * length of its chain. Once the call site has been relinked that often it is considered unstable,
+ * and this linker leaves it to the default linker, which looks the property up on every call.
+ *
+ * <p>Only objects that use the property lookup of {@link ScriptableObject} are cached, since
+ * classes that override it may answer for properties that are not in their slots.
+ */
+@SuppressWarnings("AndroidJdkLibsChecker")
+class PropertyCacheLinker implements TypeBasedGuardingDynamicLinker {
+    private static final ClassValue<Boolean> ORDINARY_CLASSES =
+            new ClassValue<>() {
+                @Override
+                protected Boolean computeValue(Class<?> type) {
+                    return isOrdinary(type);
+                }
+            };
+
+    @Override
+    public boolean canLinkType(Class<?> type) {
+        return ScriptableObject.class.isAssignableFrom(type) && ORDINARY_CLASSES.get(type);
+    }
+
+    @Override
+    public GuardedInvocation getGuardedInvocation(LinkRequest req, LinkerServices svc)
+            throws Exception {
+        if (req.isCallSiteUnstable()) {
+            return null;
+        }
+
+        ParsedOperation op = new ParsedOperation(req.getCallSiteDescriptor().getOperation());
+        if (!op.isNamespace(StandardNamespace.PROPERTY)) {
+            return null;
+        }
+        boolean isGet = op.isOperation(StandardOperation.GET, RhinoOperation.GETNOWARN);
+        if (!isGet && !op.isOperation(StandardOperation.SET)) {
+            return null;
+        }
+
+        ScriptableObject target = (ScriptableObject) req.getReceiver();
+        if (!isGet && (!target.isExtensible() || target.isSealed())) {
+            return null;
+        }
+        Object shape = target.getShape();
+        if (shape == null) {
+            return null;
+        }
+        // Objects that share shapes find a property at the same position, and others
+        // keep the slot that holds it for as long as they have the same shape.
+        Class<?> cachedType;
+        Object cached;
+        int position = target.getSlotPosition(op.getName());
+        if (position >= 0) {
+            cachedType = int.class;
+            cached = position;
+        } else {
+            Slot<Scriptable> slot = target.getDataSlot(op.getName());
+            if (slot == null) {
+                return null;
+            }
+            cachedType = Slot.class;
+            cached = slot;
+        }
+
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodType mType = req.getCallSiteDescriptor().getMethodType();
+        MethodHandle mh;
+        MethodHandle guard;
+        if (isGet) {
+            mh =
+                    lookup.findStatic(
+                            PropertyCacheLinker.class,
+                            "getValue",
+                            MethodType.methodType(Object.class, cachedType, Object.class));
+            guard =
+                    lookup.findStatic(
+                            PropertyCacheLinker.class,
+                            "testShape",
+                            MethodType.methodType(
+                                    boolean.class, Class.class, Object.class, Object.class));
+        } else {
+            mh =
+                    lookup.findStatic(
+                            PropertyCacheLinker.class,
+                            "setValue",
+                            MethodType.methodType(
+                                    Object.class,
+                                    cachedType,
+                                    Object.class,
+                                    Object.class,
+                                    Context.class));
+            guard =
+                    lookup.findStatic(
+                            PropertyCacheLinker.class,
+                            "testShapeForSet",
+                            MethodType.methodType(
+                                    boolean.class, Class.class, Object.class, Object.class));
+        }
+        mh = MethodHandles.insertArguments(mh, 0, cached);
+        // Drop the trailing arguments that the operation does not need
+        int used = mh.type().parameterCount();
+        mh =
+                MethodHandles.dropArguments(
+                        mh, used, mType.parameterList().subList(used, mType.parameterCount()));
+        mh = mh.asType(mType);
+        // Shapes may be shared by objects of different classes
+        guard = MethodHandles.insertArguments(guard, 0, target.getClass(), shape);
+        guard = Guards.asType(guard, mType);
+
+        if (DefaultLinker.DEBUG) {
+            System.out.println(
+                    op
+                            + ": cached "
+                            + (position >= 0 ? "position" : "slot")
+                            + " of "
+                            + target.getClass().getSimpleName());
+        }
+        return new GuardedInvocation(mh, guard);
+    }
+
+    @SuppressWarnings("unused")
+    private static boolean testShape(Class<?> type, Object shape, Object receiver) {
+        return receiver != null
+                && receiver.getClass() == type
+                && ((ScriptableObject) receiver).getShape() == shape;
+    }
+
+    @SuppressWarnings("unused")
+    private static boolean testShapeForSet(Class<?> type, Object shape, Object receiver) {
+        if (receiver != null && receiver.getClass() == type) {
+            ScriptableObject obj = (ScriptableObject) receiver;
+            return obj.getShape() == shape && obj.isExtensible() && !obj.isSealed();
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unused")
+    private static Object getValue(Slot<Scriptable> slot, Object receiver) {
+        return slot.getValue((Scriptable) receiver);
+    }
+
+    @SuppressWarnings("unused")
+    private static Object getValue(int position, Object receiver) {
+        ScriptableObject obj = (ScriptableObject) receiver;
+        // The property may be of any kind, which the map takes care of, as on the generic path
+        return obj.getValueAt(position);
+    }
+
+    @SuppressWarnings("unused")
+    private static Object setValue(
+            Slot<Scriptable> slot, Object receiver, Object value, Context cx) {
+        ScriptableObject obj = (ScriptableObject) receiver;
+        // Read-only properties are checked by the slot, just like on the generic path
+        slot.setValue(value, obj, obj, cx.isStrictMode());
+        return value;
+    }
+
+    @SuppressWarnings("unused")
+    private static Object setValue(int position, Object receiver, Object value, Context cx) {
+        ScriptableObject obj = (ScriptableObject) receiver;
+        obj.putValueAt(position, value, cx.isStrictMode());
+        return value;
+    }
+
+    /**
+     * Return whether a class finds named properties in its slots, as ScriptableObject does. A class
+     * that overrides any of the methods involved might not.
+     */
+    private static boolean isOrdinary(Class<?> type) {
+        for (Class<?> c = type; c != ScriptableObject.class; c = c.getSuperclass()) {
+            if (declares(c, "get", String.class, Scriptable.class)
+                    || declares(c, "has", String.class, Scriptable.class)
+                    || declares(c, "put", String.class, Scriptable.class, Object.class)
+                    || declares(
+                            c,
+                            "putOwnProperty",
+                            String.class,
+                            Scriptable.class,
+                            Object.class,
+                            boolean.class)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean declares(Class<?> c, String name, Class<?>... params) {
+        try {
+            c.getDeclaredMethod(name, params);
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        } catch (SecurityException e) {
+            // Be conservative if we cannot tell
+            return true;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package org.mozilla.javascript.optimizer;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import jdk.dynalink.StandardNamespace;
+import jdk.dynalink.linker.GuardedInvocation;
+import jdk.dynalink.linker.LinkRequest;
+import jdk.dynalink.linker.LinkerServices;
+import jdk.dynalink.linker.TypeBasedGuardingDynamicLinker;
+import jdk.dynalink.linker.support.Guards;
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.ScriptRuntime;
+import org.mozilla.javascript.VarScope;
+import org.mozilla.javascript.typedarrays.NativeTypedArrayView;
+
+/**
+ * This linker optimizes accesses to the elements of typed arrays with numeric indices by going
+ * straight to the array, and by setting numbers without converting them to objects and back. It
+ * helps loops that work on binary data.
+ */
+@SuppressWarnings("AndroidJdkLibsChecker")
+class TypedArrayLinker implements TypeBasedGuardingDynamicLinker {
+    @Override
+    public boolean canLinkType(Class<?> type) {
+        return NativeTypedArrayView.class.isAssignableFrom(type);
+    }
+
+    @Override
+    public GuardedInvocation getGuardedInvocation(LinkRequest req, LinkerServices svc)
+            throws Exception {
+        if (req.isCallSiteUnstable()) {
+            return null;
+        }
+
+        ParsedOperation op = new ParsedOperation(req.getCallSiteDescriptor().getOperation());
+        MethodHandle mh = null;
+        MethodHandle guard = null;
+
+        if (op.isNamespace(StandardNamespace.PROPERTY)) {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodType mType = req.getCallSiteDescriptor().getMethodType();
+            if (op.isOperation(RhinoOperation.GETINDEX)) {
+                mh = lookup.findStatic(TypedArrayLinker.class, "getIndex", mType);
+            } else if (op.isOperation(RhinoOperation.SETINDEX)) {
+                mh = lookup.findStatic(TypedArrayLinker.class, "setIndex", mType);
+            } else if (op.isOperation(RhinoOperation.GETELEMENT)) {
+                mh = lookup.findStatic(TypedArrayLinker.class, "getElement", mType);
+            } else if (op.isOperation(RhinoOperation.SETELEMENT)) {
+                mh = lookup.findStatic(TypedArrayLinker.class, "setElement", mType);
+            }
+            guard = Guards.getInstanceOfGuard(NativeTypedArrayView.class);
+        }
+
+        if (mh != null) {
+            if (DefaultLinker.DEBUG) {
+                System.out.println(op + " typed array operation");
+            }
+            return new GuardedInvocation(mh, guard);
+        }
+
+        return null;
+    }
+
+    /** Return the array index that the element ID stands for, or -1 if it is not one. */
+    private static int toIndex(Object id) {
+        if (id instanceof Integer) {
+            return (Integer) id;
+        }
+        if (id instanceof Double) {
+            double d = (Double) id;
+            int i = (int) d;
+            if (i == d) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Object get(NativeTypedArrayView<?> array, int i) {
+        return array.get(i, array);
+    }
+
+    private static void set(NativeTypedArrayView<?> array, int i, Object value) {
+        if (value instanceof Integer || value instanceof Double) {
+            array.setDouble(i, ((Number) value).doubleValue());
+        } else {
+            array.put(i, array, value);
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static Object getIndex(Object o, double index, Context cx, VarScope scope) {
+        int i = (int) index;
+        if (i == index && i >= 0) {
+            return get((NativeTypedArrayView<?>) o, i);
+        }
+        return ScriptRuntime.getObjectIndex(o, index, cx, scope);
+    }
+
+    @SuppressWarnings("unused")
+    private static Object setIndex(
+            Object o, double index, Object value, Context cx, VarScope scope) {
+        int i = (int) index;
+        if (i == index && i >= 0) {
+            set((NativeTypedArrayView<?>) o, i, value);
+            return value;
+        }
+        return ScriptRuntime.setObjectIndex(o, index, value, cx, scope);
+    }
+
+    @SuppressWarnings("unused")
+    private static Object getElement(Object o, Object id, Context cx, VarScope scope) {
+        int i = toIndex(id);
+        if (i >= 0) {
+            return get((NativeTypedArrayView<?>) o, i);
+        }
+        return ScriptRuntime.getObjectElem(o, id, cx, scope);
+    }
+
+    @SuppressWarnings("unused")
+    private static Object setElement(
+            Object o, Object id, Object value, Context cx, VarScope scope) {
+        int i = toIndex(id);
+        if (i >= 0) {
+            set((NativeTypedArrayView<?>) o, i, value);
+            return value;
+        }
+        return ScriptRuntime.setObjectElem(o, id, value, cx, scope);
+    }
+}
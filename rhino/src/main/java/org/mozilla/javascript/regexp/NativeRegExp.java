@@ -156,6 +156,9 @@ public class NativeRegExp extends ScriptableObject {
 
     private static final int ANCHOR_BOL = -2;
 
+    // the largest NFA built for a DFA search, which large repeat counts can exceed
+    private static final int MAX_NFA_NODES = 2000;
+
     private static final ClassDescriptor DESCRIPTOR;
     private static final JSDescriptor<JSFunction> EXEC_DESCRIPTOR;
 
@@ -868,6 +871,14 @@ public class NativeRegExp extends ScriptableObject {
     }
 
     static RECompiled compileRE(Context cx, String str, String global, boolean flat) {
+        RegExpCache.Key key =
+                new RegExpCache.Key(
+                        str, global, flat, cx.getLanguageVersion() >= Context.VERSION_ES6);
+        RECompiled cached = RegExpCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
         RECompiled regexp = new RECompiled(str);
         int length = str.length();
         int flags = 0;
@@ -942,6 +953,7 @@ public class NativeRegExp extends ScriptableObject {
                 }
             }
             if (reParseState != null) {
+                reParseState.warned = state.warned;
                 state = reParseState;
                 if (!parseDisjunction(state, params)) return null;
             }
@@ -972,6 +984,10 @@ public class NativeRegExp extends ScriptableObject {
             prettyPrintRE(regexp);
         }
         regexp.parenCount = state.parenCount;
+        REGlobalData matchData = new REGlobalData();
+        matchData.regexp = regexp;
+        regexp.nfa = buildNfa(regexp, matchData, state.result);
+        findPrefilters(regexp, matchData, state.result);
 
         // If re starts with literal, init anchorCh accordingly
         switch (regexp.program[0]) {
@@ -1011,14 +1027,268 @@ public class NativeRegExp extends ScriptableObject {
                 System.out.println("Anchor ch = '" + (char) regexp.anchorCodePoint + "'");
             }
         }
+        // Expressions that warn are not cached, so that they warn every time.
+        if (!state.warned) {
+            RegExpCache.put(key, regexp);
+        }
         return regexp;
     }
 
+    /**
+     * Build the NFA that lets the expression be searched for with a {@link RELazyDfa}, or return
+     * null if the expression uses something that the automaton cannot handle, or has no
+     * alternatives or quantifiers that the backtracking matcher could spend much time on.
+     */
+    private static RELazyDfa.Nfa buildNfa(RECompiled re, REGlobalData gData, RENode tree) {
+        if ((re.flags & JSREG_UNICODE) != 0 || !canBacktrack(tree)) {
+            return null;
+        }
+        RELazyDfa.Nfa nfa = new RELazyDfa.Nfa(MAX_NFA_NODES);
+        int start = addNfaNodes(nfa, re, gData, tree, nfa.addMatch());
+        if (start < 0) {
+            return null;
+        }
+        nfa.setStart(start);
+        return nfa;
+    }
+
+    /*
+     * Find what every match starts with or contains, so that matchRegExp can skip the positions
+     * where the expression cannot match with String.indexOf or a check of the first char,
+     * instead of trying the bytecode at each of them.
+     */
+    private static void findPrefilters(RECompiled re, REGlobalData gData, RENode tree) {
+        if ((re.flags & JSREG_FOLD) == 0) {
+            StringBuilder prefix = new StringBuilder();
+            for (RENode t = tree; t != null && t.op == REOP_FLAT; t = t.next) {
+                appendFlat(re, t, prefix);
+            }
+            // a single char is already handled by anchorCodePoint
+            if (prefix.length() > 1 && !Character.isSurrogate(prefix.charAt(0))) {
+                re.literalPrefix = prefix.toString();
+            }
+            String required = findRequiredLiteral(re, tree, "");
+            if (!required.isEmpty() && !required.equals(re.literalPrefix)) {
+                re.requiredLiteral = required;
+            }
+        }
+        if ((re.flags & JSREG_UNICODE) == 0) {
+            RENode first = tree;
+            while (first != null && first.op == REOP_LPAREN) {
+                first = first.kid;
+            }
+            if (first != null && first.op == REOP_QUANT && first.min > 0 && first.kid.next == null) {
+                first = first.kid;
+            }
+            // a flat char is already handled by anchorCodePoint, and a dot matches nearly anything
+            if (first != null && first.op != REOP_FLAT && first.op != REOP_DOT) {
+                re.firstChar = charPredicate(re, gData, first);
+            }
+        }
+    }
+
+    /*
+     * Return the longest run of literal chars that every match of the sequence of terms contains,
+     * or the longest one found so far if that is longer.
+     */
+    private static String findRequiredLiteral(RECompiled re, RENode t, String longest) {
+        StringBuilder run = new StringBuilder();
+        for (; ; t = t.next) {
+            if (t != null && t.op == REOP_FLAT) {
+                appendFlat(re, t, run);
+                continue;
+            }
+            if (run.length() > longest.length()) {
+                longest = run.toString();
+            }
+            run.setLength(0);
+            if (t == null) {
+                return longest;
+            }
+            if (t.op == REOP_LPAREN || (t.op == REOP_QUANT && t.min > 0)) {
+                longest = findRequiredLiteral(re, t.kid, longest);
+            }
+        }
+    }
+
+    private static void appendFlat(RECompiled re, RENode t, StringBuilder sb) {
+        if (t.flatIndex != -1 && t.length > 1) {
+            sb.append(re.source, t.flatIndex, t.length);
+        } else {
+            sb.append(t.chr);
+            if (t.lowSurrogate != 0) {
+                sb.append(t.lowSurrogate);
+            }
+        }
+    }
+
+    private static boolean canBacktrack(RENode t) {
+        for (; t != null; t = t.next) {
+            switch (t.op) {
+                case REOP_QUANT:
+                case REOP_ALT:
+                case REOP_ALTPREREQ:
+                case REOP_ALTPREREQi:
+                case REOP_ALTPREREQ2:
+                    return true;
+                default:
+                    if (canBacktrack(t.kid) || canBacktrack(t.kid2)) {
+                        return true;
+                    }
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Add the nodes for a sequence of terms that goes on to next, and return the first of them,
+     * or -1 if the sequence cannot be turned into an NFA.
+     */
+    private static int addNfaNodes(
+            RELazyDfa.Nfa nfa, RECompiled re, REGlobalData gData, RENode t, int next) {
+        ArrayList<RENode> terms = new ArrayList<>();
+        for (; t != null; t = t.next) {
+            terms.add(t);
+        }
+        for (int i = terms.size() - 1; i >= 0 && next >= 0; i--) {
+            next = addNfaNode(nfa, re, gData, terms.get(i), next);
+        }
+        return next;
+    }
+
+    private static int addNfaNode(
+            RELazyDfa.Nfa nfa, RECompiled re, REGlobalData gData, RENode t, int next) {
+        IntPredicate predicate = charPredicate(re, gData, t);
+        if (predicate != null) {
+            return nfa.addChar(predicate, next);
+        }
+        switch (t.op) {
+            case REOP_EMPTY:
+                return next;
+            case REOP_BOL:
+                return nfa.addBeginningOfLine(next);
+            case REOP_EOL:
+                return nfa.addEndOfLine(next);
+            case REOP_WBDRY:
+                return nfa.addWordBoundary(true, next);
+            case REOP_WNONBDRY:
+                return nfa.addWordBoundary(false, next);
+            case REOP_FLAT:
+                if (t.flatIndex == -1 || t.lowSurrogate != 0) {
+                    return -1;
+                }
+                boolean fold = (re.flags & JSREG_FOLD) != 0;
+                for (int i = t.length - 1; i >= 0 && next >= 0; i--) {
+                    next = nfa.addChar(charMatcher(re.source[t.flatIndex + i], fold), next);
+                }
+                return next;
+            case REOP_LPAREN:
+                return addNfaNodes(nfa, re, gData, t.kid, next);
+            case REOP_ALT:
+            case REOP_ALTPREREQ:
+            case REOP_ALTPREREQi:
+            case REOP_ALTPREREQ2:
+                {
+                    int first = addNfaNodes(nfa, re, gData, t.kid, next);
+                    int second = addNfaNodes(nfa, re, gData, t.kid2, next);
+                    if (first < 0 || second < 0) {
+                        return -1;
+                    }
+                    return nfa.addSplit(first, second);
+                }
+            case REOP_QUANT:
+                {
+                    // optional occurrences, then the ones that are required
+                    int rest = next;
+                    if (t.max == -1) {
+                        int loop = nfa.addLoop(rest);
+                        int kid = addNfaNodes(nfa, re, gData, t.kid, loop);
+                        if (loop < 0 || kid < 0) {
+                            return -1;
+                        }
+                        nfa.setFirst(loop, kid);
+                        rest = loop;
+                    } else {
+                        for (int i = t.min; i < t.max && rest >= 0; i++) {
+                            int kid = addNfaNodes(nfa, re, gData, t.kid, rest);
+                            rest = kid < 0 ? -1 : nfa.addSplit(kid, next);
+                        }
+                    }
+                    for (int i = 0; i < t.min && rest >= 0; i++) {
+                        rest = addNfaNodes(nfa, re, gData, t.kid, rest);
+                    }
+                    return rest;
+                }
+            default:
+                // back references, lookaround and unicode properties
+                return -1;
+        }
+    }
+
+    /*
+     * Return what a term that matches a single char accepts, outside of unicode mode, or null if
+     * the term is not one of those.
+     */
+    private static IntPredicate charPredicate(RECompiled re, REGlobalData gData, RENode t) {
+        switch (t.op) {
+            case REOP_DOT:
+                boolean dotAll = (re.flags & JSREG_DOTALL) != 0;
+                return c -> dotAll || !isLineTerm((char) c);
+            case REOP_DIGIT:
+                return c -> isDigit((char) c);
+            case REOP_NONDIGIT:
+                return c -> !isDigit((char) c);
+            case REOP_ALNUM:
+                return c -> isWord((char) c);
+            case REOP_NONALNUM:
+                return c -> !isWord((char) c);
+            case REOP_SPACE:
+                return c -> isREWhiteSpace(c);
+            case REOP_NONSPACE:
+                return c -> !isREWhiteSpace(c);
+            case REOP_FLAT:
+                if ((t.flatIndex != -1 && t.length > 1) || t.lowSurrogate != 0) {
+                    return null;
+                }
+                return charMatcher(t.chr, (re.flags & JSREG_FOLD) != 0);
+            case REOP_CLASS:
+                RECharSet charSet = re.classList[t.index];
+                return c -> classMatcher(gData, charSet, c);
+            default:
+                return null;
+        }
+    }
+
+    private static IntPredicate charMatcher(char ch, boolean fold) {
+        if (!fold) {
+            return c -> c == ch;
+        }
+        char upper = upcase(ch);
+        return c -> c == ch || upcase((char) c) == upper;
+    }
+
+    private static RELazyDfa.Pair getDfa(RECompiled re, boolean multiline) {
+        if (re.nfa == null) {
+            return null;
+        }
+        // racing threads may each build one, which is harmless
+        RELazyDfa.Pair dfa = multiline ? re.multilineDfa : re.dfa;
+        if (dfa == null) {
+            dfa = new RELazyDfa.Pair(re.nfa, multiline);
+            if (multiline) {
+                re.multilineDfa = dfa;
+            } else {
+                re.dfa = dfa;
+            }
+        }
+        return dfa;
+    }
+
     static boolean isDigit(char c) {
         return '0' <= c && c <= '9';
     }
 
-    private static boolean isWord(char c) {
+    static boolean isWord(char c) {
         return ('a' <= c && c <= 'z') || ('A' <= c && c <= 'Z') || isDigit(c) || c == '_';
     }
 
@@ -1035,7 +1305,7 @@ public class NativeRegExp extends ScriptableObject {
         return ('a' <= c && c <= 'z') || ('A' <= c && c <= 'Z');
     }
 
-    private static boolean isLineTerm(char c) {
+    static boolean isLineTerm(char c) {
         return ScriptRuntime.isJSLineTerminator(c);
     }
 
@@ -1971,7 +2241,7 @@ public class NativeRegExp extends ScriptableObject {
         char[] src = state.cpbegin;
         int num = 0;
         char c;
-        reportWarning(state.cx, "msg.bad.backref", "");
+        reportWarning(state, "msg.bad.backref", "");
         while (num < 040 && state.cp < state.cpend) {
             c = src[state.cp];
             if ((c >= '0') && (c <= '7')) {
@@ -2164,7 +2434,7 @@ public class NativeRegExp extends ScriptableObject {
                             termStart = state.cp - 1;
                             num = getDecimalValue(c, state, "msg.overlarge.backref");
                             if (!params.unicodeMode && num > state.backReferenceLimit) {
-                                reportWarning(state.cx, "msg.bad.backref", "");
+                                reportWarning(state, "msg.bad.backref", "");
                                 state.cp = termStart;
                                 if (!parseCharacterAndCharacterClassEscape(state, params))
                                     return false;
@@ -4017,6 +4287,76 @@ public class NativeRegExp extends ScriptableObject {
         }
     }
 
+    /*
+     * Return the first position from i on where a match can start, judging by what the matches
+     * start with, or -1 if there is none. Sticky expressions can only start at i itself.
+     */
+    private static int skipToCandidate(REGlobalData gData, String input, int i, int end) {
+        RECompiled re = gData.regexp;
+        boolean sticky = (re.flags & JSREG_STICKY) != 0;
+        if (re.literalPrefix != null) {
+            int found;
+            if (sticky) {
+                found = input.startsWith(re.literalPrefix, i) ? i : -1;
+            } else {
+                found = input.indexOf(re.literalPrefix, i);
+            }
+            return found >= 0 && found + re.literalPrefix.length() <= end ? found : -1;
+        }
+        //
+        // If the first node is a literal match, step the index into
+        // the string until that match is made, or fail if it can't be
+        // found at all.
+        //
+        int anchorCodePoint = re.anchorCodePoint;
+        if (anchorCodePoint >= 0) {
+            for (; ; ) {
+                if (i == end) {
+                    return -1;
+                }
+
+                int charCount;
+                if ((re.flags & JSREG_UNICODE) != 0) {
+                    int matchCodePoint = input.codePointAt(i);
+                    if (matchCodePoint == anchorCodePoint) {
+                        return i;
+                    }
+                    if ((re.flags & JSREG_FOLD) != 0
+                            && unicodeCaseInsensitiveEquals(matchCodePoint, anchorCodePoint)) {
+                        return i;
+                    }
+                    charCount = Character.charCount(matchCodePoint);
+                } else {
+                    char matchCh = input.charAt(i);
+                    if (matchCh == anchorCodePoint
+                            || ((re.flags & JSREG_FOLD) != 0
+                                    && upcase(matchCh) == upcase((char) anchorCodePoint))) {
+                        return i;
+                    }
+                    charCount = 1;
+                }
+
+                if (sticky) {
+                    return -1;
+                }
+
+                i += charCount;
+            }
+        }
+        if (re.firstChar != null) {
+            for (; i < end; i++) {
+                if (re.firstChar.test(input.charAt(i))) {
+                    return i;
+                }
+                if (sticky) {
+                    return -1;
+                }
+            }
+            return -1;
+        }
+        return i;
+    }
+
     private static boolean matchRegExp(
             Context cx,
             REGlobalData gData,
@@ -4037,50 +4377,33 @@ public class NativeRegExp extends ScriptableObject {
         gData.multiline = multiline || (re.flags & JSREG_MULTILINE) != 0;
         gData.regexp = re;
 
-        int anchorCodePoint = gData.regexp.anchorCodePoint;
+        if (re.requiredLiteral != null && input.indexOf(re.requiredLiteral, start) < 0) {
+            return false;
+        }
+        int from = skipToCandidate(gData, input, start, end);
+        if (from < 0) {
+            return false;
+        }
+        RELazyDfa.Pair dfa = getDfa(re, gData.multiline);
+        if (dfa != null) {
+            // Let the automaton rule out the positions where no match starts, so that the
+            // backtracking matcher, which finds the captures, only runs where one does.
+            int found = dfa.findMatchStart(input, from, end, (re.flags & JSREG_STICKY) != 0);
+            if (found == RELazyDfa.NO_MATCH) {
+                return false;
+            }
+            if (found >= 0) {
+                from = found;
+            }
+        }
         //
         // have to include the position beyond the last character
         //  in order to detect end-of-input/line condition
         //
-        for (int i = start; i <= end; ++i) {
-            //
-            // If the first node is a literal match, step the index into
-            // the string until that match is made, or fail if it can't be
-            // found at all.
-            //
-            if (anchorCodePoint >= 0) {
-                for (; ; ) {
-                    if (i == end) {
-                        return false;
-                    }
-
-                    int charCount;
-                    if ((gData.regexp.flags & JSREG_UNICODE) != 0) {
-                        int matchCodePoint = input.codePointAt(i);
-                        if (matchCodePoint == anchorCodePoint) {
-                            break;
-                        }
-                        if ((gData.regexp.flags & JSREG_FOLD) != 0
-                                && unicodeCaseInsensitiveEquals(matchCodePoint, anchorCodePoint)) {
-                            break;
-                        }
-                        charCount = Character.charCount(matchCodePoint);
-                    } else {
-                        char matchCh = input.charAt(i);
-                        if (matchCh == anchorCodePoint
-                                || ((gData.regexp.flags & JSREG_FOLD) != 0
-                                        && upcase(matchCh) == upcase((char) anchorCodePoint))) {
-                            break;
-                        }
-                        charCount = 1;
-                    }
-
-                    if ((gData.regexp.flags & JSREG_STICKY) != 0) {
-                        return false;
-                    }
-
-                    i += charCount;
-                }
+        for (int i = from; i <= end; ++i) {
+            i = skipToCandidate(gData, input, i, end);
+            if (i < 0) {
+                return false;
             }
             gData.cp = i;
             gData.skipped = i - start;
@@ -4094,7 +4417,7 @@ public class NativeRegExp extends ScriptableObject {
             if (result) {
                 return true;
             }
-            if (anchorCodePoint == ANCHOR_BOL && !gData.multiline) {
+            if (re.anchorCodePoint == ANCHOR_BOL && !gData.multiline) {
                 gData.skipped = end;
                 return false;
             }
@@ -4274,8 +4597,9 @@ public class NativeRegExp extends ScriptableObject {
         return re.flags;
     }
 
-    private static void reportWarning(Context cx, String messageId, String arg) {
-        if (cx.hasFeature(Context.FEATURE_STRICT_MODE)) {
+    private static void reportWarning(CompilerState state, String messageId, String arg) {
+        state.warned = true;
+        if (state.cx.hasFeature(Context.FEATURE_STRICT_MODE)) {
             String msg = ScriptRuntime.getMessageById(messageId, arg);
             Context.reportWarning(msg);
         }
@@ -5002,6 +5326,12 @@ class RECompiled implements Serializable {
     int classCount; /* count [...] bitmaps */
     RECharSet[] classList; /* list of [...] bitmaps */
     int anchorCodePoint = -1; /* if >= 0, then re starts with this literal char */
+    String literalPrefix; /* if not null, every match starts with this */
+    String requiredLiteral; /* if not null, every match contains this */
+    transient IntPredicate firstChar; /* if not null, accepts the first char of every match */
+    transient RELazyDfa.Nfa nfa; /* if not null, the re can be searched for with a DFA */
+    transient volatile RELazyDfa.Pair dfa; /* the DFAs, built as needed */
+    transient volatile RELazyDfa.Pair multilineDfa;
 
     RECompiled(String str) {
         this.source = str.toCharArray();
@@ -5068,6 +5398,7 @@ class CompilerState {
     }
 
     Context cx;
+    boolean warned;
     char[] cpbegin;
     int cpend;
     int cp;
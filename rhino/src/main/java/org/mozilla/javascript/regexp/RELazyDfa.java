@@ -0,0 +1,440 @@
+/* -*- Mode: java; tab-width: 8; indent-tabs-mode: nil; c-basic-offset: 4 -*-
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/. */
+
+package org.mozilla.javascript.regexp;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntPredicate;
+import org.mozilla.javascript.ScriptRuntime;
+
+/**
+ * A deterministic automaton for a regular expression without back references and lookaround,
+ * whose states are built from an NFA as the input needs them.
+ *
+ * <p>The automaton can only tell where a match exists, not which one the backtracking matcher
+ * would choose or what its groups capture. NativeRegExp uses it to find the first position where a
+ * match starts, and then runs the backtracking matcher only there, which is linear in the input
+ * for positions without a match instead of exponential in the worst case.
+ *
+ * <p>States are shared by all threads that use the expression. A transition that is not yet known
+ * is computed under a lock and then published, so matching needs no lock once the states it uses
+ * exist.
+ */
+final class RELazyDfa {
+
+    /** The result of a search when there is no match. */
+    static final int NO_MATCH = -1;
+
+    /** The result of a search when the automaton grew too large to decide it. */
+    static final int UNKNOWN = -2;
+
+    // states are only built up to this number, to bound the memory an expression can use
+    private static final int MAX_STATES = 2000;
+
+    // kinds of NFA nodes
+    private static final byte CHAR = 0;
+    private static final byte SPLIT = 1;
+    private static final byte BOL = 2;
+    private static final byte EOL = 3;
+    private static final byte WBDRY = 4;
+    private static final byte WNONBDRY = 5;
+    private static final byte MATCH = 6;
+
+    // what is known about the char before the current position
+    private static final int PREV_START = 1;
+    private static final int PREV_LINE_TERM = 2;
+    private static final int PREV_WORD = 4;
+
+    // what is known about the char at the current position
+    private static final int NEXT_OTHER = 0;
+    private static final int NEXT_LINE_TERM = 1;
+    private static final int NEXT_WORD = 2;
+    private static final int NEXT_END = 3;
+
+    /**
+     * The NFA of an expression. Nodes are created from the end of the expression to its start, so
+     * that each node knows the nodes that follow it when it is created. The methods that add a
+     * node return its index, or -1 if the NFA already has its maximum size.
+     */
+    static final class Nfa {
+        private byte[] kinds = new byte[16];
+        private int[] out1 = new int[16];
+        private int[] out2 = new int[16];
+        private IntPredicate[] predicates = new IntPredicate[16];
+        private int size;
+        private final int maxSize;
+        private boolean hasAssertions;
+        private int start;
+
+        Nfa(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        int addMatch() {
+            return add(MATCH, -1, -1, null);
+        }
+
+        /** Add a node that consumes a char that the predicate accepts and then goes on to next. */
+        int addChar(IntPredicate predicate, int next) {
+            return add(CHAR, next, -1, predicate);
+        }
+
+        /** Add a node that goes on to both nodes without consuming anything. */
+        int addSplit(int next1, int next2) {
+            return add(SPLIT, next1, next2, null);
+        }
+
+        /** Add a split whose first target is only known later, see {@link #setFirst}. */
+        int addLoop(int next) {
+            return add(SPLIT, -1, next, null);
+        }
+
+        void setFirst(int split, int next) {
+            out1[split] = next;
+        }
+
+        int addBeginningOfLine(int next) {
+            hasAssertions = true;
+            return add(BOL, next, -1, null);
+        }
+
+        int addEndOfLine(int next) {
+            hasAssertions = true;
+            return add(EOL, next, -1, null);
+        }
+
+        int addWordBoundary(boolean sense, int next) {
+            hasAssertions = true;
+            return add(sense ? WBDRY : WNONBDRY, next, -1, null);
+        }
+
+        void setStart(int start) {
+            this.start = start;
+        }
+
+        private int add(byte kind, int next1, int next2, IntPredicate predicate) {
+            if (size == maxSize) {
+                return -1;
+            }
+            if (size == kinds.length) {
+                int n = size * 2;
+                kinds = Arrays.copyOf(kinds, n);
+                out1 = Arrays.copyOf(out1, n);
+                out2 = Arrays.copyOf(out2, n);
+                predicates = Arrays.copyOf(predicates, n);
+            }
+            kinds[size] = kind;
+            out1[size] = next1;
+            out2[size] = next2;
+            predicates[size] = predicate;
+            return size++;
+        }
+    }
+
+    /** A set of NFA nodes, and what is known about the char before the position. */
+    private static final class State {
+        final int[] nodes;
+        final int prev;
+        // the state after each ASCII char, and after other chars
+        final State[] ascii = new State[128];
+        volatile ConcurrentHashMap<Character, State> others;
+        // whether the state accepts before each kind of next char: 0 unknown, 1 no, 2 yes
+        final byte[] accepts = new byte[4];
+
+        State(int[] nodes, int prev) {
+            this.nodes = nodes;
+            this.prev = prev;
+        }
+    }
+
+    private static final class Key {
+        final int[] nodes;
+        final int prev;
+
+        Key(int[] nodes, int prev) {
+            this.nodes = nodes;
+            this.prev = prev;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key
+                    && ((Key) o).prev == prev
+                    && Arrays.equals(((Key) o).nodes, nodes);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(nodes) * 31 + prev;
+        }
+    }
+
+    private final Nfa nfa;
+    private final boolean multiline;
+    // whether the NFA start is added to every state, so that a match may start anywhere
+    private final boolean unanchored;
+    private final HashMap<Key, State> states = new HashMap<>();
+    private final State dead = new State(new int[0], 0);
+    private volatile boolean tooLarge;
+
+    // scratch space for closures, only used under the lock
+    private final int[] stack;
+    private final boolean[] onStack;
+
+    private RELazyDfa(Nfa nfa, boolean multiline, boolean unanchored) {
+        this.nfa = nfa;
+        this.multiline = multiline;
+        this.unanchored = unanchored;
+        stack = new int[nfa.size];
+        onStack = new boolean[nfa.size];
+    }
+
+    /** The automata for the two ways of searching with the same NFA. */
+    static final class Pair {
+        private final RELazyDfa anchored;
+        private final RELazyDfa unanchored;
+
+        Pair(Nfa nfa, boolean multiline) {
+            anchored = new RELazyDfa(nfa, multiline, false);
+            unanchored = new RELazyDfa(nfa, multiline, true);
+        }
+
+        /**
+         * Return the first position from start on where a match starts, or NO_MATCH or UNKNOWN.
+         * If sticky, only a match at start is looked for.
+         */
+        int findMatchStart(String input, int start, int end, boolean sticky) {
+            if (sticky) {
+                int found = anchored.run(input, start, end);
+                return found >= 0 ? start : found;
+            }
+            int matchEnd = unanchored.run(input, start, end);
+            if (matchEnd < 0) {
+                return matchEnd;
+            }
+            // the match that ends first starts no later than it ends
+            for (int i = start; i <= matchEnd; i++) {
+                int found = anchored.run(input, i, end);
+                if (found >= 0) {
+                    return i;
+                }
+                if (found == UNKNOWN) {
+                    return UNKNOWN;
+                }
+            }
+            return UNKNOWN;
+        }
+    }
+
+    /**
+     * Run the automaton from the position, and return the first position where a match ends, or
+     * NO_MATCH if there is none, or UNKNOWN if the automaton got too large.
+     */
+    private int run(String input, int start, int end) {
+        if (tooLarge) {
+            return UNKNOWN;
+        }
+        State state = initialState(prevOf(input, start));
+        if (state == null) {
+            return UNKNOWN;
+        }
+        for (int i = start; i < end; i++) {
+            char c = input.charAt(i);
+            int next = nextOf(c);
+            byte accepts = state.accepts[next];
+            if (accepts == 0) {
+                accepts = computeAccepts(state, next);
+            }
+            if (accepts == 2) {
+                return i;
+            }
+            State target = c < 128 ? state.ascii[c] : otherTarget(state, c);
+            if (target == null) {
+                target = computeTarget(state, c);
+                if (target == null) {
+                    return UNKNOWN;
+                }
+            }
+            if (target == dead) {
+                return NO_MATCH;
+            }
+            state = target;
+        }
+        byte accepts = state.accepts[NEXT_END];
+        if (accepts == 0) {
+            accepts = computeAccepts(state, NEXT_END);
+        }
+        return accepts == 2 ? end : NO_MATCH;
+    }
+
+    private int prevOf(String input, int pos) {
+        if (pos == 0) {
+            return PREV_START;
+        }
+        return prevFlags(input.charAt(pos - 1));
+    }
+
+    private int prevFlags(char c) {
+        if (!nfa.hasAssertions) {
+            return 0;
+        }
+        int flags = 0;
+        if (NativeRegExp.isLineTerm(c)) {
+            flags |= PREV_LINE_TERM;
+        }
+        if (NativeRegExp.isWord(c)) {
+            flags |= PREV_WORD;
+        }
+        return flags;
+    }
+
+    private static int nextOf(char c) {
+        if (NativeRegExp.isWord(c)) {
+            return NEXT_WORD;
+        }
+        return ScriptRuntime.isJSLineTerminator(c) ? NEXT_LINE_TERM : NEXT_OTHER;
+    }
+
+    private static State otherTarget(State state, char c) {
+        ConcurrentHashMap<Character, State> others = state.others;
+        return others == null ? null : others.get(c);
+    }
+
+    private synchronized State initialState(int prev) {
+        if (!nfa.hasAssertions) {
+            prev = 0;
+        }
+        return intern(new int[] {nfa.start}, prev);
+    }
+
+    private synchronized byte computeAccepts(State state, int next) {
+        int count = closure(state, next);
+        boolean found = false;
+        for (int i = 0; i < count; i++) {
+            int node = stack[i];
+            onStack[node] = false;
+            if (nfa.kinds[node] == MATCH) {
+                found = true;
+            }
+        }
+        byte accepts = (byte) (found ? 2 : 1);
+        state.accepts[next] = accepts;
+        return accepts;
+    }
+
+    private synchronized State computeTarget(State state, char c) {
+        int count = closure(state, nextOf(c));
+        int[] targets = new int[count];
+        int targetCount = 0;
+        for (int i = 0; i < count; i++) {
+            int node = stack[i];
+            onStack[node] = false;
+            if (nfa.kinds[node] == CHAR && nfa.predicates[node].test(c)) {
+                targets[targetCount++] = nfa.out1[node];
+            }
+        }
+        State target;
+        if (targetCount == 0 && !unanchored) {
+            target = dead;
+        } else {
+            targets = Arrays.copyOf(targets, targetCount);
+            Arrays.sort(targets);
+            target = intern(targets, prevFlags(c));
+            if (target == null) {
+                return null;
+            }
+        }
+        if (c < 128) {
+            state.ascii[c] = target;
+        } else {
+            ConcurrentHashMap<Character, State> others = state.others;
+            if (others == null) {
+                others = new ConcurrentHashMap<>();
+                state.others = others;
+            }
+            others.put(c, target);
+        }
+        return target;
+    }
+
+    private State intern(int[] nodes, int prev) {
+        Key key = new Key(nodes, prev);
+        State state = states.get(key);
+        if (state == null) {
+            if (states.size() >= MAX_STATES) {
+                tooLarge = true;
+                return null;
+            }
+            state = new State(nodes, prev);
+            states.put(key, state);
+        }
+        return state;
+    }
+
+    /**
+     * Collect the nodes that can be reached from the state without consuming a char onto the
+     * stack, and return their number. The caller clears onStack.
+     */
+    private int closure(State state, int next) {
+        int count = 0;
+        if (unanchored && !onStack[nfa.start]) {
+            onStack[nfa.start] = true;
+            stack[count++] = nfa.start;
+        }
+        for (int node : state.nodes) {
+            if (!onStack[node]) {
+                onStack[node] = true;
+                stack[count++] = node;
+            }
+        }
+        int prev = state.prev;
+        for (int i = 0; i < count; i++) {
+            int node = stack[i];
+            int follow1 = -1;
+            int follow2 = -1;
+            switch (nfa.kinds[node]) {
+                case SPLIT:
+                    follow1 = nfa.out1[node];
+                    follow2 = nfa.out2[node];
+                    break;
+                case BOL:
+                    if ((prev & PREV_START) != 0
+                            || (multiline && (prev & PREV_LINE_TERM) != 0)) {
+                        follow1 = nfa.out1[node];
+                    }
+                    break;
+                case EOL:
+                    if (next == NEXT_END || (multiline && next == NEXT_LINE_TERM)) {
+                        follow1 = nfa.out1[node];
+                    }
+                    break;
+                case WBDRY:
+                    if (((prev & PREV_WORD) != 0) != (next == NEXT_WORD)) {
+                        follow1 = nfa.out1[node];
+                    }
+                    break;
+                case WNONBDRY:
+                    if (((prev & PREV_WORD) != 0) == (next == NEXT_WORD)) {
+                        follow1 = nfa.out1[node];
+                    }
+                    break;
+                default:
+                    break;
+            }
+            if (follow1 >= 0 && !onStack[follow1]) {
+                onStack[follow1] = true;
+                stack[count++] = follow1;
+            }
+            if (follow2 >= 0 && !onStack[follow2]) {
+                onStack[follow2] = true;
+                stack[count++] = follow2;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,139 @@
+/* -*- Mode: java; tab-width: 8; indent-tabs-mode: nil; c-basic-offset: 4 -*-
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/. */
+
+// API class
+
+package org.mozilla.javascript.regexp;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import org.mozilla.javascript.config.RhinoConfig;
+
+/**
+ * The compiled regular expressions shared by all RegExp objects, so that creating the same
+ * expression again, such as with {@code new RegExp(pattern, flags)} in a loop, reuses the bytecode
+ * and character class bitmaps of the first one. A compiled expression holds no match state, so it
+ * can be used by any number of RegExp objects and threads at once.
+ *
+ * <p>The cache keeps the least recently used expressions up to the size set by the {@code
+ * rhino.regexpCacheSize} property, which defaults to 256. Setting it to 0 turns the cache off.
+ *
+ * <p>All operations are synchronized on the cache.
+ */
+public final class RegExpCache {
+    private static final int MAX_ENTRIES = RhinoConfig.get("rhino.regexpCacheSize", 256);
+
+    private static final LinkedHashMap<Key, RECompiled> entries =
+            new LinkedHashMap<>(16, 0.75f, true);
+
+    private static long hits;
+    private static long misses;
+    private static long evictions;
+
+    private RegExpCache() {}
+
+    static RECompiled get(Key key) {
+        if (MAX_ENTRIES <= 0) {
+            return null;
+        }
+        synchronized (entries) {
+            RECompiled compiled = entries.get(key);
+            if (compiled == null) {
+                misses++;
+            } else {
+                hits++;
+            }
+            return compiled;
+        }
+    }
+
+    static void put(Key key, RECompiled compiled) {
+        if (MAX_ENTRIES <= 0) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(key, compiled);
+            Iterator<Map.Entry<Key, RECompiled>> it = entries.entrySet().iterator();
+            while (entries.size() > MAX_ENTRIES && it.hasNext()) {
+                it.next();
+                it.remove();
+                evictions++;
+            }
+        }
+    }
+
+    /** Remove all expressions from the cache. The statistics are not reset. */
+    public static void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /** Return the number of cached expressions. */
+    public static int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /** Return the number of lookups that found a compiled expression. */
+    public static long getHitCount() {
+        synchronized (entries) {
+            return hits;
+        }
+    }
+
+    /** Return the number of lookups that did not find a compiled expression. */
+    public static long getMissCount() {
+        synchronized (entries) {
+            return misses;
+        }
+    }
+
+    /** Return the number of expressions removed to stay within the size limit. */
+    public static long getEvictionCount() {
+        synchronized (entries) {
+            return evictions;
+        }
+    }
+
+    /** The things that an expression compiles differently for. */
+    static final class Key {
+        private final String source;
+        private final String flags;
+        private final boolean flat;
+        private final boolean es6;
+
+        Key(String source, String flags, boolean flat, boolean es6) {
+            this.source = source;
+            this.flags = flags == null ? "" : flags;
+            this.flat = flat;
+            this.es6 = es6;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return flat == key.flat
+                    && es6 == key.es6
+                    && source.equals(key.source)
+                    && flags.equals(key.flags);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(source, flags, flat, es6);
+        }
+    }
+}
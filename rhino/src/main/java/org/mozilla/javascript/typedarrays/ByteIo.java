@@ -6,12 +6,43 @@
 
 package org.mozilla.javascript.typedarrays;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
 public class ByteIo {
 
     // Float16 constants
     private static final double FLOAT16_MIN_NORMAL = 6.103515625e-5; // 2^-14
     private static final double FLOAT16_MIN_SUBNORMAL = 5.960464477539063E-8; // 2^-24
 
+    // Views of byte arrays as arrays of wider values, which the JIT turns into single loads and
+    // stores instead of assembling the values from bytes
+    private static final VarHandle ARRAY_SHORT_LE = arrayView(short[].class, false);
+    private static final VarHandle ARRAY_SHORT_BE = arrayView(short[].class, true);
+    private static final VarHandle ARRAY_INT_LE = arrayView(int[].class, false);
+    private static final VarHandle ARRAY_INT_BE = arrayView(int[].class, true);
+    private static final VarHandle ARRAY_LONG_LE = arrayView(long[].class, false);
+    private static final VarHandle ARRAY_LONG_BE = arrayView(long[].class, true);
+
+    // The same for the ByteBuffers that back buffers created from Java, which are usually direct
+    private static final VarHandle BUFFER_SHORT_LE = bufferView(short[].class, false);
+    private static final VarHandle BUFFER_SHORT_BE = bufferView(short[].class, true);
+    private static final VarHandle BUFFER_INT_LE = bufferView(int[].class, false);
+    private static final VarHandle BUFFER_INT_BE = bufferView(int[].class, true);
+    private static final VarHandle BUFFER_LONG_LE = bufferView(long[].class, false);
+    private static final VarHandle BUFFER_LONG_BE = bufferView(long[].class, true);
+
+    private static VarHandle arrayView(Class<?> viewArrayClass, boolean bigEndian) {
+        return MethodHandles.byteArrayViewVarHandle(
+                viewArrayClass, bigEndian ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static VarHandle bufferView(Class<?> viewArrayClass, boolean bigEndian) {
+        return MethodHandles.byteBufferViewVarHandle(
+                viewArrayClass, bigEndian ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
+    }
+
     public static Byte readInt8(byte[] buf, int offset) {
         return Byte.valueOf(buf[offset]);
     }
@@ -29,20 +60,44 @@ public class ByteIo {
     }
 
     private static short doReadInt16(byte[] buf, int offset, boolean littleEndian) {
-        // Need to coalesce to short here so that we stay in range
+        return littleEndian
+                ? (short) ARRAY_SHORT_LE.get(buf, offset)
+                : (short) ARRAY_SHORT_BE.get(buf, offset);
+    }
+
+    private static void doWriteInt16(byte[] buf, int offset, int val, boolean littleEndian) {
         if (littleEndian) {
-            return (short) ((buf[offset] & 0xff) | ((buf[offset + 1] & 0xff) << 8));
+            ARRAY_SHORT_LE.set(buf, offset, (short) val);
+        } else {
+            ARRAY_SHORT_BE.set(buf, offset, (short) val);
         }
-        return (short) (((buf[offset] & 0xff) << 8) | (buf[offset + 1] & 0xff));
     }
 
-    private static void doWriteInt16(byte[] buf, int offset, int val, boolean littleEndian) {
+    private static int doReadInt32(byte[] buf, int offset, boolean littleEndian) {
+        return littleEndian
+                ? (int) ARRAY_INT_LE.get(buf, offset)
+                : (int) ARRAY_INT_BE.get(buf, offset);
+    }
+
+    private static void doWriteInt32(byte[] buf, int offset, int val, boolean littleEndian) {
         if (littleEndian) {
-            buf[offset] = (byte) (val & 0xff);
-            buf[offset + 1] = (byte) ((val >>> 8) & 0xff);
+            ARRAY_INT_LE.set(buf, offset, val);
         } else {
-            buf[offset] = (byte) ((val >>> 8) & 0xff);
-            buf[offset + 1] = (byte) (val & 0xff);
+            ARRAY_INT_BE.set(buf, offset, val);
+        }
+    }
+
+    private static long doReadInt64(byte[] buf, int offset, boolean littleEndian) {
+        return littleEndian
+                ? (long) ARRAY_LONG_LE.get(buf, offset)
+                : (long) ARRAY_LONG_BE.get(buf, offset);
+    }
+
+    private static void doWriteInt64(byte[] buf, int offset, long val, boolean littleEndian) {
+        if (littleEndian) {
+            ARRAY_LONG_LE.set(buf, offset, val);
+        } else {
+            ARRAY_LONG_BE.set(buf, offset, val);
         }
     }
 
@@ -63,61 +118,19 @@ public class ByteIo {
     }
 
     public static Integer readInt32(byte[] buf, int offset, boolean littleEndian) {
-        if (littleEndian) {
-            return Integer.valueOf(
-                    (buf[offset] & 0xff)
-                            | ((buf[offset + 1] & 0xff) << 8)
-                            | ((buf[offset + 2] & 0xff) << 16)
-                            | ((buf[offset + 3] & 0xff) << 24));
-        }
-        return Integer.valueOf(
-                ((buf[offset] & 0xff) << 24)
-                        | ((buf[offset + 1] & 0xff) << 16)
-                        | ((buf[offset + 2] & 0xff) << 8)
-                        | (buf[offset + 3] & 0xff));
+        return Integer.valueOf(doReadInt32(buf, offset, littleEndian));
     }
 
     public static void writeInt32(byte[] buf, int offset, int val, boolean littleEndian) {
-        if (littleEndian) {
-            buf[offset] = (byte) (val & 0xff);
-            buf[offset + 1] = (byte) ((val >>> 8) & 0xff);
-            buf[offset + 2] = (byte) ((val >>> 16) & 0xff);
-            buf[offset + 3] = (byte) ((val >>> 24) & 0xff);
-        } else {
-            buf[offset] = (byte) ((val >>> 24) & 0xff);
-            buf[offset + 1] = (byte) ((val >>> 16) & 0xff);
-            buf[offset + 2] = (byte) ((val >>> 8) & 0xff);
-            buf[offset + 3] = (byte) (val & 0xff);
-        }
+        doWriteInt32(buf, offset, val, littleEndian);
     }
 
     public static long readUint32Primitive(byte[] buf, int offset, boolean littleEndian) {
-        if (littleEndian) {
-            return ((buf[offset] & 0xffL)
-                            | ((buf[offset + 1] & 0xffL) << 8L)
-                            | ((buf[offset + 2] & 0xffL) << 16L)
-                            | ((buf[offset + 3] & 0xffL) << 24L))
-                    & 0xffffffffL;
-        }
-        return (((buf[offset] & 0xffL) << 24L)
-                        | ((buf[offset + 1] & 0xffL) << 16L)
-                        | ((buf[offset + 2] & 0xffL) << 8L)
-                        | (buf[offset + 3] & 0xffL))
-                & 0xffffffffL;
+        return doReadInt32(buf, offset, littleEndian) & 0xffffffffL;
     }
 
     public static void writeUint32(byte[] buf, int offset, long val, boolean littleEndian) {
-        if (littleEndian) {
-            buf[offset] = (byte) (val & 0xffL);
-            buf[offset + 1] = (byte) ((val >>> 8L) & 0xffL);
-            buf[offset + 2] = (byte) ((val >>> 16L) & 0xffL);
-            buf[offset + 3] = (byte) ((val >>> 24L) & 0xffL);
-        } else {
-            buf[offset] = (byte) ((val >>> 24L) & 0xffL);
-            buf[offset + 1] = (byte) ((val >>> 16L) & 0xffL);
-            buf[offset + 2] = (byte) ((val >>> 8L) & 0xffL);
-            buf[offset + 3] = (byte) (val & 0xffL);
-        }
+        doWriteInt32(buf, offset, (int) val, littleEndian);
     }
 
     public static Object readUint32(byte[] buf, int offset, boolean littleEndian) {
@@ -125,51 +138,22 @@ public class ByteIo {
     }
 
     public static long readUint64Primitive(byte[] buf, int offset, boolean littleEndian) {
-        if (littleEndian) {
-            return ((buf[offset] & 0xffL)
-                    | ((buf[offset + 1] & 0xffL) << 8L)
-                    | ((buf[offset + 2] & 0xffL) << 16L)
-                    | ((buf[offset + 3] & 0xffL) << 24L)
-                    | ((buf[offset + 4] & 0xffL) << 32L)
-                    | ((buf[offset + 5] & 0xffL) << 40L)
-                    | ((buf[offset + 6] & 0xffL) << 48L)
-                    | ((buf[offset + 7] & 0xffL) << 56L));
-        }
-        return (((buf[offset] & 0xffL) << 56L)
-                | ((buf[offset + 1] & 0xffL) << 48L)
-                | ((buf[offset + 2] & 0xffL) << 40L)
-                | ((buf[offset + 3] & 0xffL) << 32L)
-                | ((buf[offset + 4] & 0xffL) << 24L)
-                | ((buf[offset + 5] & 0xffL) << 16L)
-                | ((buf[offset + 6] & 0xffL) << 8L)
-                | ((buf[offset + 7] & 0xffL) << 0L));
+        return doReadInt64(buf, offset, littleEndian);
     }
 
     public static void writeUint64(byte[] buf, int offset, long val, boolean littleEndian) {
-        if (littleEndian) {
-            buf[offset] = (byte) (val & 0xffL);
-            buf[offset + 1] = (byte) ((val >>> 8L) & 0xffL);
-            buf[offset + 2] = (byte) ((val >>> 16L) & 0xffL);
-            buf[offset + 3] = (byte) ((val >>> 24L) & 0xffL);
-            buf[offset + 4] = (byte) ((val >>> 32L) & 0xffL);
-            buf[offset + 5] = (byte) ((val >>> 40L) & 0xffL);
-            buf[offset + 6] = (byte) ((val >>> 48L) & 0xffL);
-            buf[offset + 7] = (byte) ((val >>> 56L) & 0xffL);
-        } else {
-            buf[offset] = (byte) ((val >>> 56L) & 0xffL);
-            buf[offset + 1] = (byte) ((val >>> 48L) & 0xffL);
-            buf[offset + 2] = (byte) ((val >>> 40L) & 0xffL);
-            buf[offset + 3] = (byte) ((val >>> 32L) & 0xffL);
-            buf[offset + 4] = (byte) ((val >>> 24L) & 0xffL);
-            buf[offset + 5] = (byte) ((val >>> 16L) & 0xffL);
-            buf[offset + 6] = (byte) ((val >>> 8L) & 0xffL);
-            buf[offset + 7] = (byte) (val & 0xffL);
-        }
+        doWriteInt64(buf, offset, val, littleEndian);
     }
 
     public static Float readFloat16(byte[] buf, int offset, boolean littleEndian) {
-        int bits = doReadInt16(buf, offset, littleEndian) & 0xffff;
+        return float16ToFloat(doReadInt16(buf, offset, littleEndian) & 0xffff);
+    }
 
+    public static void writeFloat16(byte[] buf, int offset, double val, boolean littleEndian) {
+        doWriteInt16(buf, offset, floatToFloat16(val), littleEndian);
+    }
+
+    static float float16ToFloat(int bits) {
         // Extract sign, exponent, and mantissa
         int sign = (bits >>> 15) & 0x1;
         int exponent = (bits >>> 10) & 0x1f;
@@ -203,13 +187,12 @@ public class ByteIo {
         }
     }
 
-    public static void writeFloat16(byte[] buf, int offset, double val, boolean littleEndian) {
+    static int floatToFloat16(double val) {
         float fval = (float) val;
 
         // Handle special cases
         if (Float.isNaN(fval)) {
-            doWriteInt16(buf, offset, 0x7e00, littleEndian);
-            return;
+            return 0x7e00;
         }
 
         int sign = (Float.floatToIntBits(fval) >>> 31) & 0x1;
@@ -217,14 +200,12 @@ public class ByteIo {
 
         if (Float.isInfinite(fval)) {
             // Infinity
-            doWriteInt16(buf, offset, (sign << 15) | 0x7c00, littleEndian);
-            return;
+            return (sign << 15) | 0x7c00;
         }
 
         if (absVal == 0.0f) {
             // Zero
-            doWriteInt16(buf, offset, sign << 15, littleEndian);
-            return;
+            return sign << 15;
         }
 
         // Convert to float16
@@ -238,16 +219,14 @@ public class ByteIo {
         double absValDouble = Math.abs(val);
         if (absValDouble >= 65520.0) {
             // Definite overflow to infinity
-            doWriteInt16(buf, offset, (sign << 15) | 0x7c00, littleEndian);
-            return;
+            return (sign << 15) | 0x7c00;
         } else if (absValDouble > 65504.0) {
             // Near overflow: value is between max finite and definite overflow
             // These values might round to 65504 or infinity depending on exact value
             // 65504 = 0x7BFF: exp=30, mantissa=0x3ff (all 1s)
             // Halfway point to next value would cause overflow
             // Values < 65520 should round to 65504
-            doWriteInt16(buf, offset, (sign << 15) | 0x7BFF, littleEndian);
-            return;
+            return (sign << 15) | 0x7BFF;
         }
         if (absVal < (float) FLOAT16_MIN_NORMAL) {
             // Denormalized number - IEEE 754 round-to-nearest-even
@@ -288,8 +267,7 @@ public class ByteIo {
             // See UNCOVERED_CODE_EXPLANATION.md for full mathematical proof.
             if (exponent >= 31) {
                 // Overflow to infinity
-                doWriteInt16(buf, offset, (sign << 15) | 0x7c00, littleEndian);
-                return;
+                return (sign << 15) | 0x7c00;
             }
 
             // Normalized mantissa processing
@@ -328,14 +306,12 @@ public class ByteIo {
                 // See UNCOVERED_CODE_EXPLANATION.md for full mathematical proof.
                 if (exponent >= 31) {
                     // Overflow to infinity
-                    doWriteInt16(buf, offset, (sign << 15) | 0x7c00, littleEndian);
-                    return;
+                    return (sign << 15) | 0x7c00;
                 }
             }
         }
 
-        int bits = (sign << 15) | (exponent << 10) | mantissa;
-        doWriteInt16(buf, offset, bits, littleEndian);
+        return (sign << 15) | (exponent << 10) | mantissa;
     }
 
     public static Float readFloat32(byte[] buf, int offset, boolean littleEndian) {
@@ -357,4 +333,195 @@ public class ByteIo {
         long base = Double.doubleToLongBits(val);
         writeUint64(buf, offset, base, littleEndian);
     }
+
+    /*
+     * The methods below read and write the bytes of a NativeArrayBuffer, whether they are held in
+     * an array or in a ByteBuffer. The ones that return primitives let typed arrays get and set
+     * their elements without boxing them.
+     */
+
+    static byte getInt8(NativeArrayBuffer buf, int offset) {
+        byte[] a = buf.buffer;
+        return a != null ? a[offset] : buf.byteBuffer.get(offset);
+    }
+
+    static void putInt8(NativeArrayBuffer buf, int offset, int val) {
+        byte[] a = buf.buffer;
+        if (a != null) {
+            a[offset] = (byte) val;
+        } else {
+            buf.byteBuffer.put(offset, (byte) val);
+        }
+    }
+
+    static short getInt16(NativeArrayBuffer buf, int offset, boolean littleEndian) {
+        byte[] a = buf.buffer;
+        if (a != null) {
+            return doReadInt16(a, offset, littleEndian);
+        }
+        return littleEndian
+                ? (short) BUFFER_SHORT_LE.get(buf.byteBuffer, offset)
+                : (short) BUFFER_SHORT_BE.get(buf.byteBuffer, offset);
+    }
+
+    static void putInt16(NativeArrayBuffer buf, int offset, int val, boolean littleEndian) {
+        byte[] a = buf.buffer;
+        if (a != null) {
+            doWriteInt16(a, offset, val, littleEndian);
+        } else if (littleEndian) {
+            BUFFER_SHORT_LE.set(buf.byteBuffer, offset, (short) val);
+        } else {
+            BUFFER_SHORT_BE.set(buf.byteBuffer, offset, (short) val);
+        }
+    }
+
+    static int getInt32(NativeArrayBuffer buf, int offset, boolean littleEndian) {
+        byte[] a = buf.buffer;
+        if (a != null) {
+            return doReadInt32(a, offset, littleEndian);
+        }
+        return littleEndian
+                ? (int) BUFFER_INT_LE.get(buf.byteBuffer, offset)
+                : (int) BUFFER_INT_BE.get(buf.byteBuffer, offset);
+    }
+
+    static void putInt32(NativeArrayBuffer buf, int offset, int val, boolean littleEndian) {
+        byte[] a = buf.buffer;
+        if (a != null) {
+            doWriteInt32(a, offset, val, littleEndian);
+        } else if (littleEndian) {
+            BUFFER_INT_LE.set(buf.byteBuffer, offset, val);
+        } else {
+            BUFFER_INT_BE.set(buf.byteBuffer, offset, val);
+        }
+    }
+
+    static long getInt64(NativeArrayBuffer buf, int offset, boolean littleEndian) {
+        byte[] a = buf.buffer;
+        if (a != null) {
+            return doReadInt64(a, offset, littleEndian);
+        }
+        return littleEndian
+                ? (long) BUFFER_LONG_LE.get(buf.byteBuffer, offset)
+                : (long) BUFFER_LONG_BE.get(buf.byteBuffer, offset);
+    }
+
+    static void putInt64(NativeArrayBuffer buf, int offset, long val, boolean littleEndian) {
+        byte[] a = buf.buffer;
+        if (a != null) {
+            doWriteInt64(a, offset, val, littleEndian);
+        } else if (littleEndian) {
+            BUFFER_LONG_LE.set(buf.byteBuffer, offset, val);
+        } else {
+            BUFFER_LONG_BE.set(buf.byteBuffer, offset, val);
+        }
+    }
+
+    static float getFloat16(NativeArrayBuffer buf, int offset, boolean littleEndian) {
+        return float16ToFloat(getInt16(buf, offset, littleEndian) & 0xffff);
+    }
+
+    static void putFloat16(NativeArrayBuffer buf, int offset, double val, boolean littleEndian) {
+        putInt16(buf, offset, floatToFloat16(val), littleEndian);
+    }
+
+    static float getFloat32(NativeArrayBuffer buf, int offset, boolean littleEndian) {
+        return Float.intBitsToFloat(getInt32(buf, offset, littleEndian));
+    }
+
+    static void putFloat32(NativeArrayBuffer buf, int offset, double val, boolean littleEndian) {
+        putInt32(buf, offset, Float.floatToIntBits((float) val), littleEndian);
+    }
+
+    static double getFloat64(NativeArrayBuffer buf, int offset, boolean littleEndian) {
+        return Double.longBitsToDouble(getInt64(buf, offset, littleEndian));
+    }
+
+    static void putFloat64(NativeArrayBuffer buf, int offset, double val, boolean littleEndian) {
+        putInt64(buf, offset, Double.doubleToLongBits(val), littleEndian);
+    }
+
+    static Byte readInt8(NativeArrayBuffer buf, int offset) {
+        return Byte.valueOf(getInt8(buf, offset));
+    }
+
+    static void writeInt8(NativeArrayBuffer buf, int offset, int val) {
+        putInt8(buf, offset, val);
+    }
+
+    static Integer readUint8(NativeArrayBuffer buf, int offset) {
+        return Integer.valueOf(getInt8(buf, offset) & 0xff);
+    }
+
+    static void writeUint8(NativeArrayBuffer buf, int offset, int val) {
+        putInt8(buf, offset, val);
+    }
+
+    static Short readInt16(NativeArrayBuffer buf, int offset, boolean littleEndian) {
+        return Short.valueOf(getInt16(buf, offset, littleEndian));
+    }
+
+    static void writeInt16(NativeArrayBuffer buf, int offset, int val, boolean littleEndian) {
+        putInt16(buf, offset, val, littleEndian);
+    }
+
+    static Integer readUint16(NativeArrayBuffer buf, int offset, boolean littleEndian) {
+        return Integer.valueOf(getInt16(buf, offset, littleEndian) & 0xffff);
+    }
+
+    static void writeUint16(NativeArrayBuffer buf, int offset, int val, boolean littleEndian) {
+        putInt16(buf, offset, val, littleEndian);
+    }
+
+    static Integer readInt32(NativeArrayBuffer buf, int offset, boolean littleEndian) {
+        return Integer.valueOf(getInt32(buf, offset, littleEndian));
+    }
+
+    static void writeInt32(NativeArrayBuffer buf, int offset, int val, boolean littleEndian) {
+        putInt32(buf, offset, val, littleEndian);
+    }
+
+    static long readUint32Primitive(NativeArrayBuffer buf, int offset, boolean littleEndian) {
+        return getInt32(buf, offset, littleEndian) & 0xffffffffL;
+    }
+
+    static void writeUint32(NativeArrayBuffer buf, int offset, long val, boolean littleEndian) {
+        putInt32(buf, offset, (int) val, littleEndian);
+    }
+
+    static Object readUint32(NativeArrayBuffer buf, int offset, boolean littleEndian) {
+        return Long.valueOf(readUint32Primitive(buf, offset, littleEndian));
+    }
+
+    static long readUint64Primitive(NativeArrayBuffer buf, int offset, boolean littleEndian) {
+        return getInt64(buf, offset, littleEndian);
+    }
+
+    static void writeUint64(NativeArrayBuffer buf, int offset, long val, boolean littleEndian) {
+        putInt64(buf, offset, val, littleEndian);
+    }
+
+    static Float readFloat16(NativeArrayBuffer buf, int offset, boolean littleEndian) {
+        return Float.valueOf(getFloat16(buf, offset, littleEndian));
+    }
+
+    static void writeFloat16(NativeArrayBuffer buf, int offset, double val, boolean littleEndian) {
+        putFloat16(buf, offset, val, littleEndian);
+    }
+
+    static Float readFloat32(NativeArrayBuffer buf, int offset, boolean littleEndian) {
+        return Float.valueOf(getFloat32(buf, offset, littleEndian));
+    }
+
+    static void writeFloat32(NativeArrayBuffer buf, int offset, double val, boolean littleEndian) {
+        putFloat32(buf, offset, val, littleEndian);
+    }
+
+    static Double readFloat64(NativeArrayBuffer buf, int offset, boolean littleEndian) {
+        return Double.valueOf(getFloat64(buf, offset, littleEndian));
+    }
+
+    static void writeFloat64(NativeArrayBuffer buf, int offset, double val, boolean littleEndian) {
+        putFloat64(buf, offset, val, littleEndian);
+    }
 }
@@ -19,7 +19,10 @@ public class Conversions {
     }
 
     public static int toUint8Clamp(Object arg) {
-        double d = ScriptRuntime.toNumber(arg);
+        return toUint8Clamp(ScriptRuntime.toNumber(arg));
+    }
+
+    public static int toUint8Clamp(double d) {
         if (d <= 0.0) {
             return 0;
         }
@@ -10,7 +10,11 @@ import static org.mozilla.javascript.ClassDescriptor.Builder.value;
 import static org.mozilla.javascript.ClassDescriptor.Destination.CTOR;
 import static org.mozilla.javascript.ClassDescriptor.Destination.PROTO;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serial;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import org.mozilla.javascript.AbstractEcmaObjectOperations;
 import org.mozilla.javascript.ClassDescriptor;
 import org.mozilla.javascript.Constructable;
@@ -28,7 +32,8 @@ import org.mozilla.javascript.VarScope;
 
 /**
  * A NativeArrayBuffer is the backing buffer for a typed array. Used inside JavaScript code, it
- * implements the ArrayBuffer interface. Used directly from Java, it simply holds a byte array.
+ * implements the ArrayBuffer interface. Used directly from Java, it simply holds a byte array, or
+ * wraps a ByteBuffer that holds its bytes outside the Java heap.
  */
 public class NativeArrayBuffer extends ScriptableObject {
     @Serial private static final long serialVersionUID = 3110411773054879549L;
@@ -74,6 +79,10 @@ public class NativeArrayBuffer extends ScriptableObject {
     }
 
     byte[] buffer;
+    // The bytes of a buffer that wraps a ByteBuffer rather than an array. Views of the
+    // buffer read and write it directly, so it is not copied. A serialized buffer holds a copy
+    // of the bytes in an array instead.
+    transient ByteBuffer byteBuffer;
     // ES2024: maxByteLength for resizable buffers (-1 = fixed-length)
     private int maxByteLength = -1;
 
@@ -108,25 +117,113 @@ public class NativeArrayBuffer extends ScriptableObject {
         }
     }
 
+    /**
+     * Create a buffer that holds the bytes of the given ByteBuffer between its position and its
+     * limit, without copying them. The ByteBuffer may be direct, or a MappedByteBuffer that maps a
+     * file into memory, so that scripts can work on data that is not on the Java heap. Changes made
+     * by scripts are visible in the ByteBuffer, and the other way around.
+     *
+     * @param buf the bytes of the new buffer
+     * @throws IllegalArgumentException if the ByteBuffer is read-only
+     */
+    public NativeArrayBuffer(ByteBuffer buf) {
+        if (buf.isReadOnly()) {
+            throw new IllegalArgumentException("ByteBuffer is read-only");
+        }
+        if (buf.hasArray()
+                && buf.arrayOffset() == 0
+                && buf.position() == 0
+                && buf.limit() == buf.array().length) {
+            // Arrays are faster to access, so use the array of a wrapped byte[] directly
+            buffer = buf.array();
+        } else {
+            byteBuffer = buf.slice();
+        }
+    }
+
     /** Get the number of bytes in the buffer. */
     public int getLength() {
-        return buffer != null ? buffer.length : 0;
+        if (buffer != null) {
+            return buffer.length;
+        }
+        return byteBuffer != null ? byteBuffer.capacity() : 0;
     }
 
     /**
      * Return the actual bytes that back the buffer. This is a reference to the real buffer, so
-     * changes to bytes here will be reflected in the actual object and all its views.
+     * changes to bytes here will be reflected in the actual object and all its views. This is null
+     * if the buffer was created from a ByteBuffer that is not backed by an array.
+     *
+     * @see #getByteBuffer()
      */
     public byte[] getBuffer() {
         return buffer;
     }
 
+    /**
+     * Return a ByteBuffer that shares the bytes of this buffer, whether they are held in an array
+     * or in the ByteBuffer that the buffer was created from, or null if the buffer is detached.
+     */
+    public ByteBuffer getByteBuffer() {
+        if (buffer != null) {
+            return ByteBuffer.wrap(buffer);
+        }
+        return byteBuffer != null ? byteBuffer.duplicate() : null;
+    }
+
     public void detach() {
         buffer = null;
+        byteBuffer = null;
     }
 
     public boolean isDetached() {
-        return buffer == null;
+        return buffer == null && byteBuffer == null;
+    }
+
+    @Serial
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        if (byteBuffer != null) {
+            byte[] copy = new byte[byteBuffer.capacity()];
+            byteBuffer.get(0, copy);
+            fields.put("buffer", copy);
+        } else {
+            fields.put("buffer", buffer);
+        }
+        fields.put("maxByteLength", maxByteLength);
+        out.writeFields();
+    }
+
+    /**
+     * Copy bytes from one buffer to another, or within the same buffer, where the ranges may
+     * overlap. The ranges must be within both buffers.
+     */
+    static void copyBytes(
+            NativeArrayBuffer src, int srcPos, NativeArrayBuffer dest, int destPos, int len) {
+        if (src.buffer != null && dest.buffer != null) {
+            System.arraycopy(src.buffer, srcPos, dest.buffer, destPos, len);
+        } else if (src.byteBuffer == dest.byteBuffer) {
+            // Overlapping bulk copies between ByteBuffers are not well-defined
+            byte[] tmp = new byte[len];
+            src.byteBuffer.get(srcPos, tmp);
+            dest.byteBuffer.put(destPos, tmp);
+        } else {
+            dest.getByteBuffer().put(destPos, src.getByteBuffer(), srcPos, len);
+        }
+    }
+
+    /**
+     * Fill "len" bytes starting at position "pos" with copies of the "size" bytes that are there
+     * already, as when filling an array with copies of its first element.
+     */
+    void repeatBytes(int pos, int size, int len) {
+        if (size == 1 && buffer != null) {
+            Arrays.fill(buffer, pos + 1, pos + len, buffer[pos]);
+            return;
+        }
+        for (int done = size; done < len; done *= 2) {
+            copyBytes(this, pos, this, pos + done, Math.min(done, len - done));
+        }
     }
 
     /**
@@ -150,7 +247,7 @@ public class NativeArrayBuffer extends ScriptableObject {
         int len = end - start;
 
         NativeArrayBuffer newBuf = new NativeArrayBuffer(len);
-        System.arraycopy(buffer, start, newBuf.buffer, 0, len);
+        copyBytes(this, start, newBuf, 0, len);
         return newBuf;
     }
 
@@ -237,7 +334,7 @@ public class NativeArrayBuffer extends ScriptableObject {
             throw ScriptRuntime.typeErrorById("msg.arraybuf.smaller.len", len, actualLength);
         }
 
-        System.arraycopy(self.buffer, startI, buf.buffer, 0, len);
+        copyBytes(self, startI, buf, 0, len);
         return buf;
     }
 
@@ -281,7 +378,7 @@ public class NativeArrayBuffer extends ScriptableObject {
         var newBuffer = (NativeArrayBuffer) newBuf;
         int copyLength = Math.min(newLength, getLength());
         if (copyLength > 0) {
-            System.arraycopy(buffer, 0, newBuffer.buffer, 0, copyLength);
+            copyBytes(this, 0, newBuffer, 0, copyLength);
         }
         detach();
         return newBuffer;
@@ -83,9 +83,7 @@ public class NativeBigInt64Array extends NativeBigIntArrayView {
         }
         long base =
                 ByteIo.readUint64Primitive(
-                        arrayBuffer.buffer,
-                        (index * BYTES_PER_ELEMENT) + offset,
-                        useLittleEndian());
+                        arrayBuffer, (index * BYTES_PER_ELEMENT) + offset, useLittleEndian());
         return BigInteger.valueOf(base);
     }
 
@@ -99,7 +97,7 @@ public class NativeBigInt64Array extends NativeBigIntArrayView {
         long base = val.longValue();
 
         ByteIo.writeUint64(
-                arrayBuffer.buffer, (index * BYTES_PER_ELEMENT) + offset, base, useLittleEndian());
+                arrayBuffer, (index * BYTES_PER_ELEMENT) + offset, base, useLittleEndian());
         return null;
     }
 
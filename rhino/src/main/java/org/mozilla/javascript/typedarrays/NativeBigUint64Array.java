@@ -83,9 +83,7 @@ public class NativeBigUint64Array extends NativeBigIntArrayView {
         }
         long base =
                 ByteIo.readUint64Primitive(
-                        arrayBuffer.buffer,
-                        (index * BYTES_PER_ELEMENT) + offset,
-                        useLittleEndian());
+                        arrayBuffer, (index * BYTES_PER_ELEMENT) + offset, useLittleEndian());
         if ((base & 0x8000000000000000l) == 0) {
             return BigInteger.valueOf(base);
         } else {
@@ -106,7 +104,7 @@ public class NativeBigUint64Array extends NativeBigIntArrayView {
         long base = val.longValue();
 
         ByteIo.writeUint64(
-                arrayBuffer.buffer, (index * BYTES_PER_ELEMENT) + offset, base, useLittleEndian());
+                arrayBuffer, (index * BYTES_PER_ELEMENT) + offset, base, useLittleEndian());
         return null;
     }
 
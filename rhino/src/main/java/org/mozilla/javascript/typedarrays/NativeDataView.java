@@ -219,20 +219,20 @@ public class NativeDataView extends NativeArrayBufferView {
         switch (bytes) {
             case 1:
                 if (signed) {
-                    return ByteIo.readInt8(arrayBuffer.buffer, offset + pos);
+                    return ByteIo.readInt8(arrayBuffer, offset + pos);
                 } else {
-                    return ByteIo.readUint8(arrayBuffer.buffer, offset + pos);
+                    return ByteIo.readUint8(arrayBuffer, offset + pos);
                 }
             case 2:
                 if (signed) {
-                    return ByteIo.readInt16(arrayBuffer.buffer, offset + pos, littleEndian);
+                    return ByteIo.readInt16(arrayBuffer, offset + pos, littleEndian);
                 } else {
-                    return ByteIo.readUint16(arrayBuffer.buffer, offset + pos, littleEndian);
+                    return ByteIo.readUint16(arrayBuffer, offset + pos, littleEndian);
                 }
             case 4:
                 return signed
-                        ? ByteIo.readInt32(arrayBuffer.buffer, offset + pos, littleEndian)
-                        : ByteIo.readUint32(arrayBuffer.buffer, offset + pos, littleEndian);
+                        ? ByteIo.readInt32(arrayBuffer, offset + pos, littleEndian)
+                        : ByteIo.readUint32(arrayBuffer, offset + pos, littleEndian);
             default:
                 throw new AssertionError();
         }
@@ -272,11 +272,11 @@ public class NativeDataView extends NativeArrayBufferView {
 
         switch (bytes) {
             case 2:
-                return ByteIo.readFloat16(arrayBuffer.buffer, offset + pos, littleEndian);
+                return ByteIo.readFloat16(arrayBuffer, offset + pos, littleEndian);
             case 4:
-                return ByteIo.readFloat32(arrayBuffer.buffer, offset + pos, littleEndian);
+                return ByteIo.readFloat32(arrayBuffer, offset + pos, littleEndian);
             case 8:
-                return ByteIo.readFloat64(arrayBuffer.buffer, offset + pos, littleEndian);
+                return ByteIo.readFloat64(arrayBuffer, offset + pos, littleEndian);
             default:
                 throw new AssertionError();
         }
@@ -347,13 +347,13 @@ public class NativeDataView extends NativeArrayBufferView {
                     if (pos + bytes > viewSize) {
                         throw ScriptRuntime.rangeErrorById("msg.dataview.offset.range");
                     }
-                    ByteIo.writeInt8(arrayBuffer.buffer, offset + pos, value);
+                    ByteIo.writeInt8(arrayBuffer, offset + pos, value);
                 } else {
                     int value = Conversions.toUint8(val);
                     if (pos + bytes > viewSize) {
                         throw ScriptRuntime.rangeErrorById("msg.dataview.offset.range");
                     }
-                    ByteIo.writeUint8(arrayBuffer.buffer, offset + pos, value);
+                    ByteIo.writeUint8(arrayBuffer, offset + pos, value);
                 }
                 break;
             case 2:
@@ -362,13 +362,13 @@ public class NativeDataView extends NativeArrayBufferView {
                     if (pos + bytes > viewSize) {
                         throw ScriptRuntime.rangeErrorById("msg.dataview.offset.range");
                     }
-                    ByteIo.writeInt16(arrayBuffer.buffer, offset + pos, value, littleEndian);
+                    ByteIo.writeInt16(arrayBuffer, offset + pos, value, littleEndian);
                 } else {
                     int value = Conversions.toUint16(val);
                     if (pos + bytes > viewSize) {
                         throw ScriptRuntime.rangeErrorById("msg.dataview.offset.range");
                     }
-                    ByteIo.writeUint16(arrayBuffer.buffer, offset + pos, value, littleEndian);
+                    ByteIo.writeUint16(arrayBuffer, offset + pos, value, littleEndian);
                 }
                 break;
             case 4:
@@ -377,13 +377,13 @@ public class NativeDataView extends NativeArrayBufferView {
                     if (pos + bytes > viewSize) {
                         throw ScriptRuntime.rangeErrorById("msg.dataview.offset.range");
                     }
-                    ByteIo.writeInt32(arrayBuffer.buffer, offset + pos, value, littleEndian);
+                    ByteIo.writeInt32(arrayBuffer, offset + pos, value, littleEndian);
                 } else {
                     long value = Conversions.toUint32(val);
                     if (pos + bytes > viewSize) {
                         throw ScriptRuntime.rangeErrorById("msg.dataview.offset.range");
                     }
-                    ByteIo.writeUint32(arrayBuffer.buffer, offset + pos, value, littleEndian);
+                    ByteIo.writeUint32(arrayBuffer, offset + pos, value, littleEndian);
                 }
                 break;
             default:
@@ -430,13 +430,13 @@ public class NativeDataView extends NativeArrayBufferView {
 
         switch (bytes) {
             case 2:
-                ByteIo.writeFloat16(arrayBuffer.buffer, offset + pos, val, littleEndian);
+                ByteIo.writeFloat16(arrayBuffer, offset + pos, val, littleEndian);
                 break;
             case 4:
-                ByteIo.writeFloat32(arrayBuffer.buffer, offset + pos, val, littleEndian);
+                ByteIo.writeFloat32(arrayBuffer, offset + pos, val, littleEndian);
                 break;
             case 8:
-                ByteIo.writeFloat64(arrayBuffer.buffer, offset + pos, val, littleEndian);
+                ByteIo.writeFloat64(arrayBuffer, offset + pos, val, littleEndian);
                 break;
             default:
                 throw new AssertionError();
@@ -469,7 +469,7 @@ public class NativeDataView extends NativeArrayBufferView {
             throw ScriptRuntime.rangeErrorById("msg.dataview.offset.range");
         }
 
-        long base = ByteIo.readUint64Primitive(arrayBuffer.buffer, offset + pos, littleEndian);
+        long base = ByteIo.readUint64Primitive(arrayBuffer, offset + pos, littleEndian);
 
         if (signed) {
             // Interpret as signed 64-bit integer
@@ -521,7 +521,7 @@ public class NativeDataView extends NativeArrayBufferView {
         }
 
         long base = val.longValue();
-        ByteIo.writeUint64(arrayBuffer.buffer, offset + pos, base, littleEndian);
+        ByteIo.writeUint64(arrayBuffer, offset + pos, base, littleEndian);
     }
 
     public boolean isDataViewOutOfBounds() {
@@ -81,7 +81,7 @@ public class NativeFloat32Array extends NativeTypedArrayView<Float> {
             return Undefined.instance;
         }
         return ByteIo.readFloat32(
-                arrayBuffer.buffer, (index * BYTES_PER_ELEMENT) + offset, useLittleEndian());
+                arrayBuffer, (index * BYTES_PER_ELEMENT) + offset, useLittleEndian());
     }
 
     @Override
@@ -91,10 +91,27 @@ public class NativeFloat32Array extends NativeTypedArrayView<Float> {
             return Undefined.instance;
         }
         ByteIo.writeFloat32(
-                arrayBuffer.buffer, (index * BYTES_PER_ELEMENT) + offset, val, useLittleEndian());
+                arrayBuffer, (index * BYTES_PER_ELEMENT) + offset, val, useLittleEndian());
         return null;
     }
 
+    @Override
+    public double getDouble(int index) {
+        if (checkIndex(index)) {
+            return Double.NaN;
+        }
+        int pos = (index * BYTES_PER_ELEMENT) + offset;
+        return ByteIo.getFloat32(arrayBuffer, pos, useLittleEndian());
+    }
+
+    @Override
+    public void setDouble(int index, double value) {
+        if (!checkIndex(index)) {
+            int pos = (index * BYTES_PER_ELEMENT) + offset;
+            ByteIo.putFloat32(arrayBuffer, pos, value, useLittleEndian());
+        }
+    }
+
     @Override
     public Float get(int i) {
         ensureIndex(i);
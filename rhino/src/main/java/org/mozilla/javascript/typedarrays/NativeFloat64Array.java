@@ -82,9 +82,7 @@ public class NativeFloat64Array extends NativeTypedArrayView<Double> {
         }
         long base =
                 ByteIo.readUint64Primitive(
-                        arrayBuffer.buffer,
-                        (index * BYTES_PER_ELEMENT) + offset,
-                        useLittleEndian());
+                        arrayBuffer, (index * BYTES_PER_ELEMENT) + offset, useLittleEndian());
         return Double.valueOf(Double.longBitsToDouble(base));
     }
 
@@ -96,10 +94,27 @@ public class NativeFloat64Array extends NativeTypedArrayView<Double> {
         }
         long base = Double.doubleToLongBits(val);
         ByteIo.writeUint64(
-                arrayBuffer.buffer, (index * BYTES_PER_ELEMENT) + offset, base, useLittleEndian());
+                arrayBuffer, (index * BYTES_PER_ELEMENT) + offset, base, useLittleEndian());
         return null;
     }
 
+    @Override
+    public double getDouble(int index) {
+        if (checkIndex(index)) {
+            return Double.NaN;
+        }
+        int pos = (index * BYTES_PER_ELEMENT) + offset;
+        return ByteIo.getFloat64(arrayBuffer, pos, useLittleEndian());
+    }
+
+    @Override
+    public void setDouble(int index, double value) {
+        if (!checkIndex(index)) {
+            int pos = (index * BYTES_PER_ELEMENT) + offset;
+            ByteIo.putFloat64(arrayBuffer, pos, value, useLittleEndian());
+        }
+    }
+
     @Override
     public Double get(int i) {
         ensureIndex(i);
@@ -81,7 +81,7 @@ public class NativeInt32Array extends NativeTypedArrayView<Integer> {
             return Undefined.instance;
         }
         return ByteIo.readInt32(
-                arrayBuffer.buffer, (index * BYTES_PER_ELEMENT) + offset, useLittleEndian());
+                arrayBuffer, (index * BYTES_PER_ELEMENT) + offset, useLittleEndian());
     }
 
     @Override
@@ -91,10 +91,27 @@ public class NativeInt32Array extends NativeTypedArrayView<Integer> {
             return Undefined.instance;
         }
         ByteIo.writeInt32(
-                arrayBuffer.buffer, (index * BYTES_PER_ELEMENT) + offset, val, useLittleEndian());
+                arrayBuffer, (index * BYTES_PER_ELEMENT) + offset, val, useLittleEndian());
         return null;
     }
 
+    @Override
+    public double getDouble(int index) {
+        if (checkIndex(index)) {
+            return Double.NaN;
+        }
+        int pos = (index * BYTES_PER_ELEMENT) + offset;
+        return ByteIo.getInt32(arrayBuffer, pos, useLittleEndian());
+    }
+
+    @Override
+    public void setDouble(int index, double value) {
+        if (!checkIndex(index)) {
+            int pos = (index * BYTES_PER_ELEMENT) + offset;
+            ByteIo.putInt32(arrayBuffer, pos, ScriptRuntime.toInt32(value), useLittleEndian());
+        }
+    }
+
     @Override
     public Integer get(int i) {
         ensureIndex(i);
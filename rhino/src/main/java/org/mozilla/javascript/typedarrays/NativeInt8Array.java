@@ -14,6 +14,7 @@ import java.io.Serial;
 import org.mozilla.javascript.ClassDescriptor;
 import org.mozilla.javascript.Context;
 import org.mozilla.javascript.JSFunction;
+import org.mozilla.javascript.ScriptRuntime;
 import org.mozilla.javascript.ScriptRuntimeES6;
 import org.mozilla.javascript.SymbolKey;
 import org.mozilla.javascript.Undefined;
@@ -78,7 +79,7 @@ public class NativeInt8Array extends NativeTypedArrayView<Byte> {
         if (checkIndex(index)) {
             return Undefined.instance;
         }
-        return ByteIo.readInt8(arrayBuffer.buffer, index + offset);
+        return ByteIo.readInt8(arrayBuffer, index + offset);
     }
 
     @Override
@@ -87,10 +88,25 @@ public class NativeInt8Array extends NativeTypedArrayView<Byte> {
         if (checkIndex(index)) {
             return Undefined.instance;
         }
-        ByteIo.writeInt8(arrayBuffer.buffer, index + offset, val);
+        ByteIo.writeInt8(arrayBuffer, index + offset, val);
         return null;
     }
 
+    @Override
+    public double getDouble(int index) {
+        if (checkIndex(index)) {
+            return Double.NaN;
+        }
+        return ByteIo.getInt8(arrayBuffer, index + offset);
+    }
+
+    @Override
+    public void setDouble(int index, double value) {
+        if (!checkIndex(index)) {
+            ByteIo.putInt8(arrayBuffer, index + offset, ScriptRuntime.toInt32(value));
+        }
+    }
+
     // List implementation (much of it handled by the superclass)
 
     @Override
@@ -387,6 +387,23 @@ public abstract class NativeTypedArrayView<T> extends NativeArrayBufferView
 
     protected abstract Object js_set(int index, Object c);
 
+    /**
+     * Return the element at the given index as a double, or NaN if the index is out of range.
+     * Arrays of numbers do this without boxing the element, which lets compiled scripts and Java
+     * code that work on numbers avoid allocating.
+     */
+    public double getDouble(int index) {
+        return ScriptRuntime.toNumber(js_get(index));
+    }
+
+    /**
+     * Set the element at the given index to a number, converted as it would be when set by a
+     * script. Nothing happens if the index is out of range.
+     */
+    public void setDouble(int index, double value) {
+        js_set(index, value);
+    }
+
     protected Object toNumeric(Object num) {
         return ScriptRuntime.toNumber(num);
     }
@@ -610,7 +627,16 @@ public abstract class NativeTypedArrayView<T> extends NativeArrayBufferView
         }
 
         int targetOffset = (int) dbloff;
-        if (source.arrayBuffer == arrayBuffer) {
+        if (source.getClass() == getClass()) {
+            // Elements of the same type are copied as bytes, which handles overlapping copies
+            int size = getBytesPerElement();
+            NativeArrayBuffer.copyBytes(
+                    source.arrayBuffer,
+                    source.offset,
+                    arrayBuffer,
+                    offset + (targetOffset * size),
+                    srcLength * size);
+        } else if (source.arrayBuffer == arrayBuffer) {
             // Copy to temporary space first, as per spec, to avoid messing up overlapping copies
             Object[] tmp = new Object[srcLength];
             for (int i = 0; i < srcLength; i++) {
@@ -619,6 +645,10 @@ public abstract class NativeTypedArrayView<T> extends NativeArrayBufferView
             for (int i = 0; i < srcLength; i++) {
                 js_set(i + targetOffset, tmp[i]);
             }
+        } else if (!(source instanceof NativeBigIntArrayView)) {
+            for (int i = 0; i < srcLength; i++) {
+                setDouble(i + targetOffset, source.getDouble(i));
+            }
         } else {
             for (int i = 0; i < srcLength; i++) {
                 js_set(i + targetOffset, source.js_get(i));
@@ -1021,11 +1051,23 @@ public abstract class NativeTypedArrayView<T> extends NativeArrayBufferView
 
             end = Math.min(end, self.getLength());
 
-            int n = 0;
-            for (int i = (int) begin; i < end; i++) {
-                Object val = self.js_get(i);
-                a.js_set(n, val);
-                n++;
+            if (a.getClass() == self.getClass()) {
+                if (begin < end) {
+                    int size = self.getBytesPerElement();
+                    NativeArrayBuffer.copyBytes(
+                            self.arrayBuffer,
+                            self.offset + ((int) begin * size),
+                            a.arrayBuffer,
+                            a.offset,
+                            (int) (end - begin) * size);
+                }
+            } else {
+                int n = 0;
+                for (int i = (int) begin; i < end; i++) {
+                    Object val = self.js_get(i);
+                    a.js_set(n, val);
+                    n++;
+                }
             }
         }
 
@@ -1132,8 +1174,13 @@ public abstract class NativeTypedArrayView<T> extends NativeArrayBufferView
             throw ScriptRuntime.typeErrorById("msg.typed.array.out.of.bounds");
         }
 
-        for (int i = (int) k; i < fin; i++) {
-            self.js_set(i, value);
+        int end = (int) Math.min(fin, self.getLength());
+        if (k < end) {
+            // Set the first element, then copy its bytes over the others
+            self.js_set((int) k, value);
+            int size = self.getBytesPerElement();
+            self.arrayBuffer.repeatBytes(
+                    self.offset + ((int) k * size), size, (end - (int) k) * size);
         }
 
         return self;
@@ -1214,18 +1261,15 @@ public abstract class NativeTypedArrayView<T> extends NativeArrayBufferView
             len = self.getLength();
             count = Math.min(Math.min(count, len - from), len - to);
 
-            int direction = 1;
-            if (from < to && to < from + count) {
-                direction = -1;
-                from = from + count - 1;
-                to = to + count - 1;
-            }
-
-            for (; count > 0; count--) {
-                final Object temp = self.js_get((int) from);
-                self.js_set((int) to, temp);
-                from += direction;
-                to += direction;
+            if (count > 0) {
+                // The elements are copied as bytes, which handles overlapping ranges
+                int size = self.getBytesPerElement();
+                NativeArrayBuffer.copyBytes(
+                        self.arrayBuffer,
+                        self.offset + ((int) from * size),
+                        self.arrayBuffer,
+                        self.offset + ((int) to * size),
+                        (int) count * size);
             }
         }
 
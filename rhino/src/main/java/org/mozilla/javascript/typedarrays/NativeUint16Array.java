@@ -14,6 +14,7 @@ import java.io.Serial;
 import org.mozilla.javascript.ClassDescriptor;
 import org.mozilla.javascript.Context;
 import org.mozilla.javascript.JSFunction;
+import org.mozilla.javascript.ScriptRuntime;
 import org.mozilla.javascript.ScriptRuntimeES6;
 import org.mozilla.javascript.SymbolKey;
 import org.mozilla.javascript.Undefined;
@@ -80,7 +81,7 @@ public class NativeUint16Array extends NativeTypedArrayView<Integer> {
             return Undefined.instance;
         }
         return ByteIo.readUint16(
-                arrayBuffer.buffer, (index * BYTES_PER_ELEMENT) + offset, useLittleEndian());
+                arrayBuffer, (index * BYTES_PER_ELEMENT) + offset, useLittleEndian());
     }
 
     @Override
@@ -90,10 +91,27 @@ public class NativeUint16Array extends NativeTypedArrayView<Integer> {
             return Undefined.instance;
         }
         ByteIo.writeUint16(
-                arrayBuffer.buffer, (index * BYTES_PER_ELEMENT) + offset, val, useLittleEndian());
+                arrayBuffer, (index * BYTES_PER_ELEMENT) + offset, val, useLittleEndian());
         return null;
     }
 
+    @Override
+    public double getDouble(int index) {
+        if (checkIndex(index)) {
+            return Double.NaN;
+        }
+        int pos = (index * BYTES_PER_ELEMENT) + offset;
+        return ByteIo.getInt16(arrayBuffer, pos, useLittleEndian()) & 0xffff;
+    }
+
+    @Override
+    public void setDouble(int index, double value) {
+        if (!checkIndex(index)) {
+            int pos = (index * BYTES_PER_ELEMENT) + offset;
+            ByteIo.putInt16(arrayBuffer, pos, ScriptRuntime.toInt32(value), useLittleEndian());
+        }
+    }
+
     @Override
     public Integer get(int i) {
         ensureIndex(i);
@@ -14,6 +14,7 @@ import java.io.Serial;
 import org.mozilla.javascript.ClassDescriptor;
 import org.mozilla.javascript.Context;
 import org.mozilla.javascript.JSFunction;
+import org.mozilla.javascript.ScriptRuntime;
 import org.mozilla.javascript.ScriptRuntimeES6;
 import org.mozilla.javascript.SymbolKey;
 import org.mozilla.javascript.Undefined;
@@ -80,7 +81,7 @@ public class NativeUint32Array extends NativeTypedArrayView<Long> {
             return Undefined.instance;
         }
         return ByteIo.readUint32(
-                arrayBuffer.buffer, (index * BYTES_PER_ELEMENT) + offset, useLittleEndian());
+                arrayBuffer, (index * BYTES_PER_ELEMENT) + offset, useLittleEndian());
     }
 
     @Override
@@ -90,10 +91,27 @@ public class NativeUint32Array extends NativeTypedArrayView<Long> {
             return Undefined.instance;
         }
         ByteIo.writeUint32(
-                arrayBuffer.buffer, (index * BYTES_PER_ELEMENT) + offset, val, useLittleEndian());
+                arrayBuffer, (index * BYTES_PER_ELEMENT) + offset, val, useLittleEndian());
         return null;
     }
 
+    @Override
+    public double getDouble(int index) {
+        if (checkIndex(index)) {
+            return Double.NaN;
+        }
+        int pos = (index * BYTES_PER_ELEMENT) + offset;
+        return ByteIo.getInt32(arrayBuffer, pos, useLittleEndian()) & 0xffffffffL;
+    }
+
+    @Override
+    public void setDouble(int index, double value) {
+        if (!checkIndex(index)) {
+            int pos = (index * BYTES_PER_ELEMENT) + offset;
+            ByteIo.putInt32(arrayBuffer, pos, ScriptRuntime.toInt32(value), useLittleEndian());
+        }
+    }
+
     @Override
     public Long get(int i) {
         ensureIndex(i);
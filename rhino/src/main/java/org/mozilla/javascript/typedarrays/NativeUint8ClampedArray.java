@@ -80,7 +80,7 @@ public class NativeUint8ClampedArray extends NativeTypedArrayView<Integer> {
         if (checkIndex(index)) {
             return Undefined.instance;
         }
-        return ByteIo.readUint8(arrayBuffer.buffer, index + offset);
+        return ByteIo.readUint8(arrayBuffer, index + offset);
     }
 
     @Override
@@ -89,10 +89,25 @@ public class NativeUint8ClampedArray extends NativeTypedArrayView<Integer> {
         if (checkIndex(index)) {
             return Undefined.instance;
         }
-        ByteIo.writeUint8(arrayBuffer.buffer, index + offset, val);
+        ByteIo.writeUint8(arrayBuffer, index + offset, val);
         return null;
     }
 
+    @Override
+    public double getDouble(int index) {
+        if (checkIndex(index)) {
+            return Double.NaN;
+        }
+        return ByteIo.getInt8(arrayBuffer, index + offset) & 0xff;
+    }
+
+    @Override
+    public void setDouble(int index, double value) {
+        if (!checkIndex(index)) {
+            ByteIo.putInt8(arrayBuffer, index + offset, Conversions.toUint8Clamp(value));
+        }
+    }
+
     @Override
     public Integer get(int i) {
         ensureIndex(i);
@@ -0,0 +1,144 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/. */
+
+package org.mozilla.javascript;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+public class BackgroundCompilationTest {
+    private static final String SOURCE =
+            "function fib(n) { return n < 2 ? n : fib(n - 1) + fib(n - 2); }\n"
+                    + "var re = /b+/g;\n"
+                    + "fib(15) + ':' + 'abbbc'.replace(re, '-') + ':' + `${typeof fib}`";
+
+    private static final String EXPECTED = "610:a-c:function";
+
+    /** Queues compilation tasks, so that a test decides when they run. */
+    private static final class ManualExecutor implements Executor {
+        final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+        }
+
+        void runAll() {
+            tasks.forEach(Runnable::run);
+            tasks.clear();
+        }
+    }
+
+    private static boolean isCompiled(Script script) {
+        return ((InterpreterData<?>) ((JSScript) script).getDescriptor().getCode()).isTieredUp();
+    }
+
+    private static Script compile(ContextFactory factory, String source) {
+        try (Context cx = factory.enterContext()) {
+            cx.setLanguageVersion(Context.VERSION_ES6);
+            return cx.compileString(source, "test.js", 1, null);
+        }
+    }
+
+    private static Object exec(ContextFactory factory, Script script) {
+        try (Context cx = factory.enterContext()) {
+            cx.setLanguageVersion(Context.VERSION_ES6);
+            TopLevel scope = cx.initStandardObjects();
+            return script.exec(cx, scope, scope.getGlobalThis());
+        }
+    }
+
+    @Test
+    public void runsInterpretedUntilCompiled() {
+        ManualExecutor executor = new ManualExecutor();
+        ContextFactory factory = new ContextFactory();
+        factory.setCompilationExecutor(executor);
+
+        Script script = compile(factory, SOURCE);
+        assertEquals(1, executor.tasks.size());
+        assertFalse(isCompiled(script));
+        assertEquals(EXPECTED, exec(factory, script));
+
+        executor.runAll();
+        assertTrue(isCompiled(script));
+        assertEquals(EXPECTED, exec(factory, script));
+    }
+
+    @Test
+    public void errorsReportTheSameLine() {
+        ManualExecutor executor = new ManualExecutor();
+        ContextFactory factory = new ContextFactory();
+        factory.setCompilationExecutor(executor);
+
+        String source = "\n\ntry { undefinedName() } catch (e) { e.fileName + ':' + e.lineNumber }";
+        Script script = compile(factory, source);
+        assertEquals("test.js:3", exec(factory, script));
+        executor.runAll();
+        assertTrue(isCompiled(script));
+        assertEquals("test.js:3", exec(factory, script));
+    }
+
+        @Test
+    public void boundedExecutor() throws InterruptedException {
+        ThreadPoolExecutor executor =
+                new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new ArrayBlockingQueue<>(4));
+        ContextFactory factory = new ContextFactory();
+        factory.setCompilationExecutor(executor);
+        try {
+            Script script = compile(factory, SOURCE);
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+            assertTrue(isCompiled(script));
+            assertEquals(EXPECTED, exec(factory, script));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void rejectedScriptStaysInterpreted() {
+        ContextFactory factory = new ContextFactory();
+        factory.setCompilationExecutor(
+                task -> {
+                    throw new RejectedExecutionException();
+                });
+        Script script = compile(factory, SOURCE);
+        assertEquals(EXPECTED, exec(factory, script));
+        assertFalse(isCompiled(script));
+    }
+
+    @Test
+    public void syntaxErrorsAreReportedImmediately() {
+        ManualExecutor executor = new ManualExecutor();
+        ContextFactory factory = new ContextFactory();
+        factory.setCompilationExecutor(executor);
+        assertThrows(EvaluatorException.class, () -> compile(factory, "var x = ;"));
+        assertTrue(executor.tasks.isEmpty());
+    }
+
+    @Test
+    public void notUsedInInterpretedMode() {
+        ManualExecutor executor = new ManualExecutor();
+        ContextFactory factory = new ContextFactory();
+        factory.setCompilationExecutor(executor);
+        try (Context cx = factory.enterContext()) {
+            cx.setInterpretedMode(true);
+            Script script = cx.compileString(SOURCE, "test.js", 1, null);
+            assertInstanceOf(JSScript.class, script);
+        }
+        assertTrue(executor.tasks.isEmpty());
+    }
+}
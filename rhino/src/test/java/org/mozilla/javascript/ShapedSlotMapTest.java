@@ -0,0 +1,160 @@
+package org.mozilla.javascript;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.mozilla.javascript.testutils.Utils;
+
+public class ShapedSlotMapTest {
+
+    private static ContextFactory shapedFactory() {
+        return Utils.contextFactoryWithFeatures(Context.FEATURE_SHAPED_OBJECTS);
+    }
+
+    private static NativeObject record(String... keys) {
+        NativeObject obj = new NativeObject();
+        for (String key : keys) {
+            obj.put(key, obj, key.length());
+        }
+        return obj;
+    }
+
+    private static List<Object> keys(ScriptableObject obj) {
+        List<Object> keys = new ArrayList<>();
+        for (Slot<Scriptable> slot : obj.getMap()) {
+            keys.add(slot.name != null ? slot.name : slot.indexOrHash);
+        }
+        return keys;
+    }
+
+    @Test
+    public void objectsShareShapes() {
+        try (Context cx = shapedFactory().enterContext()) {
+            NativeObject a = record("x", "y");
+            NativeObject b = record("x", "y");
+            assertInstanceOf(ShapedSlotMap.class, a.getMap());
+            assertSame(a.getShape(), b.getShape());
+            assertEquals(1, a.getSlotPosition("y"));
+            assertSame(b.getDataSlot("y"), b.getSlotAt(b.getSlotPosition("y")));
+
+            // The order in which properties are added matters
+            assertNotSame(a.getShape(), record("y", "x").getShape());
+
+            // Values and attributes do not change the shape
+            b.put("x", b, "changed");
+            b.setAttributes("y", ScriptableObject.READONLY);
+            assertSame(a.getShape(), b.getShape());
+            assertEquals(1, a.get("x", a));
+            assertEquals("changed", b.get("x", b));
+        }
+    }
+
+    @Test
+    public void slotsAreOnlyCreatedWhenAskedFor() {
+        try (Context cx = shapedFactory().enterContext()) {
+            NativeObject a = record("x", "y");
+            a.put("x", a, "changed");
+            assertEquals("changed", a.get("x", a));
+            assertEquals("changed", a.getValueAt(0));
+
+            // Copies of values handed out by the iterator do not change the object
+            a.getMap().iterator().next().value = "copy";
+            assertEquals("changed", a.get("x", a));
+
+            // Once there is a slot, it holds the value
+            Slot<Scriptable> slot = a.getDataSlot("x");
+            assertEquals("changed", slot.value);
+            a.put("x", a, "again");
+            assertEquals("again", slot.value);
+            a.putValueAt(0, "at", false);
+            assertEquals("at", slot.value);
+            assertSame(slot, a.getSlotAt(0));
+
+            a.putValueAt(1, "y", false);
+            assertEquals("y", a.get("y", a));
+            assertEquals(List.of("x", "y"), keys(a));
+        }
+    }
+
+    @Test
+    public void deleteLastProperty() {
+        try (Context cx = shapedFactory().enterContext()) {
+            NativeObject a = record("x", "y", "z");
+            a.delete("z");
+            assertInstanceOf(ShapedSlotMap.class, a.getMap());
+            assertSame(record("x", "y").getShape(), a.getShape());
+            assertEquals(List.of("x", "y"), keys(a));
+        }
+    }
+
+    @Test
+    public void deleteOtherPropertyMakesDictionary() {
+        try (Context cx = shapedFactory().enterContext()) {
+            NativeObject a = record("x", "y", "z");
+            a.delete("x");
+            assertInstanceOf(EmbeddedSlotMap.class, a.getMap());
+            assertEquals(List.of("y", "z"), keys(a));
+            assertEquals(1, a.get("z", a));
+            assertEquals(-1, a.getSlotPosition("z"));
+        }
+    }
+
+    @Test
+    public void indexedPropertyMakesDictionary() {
+        try (Context cx = shapedFactory().enterContext()) {
+            NativeObject a = record("x");
+            a.put(3, a, "three");
+            assertInstanceOf(EmbeddedSlotMap.class, a.getMap());
+            assertEquals(List.of("x", 3), keys(a));
+            assertEquals("three", a.get(3, a));
+        }
+    }
+
+    @Test
+    public void manyPropertiesMakeDictionary() {
+        try (Context cx = shapedFactory().enterContext()) {
+            NativeObject a = new NativeObject();
+            for (int i = 0; i <= SlotShape.MAX_SIZE; i++) {
+                a.put("p" + i, a, i);
+            }
+            assertInstanceOf(EmbeddedSlotMap.class, a.getMap());
+            for (int i = 0; i <= SlotShape.MAX_SIZE; i++) {
+                assertEquals(i, a.get("p" + i, a));
+            }
+        }
+    }
+
+    @Test
+    public void accessorReplacesDataSlot() {
+        try (Context cx = shapedFactory().enterContext()) {
+            TopLevel scope = cx.initStandardObjects();
+            Object result =
+                    cx.evaluateString(
+                            scope,
+                            "var a = { x: 1, y: 2 };\n"
+                                    + "Object.defineProperty(a, 'x',\n"
+                                    + "  { get: function() { return 3; } });\n"
+                                    + "a.x + a.y + Object.keys(a).join()",
+                            "test",
+                            1,
+                            null);
+            assertEquals("5x,y", result);
+        }
+    }
+
+    @Test
+    public void notUsedForThreadSafeObjects() {
+        ContextFactory factory =
+                Utils.contextFactoryWithFeatures(
+                        Context.FEATURE_SHAPED_OBJECTS, Context.FEATURE_THREAD_SAFE_OBJECTS);
+        try (Context cx = factory.enterContext()) {
+            NativeObject a = record("x", "y");
+            assertInstanceOf(ThreadSafeEmbeddedSlotMap.class, a.getMap());
+        }
+    }
+}
@@ -47,6 +47,7 @@ public class SlotMapTest {
                                         new Slot<Scriptable>(new Object(), 0, 0)),
                         () -> new EmbeddedSlotMap<>(),
                         () -> new HashSlotMap<>(),
+                        () -> new ShapedSlotMap<>(),
                         () -> (SlotMap<Scriptable>) SlotMapOwner.THREAD_SAFE_EMPTY_SLOT_MAP,
                         () ->
                                 new SlotMapOwner.ThreadSafeSingleEntrySlotMap<Scriptable>(
@@ -0,0 +1,155 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/. */
+
+package org.mozilla.javascript;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class TieredCompilationTest {
+    private static final int THRESHOLD = 20;
+
+    private static ContextFactory tieredFactory() {
+        ContextFactory factory = new ContextFactory();
+        factory.setTieredCompilationThreshold(THRESHOLD);
+        return factory;
+    }
+
+    private static boolean isTieredUp(TopLevel scope, String name) {
+        JSFunction f = (JSFunction) scope.getGlobalThis().get(name, scope.getGlobalThis());
+        return ((InterpreterData<?>) f.getDescriptor().getCode()).isTieredUp();
+    }
+
+    /** Call the function until the compiled code is installed and return the last result. */
+    private static Object warmUp(Context cx, TopLevel scope, String name, String call)
+            throws InterruptedException {
+        Object result = null;
+        for (int i = 0; i < 1000 && !isTieredUp(scope, name); i++) {
+            result = cx.evaluateString(scope, call, "call.js", 1, null);
+            if (i > THRESHOLD) {
+                Thread.sleep(10);
+            }
+        }
+        assertTrue(isTieredUp(scope, name), name + " was not compiled");
+        return result;
+    }
+
+    private static Object eval(Context cx, TopLevel scope, String source) {
+        return cx.evaluateString(scope, source, "test.js", 1, null);
+    }
+
+    @Test
+    public void hotFunctionIsCompiled() throws InterruptedException {
+        try (Context cx = tieredFactory().enterContext()) {
+            cx.setInterpretedMode(true);
+            cx.setLanguageVersion(Context.VERSION_ES6);
+            TopLevel scope = cx.initStandardObjects();
+            eval(
+                    cx,
+                    scope,
+                    "var base = 100;\n"
+                            + "function add(a, b) { return base + a + b + arguments.length; }");
+            Object before = warmUp(cx, scope, "add", "add(1, 2)");
+            assertEquals(105, ((Number) before).intValue());
+            assertEquals(105, ((Number) eval(cx, scope, "add(1, 2)")).intValue());
+            // Free variables are still looked up through the original scope
+            assertEquals(205, ((Number) eval(cx, scope, "base = 200; add(1, 2)")).intValue());
+        }
+    }
+
+    @Test
+    public void loopsCountTowardsThreshold() throws InterruptedException {
+        try (Context cx = tieredFactory().enterContext()) {
+            cx.setInterpretedMode(true);
+            TopLevel scope = cx.initStandardObjects();
+            eval(
+                    cx,
+                    scope,
+                    "function sum(n) { var s = 0; for (var i = 0; i < n; i++) s += i; return s; }\n"
+                            + "sum(1000);");
+            warmUp(cx, scope, "sum", "sum(100)");
+            assertEquals(4950, ((Number) eval(cx, scope, "sum(100)")).intValue());
+        }
+    }
+
+    @Test
+    public void closuresAndConstructors() throws InterruptedException {
+        try (Context cx = tieredFactory().enterContext()) {
+            cx.setInterpretedMode(true);
+            cx.setLanguageVersion(Context.VERSION_ES6);
+            TopLevel scope = cx.initStandardObjects();
+            eval(
+                    cx,
+                    scope,
+                    "function makeCounter() { var n = 0; return function() { return ++n; }; }\n"
+                            + "var counter = makeCounter();\n"
+                            + "function Point(x, y) { this.x = x; this.y = y; }\n"
+                            + "Point.prototype.norm = function() {\n"
+                            + "  return this.x * this.x + this.y * this.y;\n"
+                            + "};");
+            warmUp(cx, scope, "counter", "counter()");
+            int n = ((Number) eval(cx, scope, "counter()")).intValue();
+            assertEquals(n + 1, ((Number) eval(cx, scope, "counter()")).intValue());
+            // A fresh closure uses the compiled code, with its own state
+            assertEquals(1, ((Number) eval(cx, scope, "makeCounter()()")).intValue());
+
+            warmUp(cx, scope, "Point", "new Point(3, 4).norm()");
+            assertEquals(true, eval(cx, scope, "var p = new Point(3, 4); p instanceof Point"));
+            assertEquals(25, ((Number) eval(cx, scope, "p.norm()")).intValue());
+        }
+    }
+
+    @Test
+    public void errorsReportTheSameLine() throws InterruptedException {
+        try (Context cx = tieredFactory().enterContext()) {
+            cx.setInterpretedMode(true);
+            TopLevel scope = cx.initStandardObjects();
+            eval(
+                    cx,
+                    scope,
+                    "\n\nfunction fail(x) {\n"
+                            + "  if (x) undefinedName();\n"
+                            + "  return 1;\n"
+                            + "}");
+            warmUp(cx, scope, "fail", "fail(false)");
+            assertEquals(
+                    "test.js:4",
+                    eval(
+                            cx,
+                            scope,
+                            "try { fail(true) } catch (e) { e.fileName + ':' + e.lineNumber }"));
+        }
+    }
+
+    @Test
+    public void generatorsStayInterpreted() {
+        try (Context cx = tieredFactory().enterContext()) {
+            cx.setInterpretedMode(true);
+            cx.setLanguageVersion(Context.VERSION_ES6);
+            TopLevel scope = cx.initStandardObjects();
+            eval(cx, scope, "function* gen() { yield 1; yield 2; }");
+            for (int i = 0; i < THRESHOLD * 5; i++) {
+                Object sum = eval(cx, scope, "var s = 0; for (var v of gen()) s += v; s");
+                assertEquals(3, ((Number) sum).intValue());
+            }
+            assertFalse(isTieredUp(scope, "gen"));
+        }
+    }
+
+    @Test
+    public void disabledByDefault() {
+        try (Context cx = new ContextFactory().enterContext()) {
+            cx.setInterpretedMode(true);
+            TopLevel scope = cx.initStandardObjects();
+            eval(cx, scope, "function f(x) { return x + 1; }");
+            for (int i = 0; i < THRESHOLD * 5; i++) {
+                eval(cx, scope, "f(1)");
+            }
+            assertFalse(isTieredUp(scope, "f"));
+        }
+    }
+}
@@ -55,6 +55,67 @@ public class ConsStringTest {
         }
     }
 
+    @Test
+    public void concat() {
+        assertEquals("abc", ConsString.concat("a", "bc"));
+        assertEquals(String.class, ConsString.concat("a", "bc").getClass());
+        assertEquals(String.class, ConsString.concat("", "a longer string").getClass());
+
+        CharSequence current = ConsString.concat("a longer ", "string");
+        assertEquals(ConsString.class, current.getClass());
+        assertEquals("a longer string", current.toString());
+
+        current = ConsString.concat(new ConsString("a", "b"), "c");
+        assertEquals(ConsString.class, current.getClass());
+        assertEquals("abc", current.toString());
+    }
+
+    @Test
+    public void appendManyStringsBothSides() {
+        CharSequence current = "";
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            String piece = Integer.toString(i);
+            if (i % 3 == 0) {
+                current = new ConsString(piece, current);
+                expected.insert(0, piece);
+            } else {
+                current = new ConsString(current, piece);
+                expected.append(piece);
+            }
+        }
+        assertEquals(expected.length(), current.length());
+        assertEquals(expected.toString(), current.toString());
+    }
+
+    @Test
+    public void prependManyStrings() {
+        CharSequence current = "end";
+        for (int i = 0; i < 100000; i++) {
+            current = new ConsString(Integer.toString(i % 10), current);
+        }
+        assertEquals(100003, current.length());
+        String flat = current.toString();
+        assertEquals("9876543210", flat.substring(0, 10));
+        assertEquals("3210end", flat.substring(flat.length() - 7));
+    }
+
+    @Test
+    public void searchWithoutFlattening() {
+        try (Context cx = Context.enter()) {
+            TopLevel topScope = cx.initStandardObjects();
+            final String script =
+                    "var s = '';\n"
+                            + "for (var i = 0; i < 10; i++) s += 'ab' + i;\n"
+                            + "[s.charAt(5), s.charCodeAt(3), s[7], s.indexOf('b3'),"
+                            + " s.indexOf('9', 5), s.indexOf('b1a'), s.indexOf('', 100),"
+                            + " s.startsWith('ab2', 6), s.startsWith('ab2', 8), s.length].join()";
+            final Object result = cx.evaluateString(topScope, script, "myScript", 1, null);
+
+            assertEquals("1,97,b,10,29,4,30,true,false,30", result);
+        }
+    }
+
     @Test
     public void doNotLeakConsStringIntoSetter() throws Exception {
         try (Context cx = Context.enter()) {
@@ -69,7 +130,9 @@ public class ConsStringTest {
             topScope.put("MyHostObject", topScope, myHostObject);
 
             final String script =
-                    "var a = 'Rhino';\n" + "MyHostObject.foo = '#' + a;\n" + "MyHostObject.foo;";
+                    "var a = 'Rhino JavaScript';\n"
+                            + "MyHostObject.foo = '#' + a;\n"
+                            + "MyHostObject.foo;";
 
             final String result = (String) cx.evaluateString(topScope, script, "myScript", 1, null);
 
@@ -83,7 +146,7 @@ public class ConsStringTest {
             TopLevel topScope = cx.initStandardObjects();
             ScriptableObject.defineClass(topScope, MyHostObject.class);
 
-            final String script = "var a = 'Rhino'; new MyHostObject().test('#' + a);";
+            final String script = "var a = 'Rhino JavaScript'; new MyHostObject().test('#' + a);";
             final String result = (String) cx.evaluateString(topScope, script, "myScript", 1, null);
 
             Assertions.assertEquals("java.lang.String", result);
@@ -0,0 +1,176 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/. */
+
+package org.mozilla.javascript.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.ContextFactory;
+import org.mozilla.javascript.ErrorReporter;
+import org.mozilla.javascript.EvaluatorException;
+import org.mozilla.javascript.Script;
+import org.mozilla.javascript.TopLevel;
+import org.mozilla.javascript.optimizer.FileScriptClassCache;
+
+public class FileScriptClassCacheTest {
+    private static final String SOURCE =
+            "function twice(x) { return x * 2; }\n"
+                    + "var re = /a+b/g;\n"
+                    + "var t = `x${twice(3)}y`;\n"
+                    + "[twice(21), re.test('aab'), t, twice.toString()].join('|')";
+
+    private static final String EXPECTED = "42|true|x6y|function twice(x) { return x * 2; }";
+
+    @TempDir Path dir;
+
+    private static Object run(FileScriptClassCache cache, String source) {
+        ContextFactory factory = new ContextFactory();
+        factory.setScriptClassCache(cache);
+        try (Context cx = factory.enterContext()) {
+            cx.setLanguageVersion(Context.VERSION_ES6);
+            TopLevel scope = cx.initStandardObjects();
+            Script script = cx.compileString(source, "test.js", 1, null);
+            return script.exec(cx, scope, scope.getGlobalThis());
+        }
+    }
+
+    private long entryCount() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    public void secondCompileLoadsFromDisk() throws IOException {
+        FileScriptClassCache first = new FileScriptClassCache(dir);
+        assertEquals(EXPECTED, run(first, SOURCE));
+        assertEquals(0, first.getHitCount());
+        assertEquals(1, first.getMissCount());
+        assertEquals(1, entryCount());
+
+        // A new cache instance over the same directory stands in for a JVM restart
+        FileScriptClassCache second = new FileScriptClassCache(dir);
+        assertEquals(EXPECTED, run(second, SOURCE));
+        assertEquals(1, second.getHitCount());
+        assertEquals(0, second.getMissCount());
+    }
+
+    @Test
+    public void differentSourceIsNotAHit() throws IOException {
+        FileScriptClassCache cache = new FileScriptClassCache(dir);
+        assertEquals(3.0, ((Number) run(cache, "1 + 2")).doubleValue());
+        assertEquals(4.0, ((Number) run(cache, "2 + 2")).doubleValue());
+        assertEquals(0, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(2, entryCount());
+    }
+
+    @Test
+    public void largeSource() throws IOException {
+        String source = "var s = '" + "x".repeat(70000) + "'; s.length";
+        FileScriptClassCache cache = new FileScriptClassCache(dir);
+        assertEquals(70000, ((Number) run(cache, source)).intValue());
+        assertEquals(70000, ((Number) run(cache, source)).intValue());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void brokenEntryIsReplaced() throws IOException {
+        FileScriptClassCache cache = new FileScriptClassCache(dir);
+        run(cache, SOURCE);
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path p : (Iterable<Path>) files::iterator) {
+                Files.write(p, new byte[] {1, 2, 3});
+            }
+        }
+        assertEquals(EXPECTED, run(cache, SOURCE));
+        assertEquals(0, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void syntaxErrorsAreReported() throws IOException {
+        FileScriptClassCache cache = new FileScriptClassCache(dir);
+        assertThrows(EvaluatorException.class, () -> run(cache, "var x = ;"));
+        assertEquals(0, entryCount());
+    }
+
+    @Test
+    public void warningsAreReportedOnEveryCompile() throws IOException {
+        FileScriptClassCache cache = new FileScriptClassCache(dir);
+        ContextFactory factory =
+                new ContextFactory() {
+                    @Override
+                    protected boolean hasFeature(Context cx, int featureIndex) {
+                        return featureIndex == Context.FEATURE_STRICT_MODE
+                                || super.hasFeature(cx, featureIndex);
+                    }
+                };
+        factory.setScriptClassCache(cache);
+        List<String> warnings = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            try (Context cx = factory.enterContext()) {
+                cx.setErrorReporter(
+                        new ErrorReporter() {
+                            @Override
+                            public void warning(
+                                    String message,
+                                    String sourceName,
+                                    int line,
+                                    String lineSource,
+                                    int lineOffset) {
+                                warnings.add(message);
+                            }
+
+                            @Override
+                            public void error(
+                                    String message,
+                                    String sourceName,
+                                    int line,
+                                    String lineSource,
+                                    int lineOffset) {
+                                throw new EvaluatorException(message);
+                            }
+
+                            @Override
+                            public EvaluatorException runtimeError(
+                                    String message,
+                                    String sourceName,
+                                    int line,
+                                    String lineSource,
+                                    int lineOffset) {
+                                return new EvaluatorException(message);
+                            }
+                        });
+                cx.compileString("var x = 1; x == 2; x", "test.js", 1, null);
+            }
+        }
+        assertEquals(2, warnings.size());
+        assertEquals(0, cache.getHitCount());
+        assertEquals(0, entryCount());
+    }
+
+    @Test
+    public void notUsedInInterpretedMode() throws IOException {
+        FileScriptClassCache cache = new FileScriptClassCache(dir);
+        ContextFactory factory = new ContextFactory();
+        factory.setScriptClassCache(cache);
+        try (Context cx = factory.enterContext()) {
+            cx.setInterpretedMode(true);
+            cx.compileString(SOURCE, "test.js", 1, null);
+        }
+        assertEquals(0, cache.getMissCount());
+        assertEquals(0, entryCount());
+    }
+}
@@ -0,0 +1,66 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/. */
+
+package org.mozilla.javascript.tests;
+
+import org.junit.jupiter.api.Test;
+import org.mozilla.javascript.testutils.Utils;
+
+/**
+ * The optimizer keeps bitwise operations on 32 bit integers, and the variables that only hold their
+ * results, as ints. Make sure that values that do not fit are still converted.
+ */
+public class Int32CodegenTest {
+
+    private static void assertFunctionResult(String expected, String body) {
+        Utils.assertWithAllModes(expected, "(function() {\n" + body + "\n})()");
+    }
+
+    @Test
+    public void nestedBitOperations() {
+        assertFunctionResult(
+                "-2,-2147483648,-1,255,-8",
+                "var x = 0x7fffffff;\n"
+                        + "return [x << 1, (x + 1) | 0 | 0 & x, ~0, (x >> 8) & 0xff,"
+                        + " ~~(x << 3) ^ 0].join();");
+    }
+
+    @Test
+    public void literalsThatAreNotInt32() {
+        assertFunctionResult(
+                "1,-2147483648,0,0,-2",
+                "var x = 1;\n"
+                        + "return [x | 0.5, x << 2147483679, -0 | x & 0, x & 4294967296,"
+                        + " x ^ -1 ^ -1 ^ 4294967295].join();");
+    }
+
+    @Test
+    public void int32Variables() {
+        assertFunctionResult(
+                "1.5,-1,2147483649,2,-1",
+                "var a = 1, b = 1, c = 0x7fffffff, d = 2, e = 0, s = 0;\n"
+                        + "for (var i = 0; i < 2; i++) {\n"
+                        + "  a = b ^ 0;\n"
+                        + "  if (i == 1) a = 1.5;\n"
+                        + "  b = ~(a & 0);\n"
+                        + "  c++;\n"
+                        + "  e = s > 0 ? d : -1;\n"
+                        + "  s = 1;\n"
+                        + "}\n"
+                        + "return [a | 0 ? a : 0, b | 0, c | 0 ? c : 0, e ^ 0,"
+                        + " ~e - 1 | 0 ? -1 : 0].join();");
+    }
+
+    @Test
+    public void hashLoop() {
+        assertFunctionResult(
+                "375044716",
+                "var h = 0, x = 123456789;\n"
+                        + "for (var i = 0; i < 1000; i++) {\n"
+                        + "  x ^= x << 13; x ^= x >> 17; x ^= x << 5;\n"
+                        + "  h = ((h << 5) - h + (x & 0xff)) | 0;\n"
+                        + "}\n"
+                        + "return String(h ^ x);");
+    }
+}
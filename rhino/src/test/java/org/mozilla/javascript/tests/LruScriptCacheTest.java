@@ -0,0 +1,150 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/. */
+
+package org.mozilla.javascript.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.ContextFactory;
+import org.mozilla.javascript.LruScriptCache;
+import org.mozilla.javascript.Script;
+import org.mozilla.javascript.TopLevel;
+
+public class LruScriptCacheTest {
+
+    private static Script compile(ContextFactory factory, boolean interpreted, String source) {
+        try (Context cx = factory.enterContext()) {
+            cx.setInterpretedMode(interpreted);
+            return cx.compileString(source, "test.js", 1, null);
+        }
+    }
+
+    private static ContextFactory factoryWith(LruScriptCache cache) {
+        ContextFactory factory = new ContextFactory();
+        factory.setScriptCache(cache);
+        return factory;
+    }
+
+    @Test
+    public void sameSourceIsShared() {
+        LruScriptCache cache = new LruScriptCache(10);
+        ContextFactory factory = factoryWith(cache);
+        Script first = compile(factory, false, "1 + 1");
+        Script second = compile(factory, false, "1 + 1");
+        assertSame(first, second);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void settingsArePartOfTheKey() {
+        LruScriptCache cache = new LruScriptCache(10);
+        ContextFactory factory = factoryWith(cache);
+        Script compiled = compile(factory, false, "1 + 1");
+        Script interpreted = compile(factory, true, "1 + 1");
+        assertNotSame(compiled, interpreted);
+        assertEquals(2, cache.size());
+
+        try (Context cx = factory.enterContext()) {
+            Script renamed = cx.compileString("1 + 1", "other.js", 1, null);
+            assertNotSame(compiled, renamed);
+        }
+        assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        LruScriptCache cache = new LruScriptCache(2);
+        ContextFactory factory = factoryWith(cache);
+        Script a = compile(factory, true, "'a'");
+        compile(factory, true, "'b'");
+        // Touch "a" so that "b" is the eldest
+        assertSame(a, compile(factory, true, "'a'"));
+        compile(factory, true, "'c'");
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertSame(a, compile(factory, true, "'a'"));
+        compile(factory, true, "'b'");
+        assertEquals(2, cache.getEvictionCount());
+    }
+
+    @Test
+    public void evictsByWeight() {
+        LruScriptCache cache = new LruScriptCache(100, 20);
+        ContextFactory factory = factoryWith(cache);
+        compile(factory, true, "'0123456789'");
+        compile(factory, true, "'abcdefghij'");
+        assertEquals(1, cache.size());
+        assertEquals(12, cache.getWeight());
+        assertEquals(1, cache.getEvictionCount());
+
+        // Too large to ever be cached
+        compile(factory, true, "'0123456789abcdefghij'");
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void templateObjectsBelongToTheirScope() {
+        LruScriptCache cache = new LruScriptCache(10);
+        ContextFactory factory = factoryWith(cache);
+        String source =
+                "function tag(strings) { return strings; }\n"
+                        + "function site() { return tag`a${1}b`; }\n"
+                        + "[Object.getPrototypeOf(site()) === Array.prototype,"
+                        + " site() === site(), site().raw.join()].join()";
+        for (boolean interpreted : new boolean[] {false, true}) {
+            for (int i = 0; i < 2; i++) {
+                try (Context cx = factory.enterContext()) {
+                    cx.setLanguageVersion(Context.VERSION_ES6);
+                    cx.setInterpretedMode(interpreted);
+                    TopLevel scope = cx.initStandardObjects();
+                    Script script = cx.compileString(source, "test.js", 1, null);
+                    assertEquals("true,true,a,b", script.exec(cx, scope, scope.getGlobalThis()));
+                }
+            }
+        }
+        assertEquals(2, cache.getHitCount());
+    }
+
+    @Test
+    public void sharedAcrossThreads() throws Exception {
+        LruScriptCache cache = new LruScriptCache(10);
+        ContextFactory factory = factoryWith(cache);
+        String source = "var total = 0; for (var i = 0; i < 1000; i++) { total += i; } total";
+        Script script = compile(factory, false, source);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Object>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                results.add(
+                        executor.submit(
+                                () -> {
+                                    try (Context cx = factory.enterContext()) {
+                                        TopLevel scope = cx.initStandardObjects();
+                                        Script s = cx.compileString(source, "test.js", 1, null);
+                                        assertSame(script, s);
+                                        return s.exec(cx, scope, scope.getGlobalThis());
+                                    }
+                                }));
+            }
+            for (Future<Object> result : results) {
+                assertEquals(499500, ((Number) result.get()).intValue());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(16, cache.getHitCount());
+    }
+}
@@ -0,0 +1,64 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/. */
+
+package org.mozilla.javascript.tests;
+
+import org.junit.jupiter.api.Test;
+import org.mozilla.javascript.testutils.Utils;
+
+/**
+ * The interpreter holds numbers either boxed or unboxed on its stack, for instance the literals 0
+ * and 1 are boxed while the results of arithmetic are not. Make sure that operations on a mix of
+ * both give the same results as operations on numbers of a single kind.
+ */
+public class MixedNumberOperandsTest {
+
+    @Test
+    public void arithmetic() {
+        Utils.assertWithAllModes(
+                "-1,1,0,-Infinity,2.5,NaN",
+                "var a = 0, b = 1, c = 2.5;\n"
+                        + "[a - b, b * b, c * a, 1 / (-b % b), c / b, a / a].join()");
+    }
+
+    @Test
+    public void unaryOperators() {
+        Utils.assertWithAllModes(
+                "-1,-Infinity,-1,-3,NaN",
+                "var a = 0, b = 1, c = 2.5;\n" + "[-b, 1 / -a, ~a, ~c, -'x'].join()");
+    }
+
+    @Test
+    public void bitwiseOperators() {
+        Utils.assertWithAllModes(
+                "1,3,2,4,0",
+                "var a = 0, b = 1, c = 3.5;\n" + "[b & c, b | 2, c ^ b, b << 2, a >> b].join()");
+    }
+
+    @Test
+    public void comparisons() {
+        Utils.assertWithAllModes(
+                "true,false,true,false,false",
+                "var a = 0, b = 1, c = 0.5, n = NaN;\n"
+                        + "[a < b, c < a, b >= c, n < b, a > n].join()");
+    }
+
+    @Test
+    public void loopCounters() {
+        Utils.assertWithAllModes(
+                4999950000.0,
+                "(function() {\n"
+                        + "  var s = 0;\n"
+                        + "  for (var i = 0; i < 100000; i++) { s += i; }\n"
+                        + "  return s;\n"
+                        + "})()");
+        Utils.assertWithAllModes(
+                "2147483647,2147483648,-2147483648",
+                "(function() {\n"
+                        + "  var i = 2147483646, j = i + 1;\n"
+                        + "  i++; i++;\n"
+                        + "  return [j, i, j + 1 | 0].join();\n"
+                        + "})()");
+    }
+}
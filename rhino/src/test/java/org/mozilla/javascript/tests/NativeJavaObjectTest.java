@@ -7,13 +7,18 @@
 package org.mozilla.javascript.tests;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.math.BigInteger;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.mozilla.javascript.Context;
+import org.mozilla.javascript.EvaluatorException;
 import org.mozilla.javascript.NativeJavaObject;
 import org.mozilla.javascript.TopLevel;
+import org.mozilla.javascript.Undefined;
+import org.mozilla.javascript.testutils.Utils;
 
 public class NativeJavaObjectTest {
 
@@ -51,4 +56,101 @@ public class NativeJavaObjectTest {
             }
         }
     }
+
+    @Test
+    public void repeatedConversionsToTheSameType() {
+        try (Context cx = Context.enter()) {
+            TopLevel scope = cx.initStandardObjects();
+            Object array = cx.evaluateString(scope, "[1, 'x']", "source", 1, null);
+            // the second round uses the conversions that the first one kept in the types
+            for (int i = 0; i < 2; i++) {
+                assertEquals(3, Context.jsToJava(3.0, int.class));
+                assertEquals(3L, Context.jsToJava(3, long.class));
+                assertEquals("3", Context.jsToJava(3, String.class));
+                assertEquals("true", Context.jsToJava(true, String.class));
+                assertEquals("undefined", Context.jsToJava(Undefined.instance, String.class));
+                assertEquals(7, Context.jsToJava("7", int.class));
+                assertEquals('c', Context.jsToJava("c", char.class));
+                assertEquals("1,x", Context.jsToJava(array, String.class));
+                assertEquals(null, Context.jsToJava(null, List.class));
+                assertThrows(
+                        EvaluatorException.class,
+                        () -> Context.jsToJava(Undefined.instance, int.class));
+                assertThrows(EvaluatorException.class, () -> Context.jsToJava(null, int.class));
+                assertThrows(EvaluatorException.class, () -> Context.jsToJava(true, int.class));
+            }
+        }
+    }
+
+    @Test
+    public void arrayMethodsOnJavaArrays() {
+        String script =
+                "var T = Packages.org.mozilla.javascript.tests.NativeJavaObjectTest;\n"
+                        + "var A = T.PrimitiveArrays;\n"
+                        + "var P = Array.prototype;\n"
+                        + "var res = [];\n"
+                        + "for (var a of [A.ints(), A.doubles(), A.bytes()]) {\n"
+                        + "  res.push(P.join.call(a, ' '));\n"
+                        + "  res.push(P.map.call(a, function(x) { return typeof x; }).join(' '));\n"
+                        + "  res.push(P.reduce.call(a, function(s, x) { return s + x; }, 0));\n"
+                        + "  res.push(P.findLastIndex.call(a, function(x) { return x > 0; }));\n"
+                        + "}\n"
+                        + "res.join(',')";
+        Utils.assertWithAllModes_ES6(
+                "1 -2 3,number number number,2,2,"
+                        + "0.5 0 1e+21,number number number,1e+21,2,"
+                        + "-128 127,number number,-1,1",
+                script);
+    }
+
+    @Test
+    public void fieldsMethodsAndConstructors() {
+        String script =
+                "var C = Packages.org.mozilla.javascript.tests.NativeJavaObjectTest.Counter;\n"
+                        + "var c = new C('c'); c.count = 2; c.name = 'ignored'; C.created = 5;\n"
+                        + "var r = [c.add(), c.add(1, 2), c.add([3]),"
+                        + " c.count, c.name, C.created];\n"
+                        + "try { c.fail(); } catch (e) { r.push(e.javaException.getMessage()); }\n"
+                        + "var sb = new java.lang.StringBuilder('a');\n"
+                        + "r.push(sb.append('b').append('c').toString());\n"
+                        + "r.join()";
+        Utils.assertWithAllModes_ES6("2,5,5,2,c,5,failed,abc", script);
+    }
+
+    public static class Counter {
+        public static int created;
+        public int count;
+        public final String name;
+
+        public Counter(String name) {
+            this.name = name;
+            created++;
+        }
+
+        public int add(int... values) {
+            int sum = count;
+            for (int value : values) {
+                sum += value;
+            }
+            return sum;
+        }
+
+        public void fail() {
+            throw new IllegalStateException("failed");
+        }
+    }
+
+    public static class PrimitiveArrays {
+        public static int[] ints() {
+            return new int[] {1, -2, 3};
+        }
+
+        public static double[] doubles() {
+            return new double[] {0.5, -0.0, 1e21};
+        }
+
+        public static byte[] bytes() {
+            return new byte[] {-128, 127};
+        }
+    }
 }
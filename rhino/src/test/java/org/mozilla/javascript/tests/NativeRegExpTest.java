@@ -11,6 +11,7 @@ import org.junit.jupiter.api.Test;
 import org.mozilla.javascript.Context;
 import org.mozilla.javascript.TopLevel;
 import org.mozilla.javascript.regexp.NativeRegExp;
+import org.mozilla.javascript.regexp.RegExpCache;
 import org.mozilla.javascript.testutils.Utils;
 
 public class NativeRegExpTest {
@@ -2063,4 +2064,44 @@ public class NativeRegExpTest {
                         + "/^\\p{Lt}$/ui.test('\\u{01C6}') + '-' + "
                         + "/^\\p{Lt}$/ui.test('\\u{01C4}')");
     }
+
+    @Test
+    public void compiledExpressionsAreShared() {
+        long hits = RegExpCache.getHitCount();
+        Utils.assertWithAllModes_ES6(
+                "true-false-4",
+                "var n = 0;\n"
+                        + "for (var i = 0; i < 4; i++) {\n"
+                        + "  var re = new RegExp('^c[a-c]+ched\\\\d$', 'i');\n"
+                        + "  if (re.test('CACHED' + i)) n++;\n"
+                        + "}\n"
+                        + "new RegExp('^c[a-c]+ched\\\\d$', 'i').test('cached1') + '-'"
+                        + " + new RegExp('^c[a-c]+ched\\\\d$').test('CACHED1') + '-' + n");
+        assertTrue(RegExpCache.getHitCount() > hits);
+    }
+
+    @Test
+    public void nestedQuantifiersDoNotBacktrackExponentially() {
+        Utils.assertWithAllModes_ES6(
+                "false-true-aab-false-xy,x",
+                "var s = 'a'.repeat(40) + 'c';\n"
+                        + "var m = /(a+)+b/.exec('caab');\n"
+                        + "/(a+)+b/.test(s) + '-' + /(a|aa)*c$/.test(s) + '-' + m[0] + '-'"
+                        + " + /^(\\w+\\s?)*$/.test('a sentence that does not fit!') + '-'"
+                        + " + /(x|xy)+?y$/m.exec('a\\nxy\\nb')");
+    }
+
+    @Test
+    public void literalPrefixesAndRequiredLiterals() {
+        Utils.assertWithAllModes_ES6(
+                "x <u>/c, d, <u>/e-4-null-true-false-a,b,c-a=1",
+                "var re = /abc/y;\n"
+                        + "re.lastIndex = 1;\n"
+                        + "'x http://a/c, d, https://b/e'.replace(/https?:\\/\\/\\w+/g, '<u>')"
+                        + " + '-' + 'a1b22c333'.split(/\\d+/).length"
+                        + " + '-' + /\\w+@example/.exec('no mail here')"
+                        + " + '-' + re.test('xabc') + '-' + re.test('xxabc')"
+                        + " + '-' + 'a2b3c'.replace(/[0-9]/g, ',')"
+                        + " + '-' + /[a-z]+=\\d/.exec('A= b a=1')");
+    }
 }
@@ -0,0 +1,166 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/. */
+
+package org.mozilla.javascript.tests;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.ContextFactory;
+import org.mozilla.javascript.NativeObject;
+import org.mozilla.javascript.ScriptableObject;
+import org.mozilla.javascript.TopLevel;
+import org.mozilla.javascript.testutils.Utils;
+
+/** Property accesses must see every change of an object, whatever slots the linkers cached. */
+public class PropertyCacheTest {
+
+    /** Run the script with objects that have their own slot maps, and with shaped objects. */
+    private static void assertWithAllLayouts(Object expected, String script) {
+        Utils.assertWithAllModes_ES6(expected, script);
+        Utils.assertWithAllModes(
+                Utils.contextFactoryWithFeatures(Context.FEATURE_SHAPED_OBJECTS),
+                Context.VERSION_ES6,
+                null,
+                expected,
+                script);
+    }
+
+    @Test
+    public void shapeChangesWithSlots() {
+        try (Context cx = Context.enter()) {
+            NativeObject obj = new NativeObject();
+            obj.put("a", obj, 1);
+            obj.put("b", obj, 2);
+            Object shape = obj.getShape();
+            assertNotNull(shape);
+            assertNotNull(obj.getDataSlot("a"));
+
+            obj.put("a", obj, 3);
+            obj.setAttributes("a", ScriptableObject.READONLY);
+            assertSame(shape, obj.getShape());
+
+            obj.put("c", obj, 4);
+            Object added = obj.getShape();
+            assertNotSame(shape, added);
+            obj.delete("c");
+            assertNotSame(added, obj.getShape());
+        }
+    }
+
+    @Test
+    public void threadSafeObjectsHaveNoShape() {
+        ContextFactory factory =
+                Utils.contextFactoryWithFeatures(Context.FEATURE_THREAD_SAFE_OBJECTS);
+        try (Context cx = factory.enterContext()) {
+            NativeObject obj = new NativeObject();
+            obj.put("a", obj, 1);
+            obj.put("b", obj, 2);
+            assertNull(obj.getShape());
+        }
+    }
+
+    @Test
+    public void accessorsAreNotDataSlots() {
+        try (Context cx = Context.enter()) {
+            TopLevel scope = cx.initStandardObjects();
+            ScriptableObject obj =
+                    (ScriptableObject)
+                            cx.evaluateString(
+                                    scope, "({ a: 1, get b() { return 2; } })", "test", 1, null);
+            assertNotNull(obj.getDataSlot("a"));
+            assertNull(obj.getDataSlot("b"));
+            assertNull(obj.getDataSlot("c"));
+        }
+    }
+
+    @Test
+    public void polymorphicGet() {
+        assertWithAllLayouts(
+                "1,2,3,4,5,6,7,8,9,10,11,12",
+                Utils.lines(
+                        "function getX(o) { return o.x; }",
+                        "var objs = [];",
+                        "for (var i = 1; i <= 12; i++) {",
+                        "  var o = {};",
+                        "  for (var j = 0; j < i; j++) o['p' + j] = j;",
+                        "  o.x = i;",
+                        "  objs.push(o);",
+                        "}",
+                        "var res = [];",
+                        "for (var k = 0; k < 3; k++) {",
+                        "  res = objs.map(getX);",
+                        "}",
+                        "res.join()"));
+    }
+
+    @Test
+    public void getAfterShapeChanges() {
+        assertWithAllLayouts(
+                "1,2,undefined,proto,getter,3",
+                Utils.lines(
+                        "function getX(o) { return o.x; }",
+                        "var o = Object.create({ x: 'proto' });",
+                        "o.x = 1;",
+                        "var res = [getX(o)];",
+                        "o.x = 2;",
+                        "res.push(getX(o));",
+                        "var p = { x: 1 };",
+                        "delete p.x;",
+                        "res.push(String(getX(p)));",
+                        "delete o.x;",
+                        "res.push(getX(o));",
+                        "Object.defineProperty(o, 'x', { get: function() { return 'getter'; },"
+                                + " configurable: true });",
+                        "res.push(getX(o));",
+                        "Object.defineProperty(o, 'x', { value: 3 });",
+                        "res.push(getX(o));",
+                        "res.join()"));
+    }
+
+    @Test
+    public void setAfterShapeChanges() {
+        assertWithAllLayouts(
+                "2,5,frozen,2,setter",
+                Utils.lines(
+                        "function setX(o, v) { o.x = v; }",
+                        "var o = { x: 1 };",
+                        "setX(o, 2);",
+                        "var res = [o.x];",
+                        "setX(o, 5);",
+                        "res.push(o.x);",
+                        "Object.freeze(o);",
+                        "setX(o, 'changed');",
+                        "res.push(Object.isFrozen(o) && o.x === 5 ? 'frozen' : o.x);",
+                        "var r = { x: 1 };",
+                        "setX(r, 2);",
+                        "Object.defineProperty(r, 'x', { writable: false });",
+                        "setX(r, 3);",
+                        "res.push(r.x);",
+                        "var s = { x: 1 };",
+                        "var log = 'none';",
+                        "setX(s, 2);",
+                        "Object.defineProperty(s, 'x', { set: function(v) { log = 'setter'; } });",
+                        "setX(s, 3);",
+                        "res.push(log);",
+                        "res.join()"));
+    }
+
+    @Test
+    public void strictSetOfReadOnlyProperty() {
+        Utils.assertEcmaErrorES6(
+                "TypeError: Cannot modify readonly property: x.",
+                Utils.lines(
+                        "'use strict';",
+                        "function setX(o, v) { o.x = v; }",
+                        "var o = { x: 1 };",
+                        "setX(o, 2);",
+                        "Object.defineProperty(o, 'x', { writable: false });",
+                        "setX(o, 3);"));
+    }
+}
@@ -0,0 +1,89 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/. */
+
+package org.mozilla.javascript.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.EvaluatorException;
+import org.mozilla.javascript.SharedClassCache;
+import org.mozilla.javascript.TopLevel;
+
+public class SharedClassCacheTest {
+    private static final String SOURCE =
+            "var T = Packages.org.mozilla.javascript.tests.SharedClassCacheTest.Thing;\n"
+                    + "var t = new T(); t.value = 3; t.twice()";
+
+    private boolean wasEnabled;
+
+    @BeforeEach
+    public void enable() {
+        wasEnabled = SharedClassCache.isEnabled();
+        SharedClassCache.setEnabled(true);
+        SharedClassCache.clear();
+    }
+
+    @AfterEach
+    public void restore() {
+        SharedClassCache.setEnabled(wasEnabled);
+    }
+
+    private static Object run(String source) {
+        try (Context cx = Context.enter()) {
+            cx.setLanguageVersion(Context.VERSION_ES6);
+            TopLevel scope = cx.initStandardObjects();
+            return cx.evaluateString(scope, source, "test.js", 1, null);
+        }
+    }
+
+    @Test
+    public void classesAreReflectedOncePerJvm() {
+        long misses = SharedClassCache.getMissCount();
+        long hits = SharedClassCache.getHitCount();
+
+        // the members of this test class and of Thing
+        assertEquals(6, run(SOURCE));
+        assertEquals(misses + 2, SharedClassCache.getMissCount());
+        assertEquals(hits, SharedClassCache.getHitCount());
+
+        // a new scope has an empty ClassCache of its own, but reuses the members of both
+        assertEquals(6, run(SOURCE));
+        assertEquals(misses + 2, SharedClassCache.getMissCount());
+        assertEquals(hits + 2, SharedClassCache.getHitCount());
+    }
+
+    @Test
+    public void classShutterIsCheckedOnHits() {
+        assertEquals(6, run(SOURCE));
+        try (Context cx = Context.enter()) {
+            cx.setClassShutter(name -> !name.endsWith("$Thing"));
+            TopLevel scope = cx.initStandardObjects();
+            assertThrows(EvaluatorException.class, () -> Context.javaToJS(new Thing(), scope));
+        }
+    }
+
+    @Test
+    public void explicitOverloadsBelongToTheirScope() {
+        String source =
+                "var tag = '%s';\n"
+                        + "var f = 'return this.tag';\n"
+                        + "[java.lang.String['valueOf(int)'].constructor(f)(),"
+                        + " java.lang.StringBuilder['(int)'].constructor(f)()].join()";
+        assertEquals("first,first", run(String.format(source, "first")));
+        assertEquals("second,second", run(String.format(source, "second")));
+    }
+
+    public static class Thing {
+        public int value;
+
+        public int twice() {
+            return value * 2;
+        }
+    }
+}
@@ -168,6 +168,33 @@ public class JsonParserTest {
         }
     }
 
+    @Test
+    public void shouldParseArrayOfObjectsWithSameKeys() throws Exception {
+        String json =
+                "[{\"id\": 1, \"2\": \"a\", \"n\\u0061me\": \"x\"},"
+                        + " {\"id\": 2, \"2\": \"b\", \"name\": \"y\", \"extra\": true},"
+                        + " {}, {\"name\": \"z\", \"id\": 3}]";
+        NativeArray actual = (NativeArray) parser.parseValue(json);
+        assertEquals(4L, actual.getLength());
+
+        NativeObject first = (NativeObject) actual.get(0, actual);
+        assertArrayEquals(new Object[] {2, "id", "name"}, first.getIds());
+        assertEquals("a", first.get(2, first));
+        assertEquals("x", first.get("name", first));
+
+        NativeObject second = (NativeObject) actual.get(1, actual);
+        assertArrayEquals(new Object[] {2, "id", "name", "extra"}, second.getIds());
+        assertEquals("b", second.get(2, second));
+        assertEquals(true, second.get("extra", second));
+
+        NativeObject third = (NativeObject) actual.get(2, actual);
+        assertEquals(0, third.getIds().length);
+
+        NativeObject fourth = (NativeObject) actual.get(3, actual);
+        assertArrayEquals(new Object[] {"name", "id"}, fourth.getIds());
+        assertEquals(3, fourth.get("id", fourth));
+    }
+
     @Test
     public void shouldFailToParseJsonObjectsWithInvalidFormat() throws Exception {
         assertThrows(ParseException.class, () -> parser.parseValue("{\"only\", \"keys\"}"));
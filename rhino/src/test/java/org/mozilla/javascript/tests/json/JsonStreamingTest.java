@@ -0,0 +1,252 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/. */
+
+package org.mozilla.javascript.tests.json;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mozilla.javascript.Callable;
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.EcmaError;
+import org.mozilla.javascript.NativeArray;
+import org.mozilla.javascript.NativeJSON;
+import org.mozilla.javascript.NativeObject;
+import org.mozilla.javascript.TopLevel;
+import org.mozilla.javascript.json.JsonParser;
+import org.mozilla.javascript.json.JsonParser.ParseException;
+
+public class JsonStreamingTest {
+    private static final String JSON =
+            "{\"name\": \"caf\\u00e9 \\\"x\\\"\", \"values\": [1, -2.5e3, true, false, null],"
+                    + " \"nested\": {\"1\": [], \"empty\": {}}, \"last\": 12345678901}";
+
+    private Context cx;
+    private TopLevel scope;
+    private JsonParser parser;
+
+    @BeforeEach
+    public void setUp() {
+        cx = Context.enter();
+        scope = cx.initStandardObjects();
+        parser = new JsonParser(cx, scope);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Context.exit();
+    }
+
+    /** A reader that returns at most one char at a time, so that every token is split. */
+    private static Reader trickle(String s) {
+        return new FilterReader(new StringReader(s)) {
+            @Override
+            public int read(char[] cbuf, int off, int len) throws IOException {
+                return super.read(cbuf, off, Math.min(len, 1));
+            }
+        };
+    }
+
+    private String stringify(Object value) {
+        return (String) NativeJSON.stringify(cx, scope, value, null, null);
+    }
+
+    @Test
+    public void shouldParseFromReader() throws Exception {
+        String expected = stringify(parser.parseValue(JSON));
+        assertEquals(expected, stringify(parser.parse(new StringReader(JSON))));
+        assertEquals(expected, stringify(parser.parse(trickle(JSON))));
+    }
+
+    @Test
+    public void shouldParseUtf8Stream() throws Exception {
+        byte[] bytes = "[\"é€😀\"]".getBytes(StandardCharsets.UTF_8);
+        NativeArray array = (NativeArray) parser.parse(new ByteArrayInputStream(bytes));
+        assertEquals("é€😀", array.get(0));
+    }
+
+    @Test
+    public void shouldParseTokensLongerThanTheBuffer() throws Exception {
+        StringBuilder s = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            s.append("ab\\n");
+        }
+        String json = "{\"s\": \"" + s + "\", \"n\": 1." + "5".repeat(20000) + "}";
+        NativeObject fromString = (NativeObject) parser.parseValue(json);
+        NativeObject fromReader = (NativeObject) parser.parse(new StringReader(json));
+        assertEquals(30000, ((String) fromString.get("s")).length());
+        assertEquals(fromString.get("s"), fromReader.get("s"));
+        assertEquals(fromString.get("n"), fromReader.get("n"));
+    }
+
+    @Test
+    public void shouldFailOnInvalidStreams() {
+        assertThrows(ParseException.class, () -> parser.parse(trickle("[1, 2")));
+        assertThrows(ParseException.class, () -> parser.parse(trickle("\"abc")));
+        assertThrows(ParseException.class, () -> parser.parse(trickle("tru")));
+        assertThrows(ParseException.class, () -> parser.parse(trickle("1.")));
+        ParseException e =
+                assertThrows(ParseException.class, () -> parser.parse(trickle("{} x")));
+        assertEquals("Expected end of stream at char 3", e.getMessage());
+    }
+
+    @Test
+    public void shouldPassOnReadErrors() {
+        Reader failing =
+                new Reader() {
+                    @Override
+                    public int read(char[] cbuf, int off, int len) throws IOException {
+                        throw new IOException("disk on fire");
+                    }
+
+                    @Override
+                    public void close() {}
+                };
+        IOException e = assertThrows(IOException.class, () -> parser.parse(failing));
+        assertEquals("disk on fire", e.getMessage());
+    }
+
+    @Test
+    public void shouldVisitArrayElements() throws Exception {
+        List<String> visited = new ArrayList<>();
+        parser.parseElements(
+                trickle(" [1, \"two\", {\"three\": [3]}, [] ] "),
+                (index, value) -> visited.add(index + "=" + stringify(value)));
+        assertEquals(List.of("0=1", "1=\"two\"", "2={\"three\":[3]}", "3=[]"), visited);
+
+        visited.clear();
+        parser.parseElements(new StringReader("[]"), (index, value) -> visited.add("x"));
+        assertTrue(visited.isEmpty());
+    }
+
+    @Test
+    public void shouldFailToVisitInvalidArrays() {
+        JsonParser.ElementVisitor ignore = (index, value) -> {};
+        assertThrows(
+                ParseException.class,
+                () -> parser.parseElements(new StringReader("{\"a\": 1}"), ignore));
+        assertThrows(
+                ParseException.class, () -> parser.parseElements(new StringReader("[1,]"), ignore));
+        assertThrows(
+                ParseException.class,
+                () -> parser.parseElements(new StringReader("[1] 2"), ignore));
+    }
+
+    @Test
+    public void nativeJsonShouldParseFromReader() {
+        Callable reviver =
+                (cx, scope, thisObj, args) ->
+                        args[1] instanceof Number ? ((Number) args[1]).intValue() * 2 : args[1];
+        NativeObject revived =
+                (NativeObject)
+                        NativeJSON.parse(cx, scope, new StringReader("{\"a\": 21}"), reviver);
+        assertEquals(42, revived.get("a"));
+        NativeObject plain =
+                (NativeObject) NativeJSON.parse(cx, scope, new StringReader("{\"a\": 21}"), null);
+        assertEquals(21, plain.get("a"));
+
+        EcmaError e =
+                assertThrows(
+                        EcmaError.class,
+                        () -> NativeJSON.parse(cx, scope, new StringReader("{"), null));
+        assertEquals("SyntaxError", e.getName());
+    }
+
+    @Test
+    public void shouldStringifyToSink() throws Exception {
+        Object value =
+                cx.evaluateString(
+                        scope,
+                        "var a = [];\n"
+                                + "for (var i = 0; i < 2000; i++) {\n"
+                                + "  a.push({ i: i, s: 'x\\n' + i, n: [null, { deep: [i] }] });\n"
+                                + "}\n"
+                                + "a",
+                        "test",
+                        1,
+                        null);
+        for (Object space : new Object[] {null, 2, "\t"}) {
+            List<Integer> writes = new ArrayList<>();
+            StringBuilder text = new StringBuilder();
+            Appendable sink =
+                    new Appendable() {
+                        @Override
+                        public Appendable append(CharSequence csq) {
+                            writes.add(csq.length());
+                            text.append(csq);
+                            return this;
+                        }
+
+                        @Override
+                        public Appendable append(CharSequence csq, int start, int end) {
+                            return append(csq.subSequence(start, end));
+                        }
+
+                        @Override
+                        public Appendable append(char c) {
+                            return append(String.valueOf(c));
+                        }
+                    };
+            assertTrue(NativeJSON.stringify(cx, scope, value, null, space, sink));
+            assertEquals(NativeJSON.stringify(cx, scope, value, null, space), text.toString());
+            // The text was written in pieces rather than all at once
+            assertTrue(writes.size() > 10);
+        }
+    }
+
+    @Test
+    public void shouldStringifyToStream() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Object value = cx.evaluateString(scope, "({ s: 'é€😀' })", "test", 1, null);
+        assertTrue(NativeJSON.stringify(cx, scope, value, null, null, bytes));
+        assertEquals("{\"s\":\"é€😀\"}", bytes.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void shouldNotWriteUndefined() throws Exception {
+        StringWriter writer = new StringWriter();
+        Object fn = cx.evaluateString(scope, "(function() {})", "test", 1, null);
+        assertFalse(NativeJSON.stringify(cx, scope, fn, null, null, writer));
+        assertEquals("", writer.toString());
+    }
+
+    @Test
+    public void shouldPassOnWriteErrors() {
+        Appendable closed =
+                new Appendable() {
+                    @Override
+                    public Appendable append(CharSequence csq) throws IOException {
+                        throw new IOException("closed");
+                    }
+
+                    @Override
+                    public Appendable append(CharSequence csq, int start, int end)
+                            throws IOException {
+                        throw new IOException("closed");
+                    }
+
+                    @Override
+                    public Appendable append(char c) throws IOException {
+                        throw new IOException("closed");
+                    }
+                };
+        IOException e =
+                assertThrows(
+                        IOException.class,
+                        () -> NativeJSON.stringify(cx, scope, "x", null, null, closed));
+        assertEquals("closed", e.getMessage());
+    }
+}
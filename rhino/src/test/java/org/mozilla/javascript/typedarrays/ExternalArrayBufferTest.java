@@ -0,0 +1,159 @@
+package org.mozilla.javascript.typedarrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.ScriptableObject;
+import org.mozilla.javascript.TopLevel;
+
+public class ExternalArrayBufferTest {
+
+    @TempDir Path dir;
+
+    private static Object eval(NativeArrayBuffer buf, String script) {
+        try (Context cx = Context.enter()) {
+            cx.setLanguageVersion(Context.VERSION_ES6);
+            TopLevel scope = cx.initStandardObjects();
+            buf.setParentScope(scope);
+            buf.setPrototype(ScriptableObject.getClassPrototype(scope, "ArrayBuffer"));
+            ScriptableObject.putProperty(scope, "buf", buf);
+            return cx.evaluateString(scope, script, "test", 1, null);
+        }
+    }
+
+    @Test
+    public void directBuffer() {
+        ByteBuffer bytes = ByteBuffer.allocateDirect(16);
+        bytes.putInt(0, 0x01020304);
+        bytes.putDouble(8, 1.5);
+        NativeArrayBuffer buf = new NativeArrayBuffer(bytes);
+        assertNull(buf.getBuffer());
+        assertEquals(16, buf.getLength());
+
+        assertEquals(
+                "16,16909060,1.5,1,772,1027",
+                eval(
+                        buf,
+                        "var i = new Int32Array(buf); var f = new Float64Array(buf, 8);\n"
+                                + "var d = new DataView(buf);\n"
+                                + "[buf.byteLength, i[0], f[0], d.getInt8(0),"
+                                + " d.getUint16(2), d.getUint16(2, true)].join()"));
+
+        eval(
+                buf,
+                "var d = new DataView(buf);\n"
+                        + "new Int16Array(buf)[0] = -2; d.setUint32(4, 0xdeadbeef, true);\n"
+                        + "new Float32Array(buf)[2] = 0.25;\n"
+                        + "d.setFloat16(12, 1.5, true); d.setFloat16(14, -2);");
+        ByteBuffer littleEndian = bytes.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(-2, bytes.getShort(0));
+        assertEquals(0xdeadbeef, littleEndian.getInt(4));
+        assertEquals(0.25f, bytes.getFloat(8));
+        assertEquals(0x3e00, littleEndian.getShort(12));
+        assertEquals((short) 0xc000, bytes.getShort(14));
+
+        assertEquals(
+                "-2,-2,4294967294,0.25,1.5,-2",
+                eval(
+                        buf,
+                        "new BigUint64Array(buf)[0] = 0xfffffffffffffffen;\n"
+                                + "var d = new DataView(buf);\n"
+                                + "[new Int8Array(buf)[7], new BigInt64Array(buf)[0],"
+                                + " d.getUint32(4), new Float32Array(buf)[2],"
+                                + " d.getFloat16(12, true), d.getFloat16(14)].join()"));
+        assertEquals(-2L, bytes.getLong(0));
+    }
+
+    @Test
+    public void partOfBuffer() {
+        ByteBuffer bytes = ByteBuffer.allocate(8);
+        NativeArrayBuffer buf = new NativeArrayBuffer(bytes.position(2).limit(6));
+        assertNull(buf.getBuffer());
+        assertEquals(4, buf.getLength());
+        eval(buf, "new Uint8Array(buf).fill(7)");
+        assertArrayEquals(new byte[] {0, 0, 7, 7, 7, 7, 0, 0}, bytes.array());
+
+        // A byte array that is wrapped whole is used as it is
+        byte[] array = new byte[4];
+        assertSame(array, new NativeArrayBuffer(ByteBuffer.wrap(array)).getBuffer());
+    }
+
+    @Test
+    public void mappedFile() throws IOException {
+        Path file = dir.resolve("data.bin");
+        Files.write(file, new byte[] {1, 2, 3, 4});
+        try (FileChannel channel =
+                FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, 4);
+            NativeArrayBuffer buf = new NativeArrayBuffer(mapped);
+            assertEquals(
+                    "1,2,3,4",
+                    eval(buf, "var a = new Uint8Array(buf); var s = a.join(); a.reverse(); s"));
+            mapped.force();
+        }
+        assertArrayEquals(new byte[] {4, 3, 2, 1}, Files.readAllBytes(file));
+    }
+
+    @Test
+    public void copiesAreOnTheHeap() {
+        ByteBuffer bytes = ByteBuffer.allocateDirect(4);
+        bytes.put(0, (byte) 1).put(1, (byte) 2).put(2, (byte) 3).put(3, (byte) 4);
+        NativeArrayBuffer buf = new NativeArrayBuffer(bytes);
+
+        NativeArrayBuffer slice = buf.slice(1, 3);
+        assertArrayEquals(new byte[] {2, 3}, slice.getBuffer());
+        assertEquals(
+                "1,2,3,4,0,0:true",
+                eval(
+                        buf,
+                        "var t = buf.transfer(6);\n"
+                                + "new Uint8Array(t).join() + ':' + buf.detached"));
+        assertTrue(buf.isDetached());
+        assertNull(buf.getByteBuffer());
+    }
+
+    @Test
+    public void serializedAsCopy() throws IOException, ClassNotFoundException {
+        ByteBuffer bytes = ByteBuffer.allocateDirect(4);
+        bytes.put(0, (byte) 1).put(1, (byte) 2).put(2, (byte) 3).put(3, (byte) 4);
+        NativeArrayBuffer buf = new NativeArrayBuffer(bytes);
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bos)) {
+            out.writeObject(buf);
+        }
+        NativeArrayBuffer copy;
+        try (ObjectInputStream in =
+                new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+            copy = (NativeArrayBuffer) in.readObject();
+        }
+        assertArrayEquals(new byte[] {1, 2, 3, 4}, copy.getBuffer());
+        bytes.put(0, (byte) 9);
+        assertEquals(1, copy.getBuffer()[0]);
+    }
+
+        @Test
+    public void readOnlyBuffer() {
+        ByteBuffer bytes = ByteBuffer.allocateDirect(4).asReadOnlyBuffer();
+        assertThrows(IllegalArgumentException.class, () -> new NativeArrayBuffer(bytes));
+    }
+}
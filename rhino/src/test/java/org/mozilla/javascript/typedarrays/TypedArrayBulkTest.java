@@ -0,0 +1,104 @@
+package org.mozilla.javascript.typedarrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.testutils.Utils;
+
+public class TypedArrayBulkTest {
+
+    private static final String SHOW =
+            "function show(a) { return Array.prototype.join.call(a); }\n";
+
+    @Test
+    public void copyWithin() {
+        Utils.assertWithAllModes_ES6(
+                "1,2,1,2,3,4,5,8 4,5,6,7,8,6,7,8 1.5,2.5,3.5,1.5",
+                SHOW
+                        + "var a = new Int16Array([1, 2, 3, 4, 5, 6, 7, 8]);\n"
+                        + "var b = new Int16Array([1, 2, 3, 4, 5, 6, 7, 8]);\n"
+                        + "var c = new Float64Array([1.5, 2.5, 3.5, 4.5]);\n"
+                        + "[show(a.copyWithin(2, 0, 5)), show(b.copyWithin(0, 3)),"
+                        + " show(c.copyWithin(-1, 0))].join(' ')");
+    }
+
+    @Test
+    public void fill() {
+        Utils.assertWithAllModes_ES6(
+                "0,1.25,1.25,1.25,0 255,255,255,255 0,0,127,127,127 -5,-5,-5"
+                        + " 0,4294967295,4294967295,4294967295,0,0",
+                SHOW
+                        + "[show(new Float32Array(5).fill(1.25, 1, -1)),"
+                        + " show(new Uint8ClampedArray(4).fill(300)),"
+                        + " show(new Int8Array(5).fill(-129, 2)),"
+                        + " show(new BigInt64Array(3).fill(-5n)),"
+                        + " show(new Uint32Array(6).fill(-1, 1, 4))].join(' ')");
+    }
+
+    @Test
+    public void set() {
+        Utils.assertWithAllModes_ES6(
+                "1,2,1,2,3,4 0,-1,2,-3 1,65535,0,0",
+                SHOW
+                        + "var a = new Int32Array([1, 2, 3, 4, 5, 6]);\n"
+                        + "a.set(a.subarray(0, 4), 2);\n"
+                        + "var b = new Float64Array(4);\n"
+                        + "b.set(new Int8Array([-1, 2, -3]), 1);\n"
+                        + "var c = new Uint16Array(4);\n"
+                        + "c.set(new Float32Array([1.5, -1, 300]).subarray(0, 2));\n"
+                        + "[show(a), show(b), show(c)].join(' ')");
+    }
+
+    @Test
+    public void slice() {
+        Utils.assertWithAllModes_ES6(
+                "-2,3,-4 Int16Array  5,6",
+                SHOW
+                        + "var a = new Int16Array([1, -2, 3, -4, 5]);\n"
+                        + "var b = new Uint8Array([1, 2, 3]);\n"
+                        + "var c = new Float32Array([4, 5, 6]).subarray(1);\n"
+                        + "[show(a.slice(1, 4)), a.slice(-2).constructor.name, show(b.slice(5)),"
+                        + " show(c.slice())].join(' ')");
+    }
+
+    @Test
+    public void elements() {
+        String script =
+                "var t = new Int32Array(4);\n"
+                        + "for (var i = 0; i < 4; i++) { t[i] = i * 1.5; }\n"
+                        + "var u = new Uint8Array(3);\n"
+                        + "u[0] = '7'; u[1] = { valueOf: function() { return 513; } };\n"
+                        + "u[2.5] = 9; u[-1] = 9; u[5] = 1;\n"
+                        + "var f = new Float64Array(2);\n"
+                        + "var k = 0; f[k] = 0.1; f[k + 1] = f[k] * 3;\n";
+        String result = "[show(t), show(u), u[2.5], u[-1], u[5], u['1'], show(f)].join(' ')";
+        String expected = "0,1,3,4 7,1,0    1 0.1,0.30000000000000004";
+        Utils.assertWithAllModes_ES6(expected, SHOW + script + result);
+        // Numeric indices are handled differently in functions
+        Utils.assertWithAllModes_ES6(
+                expected, SHOW + "(function() {" + script + "return " + result + "; })()");
+    }
+
+    @Test
+    public void getAndSetDouble() {
+        try (Context cx = Context.enter()) {
+            NativeUint8ClampedArray clamped = new NativeUint8ClampedArray(2);
+            clamped.setDouble(0, 254.5);
+            clamped.setDouble(1, -3);
+            clamped.setDouble(2, 1);
+            assertEquals(254.0, clamped.getDouble(0));
+            assertEquals(0.0, clamped.getDouble(1));
+            assertEquals(Double.NaN, clamped.getDouble(2));
+
+            NativeUint32Array uints = new NativeUint32Array(1);
+            uints.setDouble(0, -1);
+            assertEquals(4294967295.0, uints.getDouble(0));
+            assertEquals(Long.valueOf(4294967295L), uints.get(0));
+
+            NativeFloat16Array halves = new NativeFloat16Array(1);
+            halves.setDouble(0, 1.0 / 3);
+            assertEquals(0.333251953125, halves.getDouble(0));
+        }
+    }
+}
@@ -527,8 +527,8 @@ public class NativeConsoleTest {
 
     @Test
     public void printConsString() {
-        String js = "var msg = '['; msg += '%s'; msg += ']'; console.log(msg, 1234)";
-        assertPrintMsg(js, "[1234]");
+        String js = "var msg = 'the value is ['; msg += '%s'; msg += ']'; console.log(msg, 1234)";
+        assertPrintMsg(js, "the value is [1234]");
     }
 
     @Test
@@ -200,6 +200,22 @@ public class NativeJavaListTest {
         assertEquals("[a, b, c, d, e, f]", list.toString());
     }
 
+    @Test
+    public void arrayMethods() {
+        List<String> list = new ArrayList<>(List.of("a", "b", "c"));
+        String script =
+                "var P = Array.prototype;\n"
+                        + "[P.map.call(value, function(x, i) { return x + i; }).join(),\n"
+                        + " P.filter.call(value, function(x) { return x != 'b'; }).join(),\n"
+                        + " P.reduceRight.call(value, function(s, x) { return s + x; }),\n"
+                        + " P.join.call(value, '-')].join(' ')";
+        assertEquals("a0,b1,c2 a,c cba a-b-c", runScriptAsString(script, list));
+
+        list = new LinkedList<>(List.of("a", "b", "c"));
+        script = "var r = []; Array.prototype.forEach.call(value, function(x) { r.push(x); }); r";
+        assertEquals("a,b,c", runScriptAsString(script, list));
+    }
+
     @Test
     public void keys() {
         List<String> list = new ArrayList<>();
@@ -107,6 +107,15 @@ public class NativeJavaMethodTest {
                 "d.f1('x', '3');");
     }
 
+    @Test
+    void overloadPerArgumentClasses() {
+        expect(
+                Arrays.asList("1.1", "1.2", "1", "1.1", "1.2", "1", "1.1", "1.2", "1"),
+                "for (var i = 0; i < 9; i++) {",
+                "  if (i % 3 == 2) d.f1('x'); else d.f1('x', i % 3 == 0 ? i : 'y');",
+                "}");
+    }
+
     @Test
     void varArg() {
         expect(
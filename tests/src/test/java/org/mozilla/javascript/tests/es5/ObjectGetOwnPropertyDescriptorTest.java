@@ -55,13 +55,13 @@ public class ObjectGetOwnPropertyDescriptorTest {
             final String script =
                     "var hostObj = new AnnotatedHostObject();\n"
                             + "var valueProperty = Object.getOwnPropertyDescriptor(Object.getPrototypeOf(hostObj), 'myProp');\n"
-                            + "var consString = 'a';\n"
-                            + "consString = consString + 'bc';\n"
+                            + "var consString = 'a value of';\n"
+                            + "consString = consString + ' consString';\n"
                             + "valueProperty.set.call(hostObj, consString);\n"
                             + "var result = '' + valueProperty.get.call(hostObj);\n"
                             + "result;\n";
             String result = (String) cx.evaluateString(scope, script, "<testsrc>", 0, null);
-            assertEquals("abc", result);
+            assertEquals("a value of consString", result);
         }
     }
 